@@ -6,7 +6,11 @@ plugins {
 
 group = "com.example"
 version = "1.0.0"
-java.sourceCompatibility = JavaVersion.VERSION_17
+java {
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    }
+}
 
 repositories {
     mavenCentral()
@@ -9,6 +9,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.stream.Collectors;
 
 public class OrderManager {
@@ -116,7 +117,7 @@ public class OrderManager {
             orders.put(orderId, order);
             
             String reason = this.rejectAllNewOrders ? "reject mode active" : "TCP server not available";
-            logger.error("REJECTED mock FIX order: {} - {} {} {} shares @ ${:.2f} (reason: {})", 
+            logger.error("REJECTED mock FIX order: {} - {} {} {} shares @ ${} (reason: {})", 
                        orderId, side.equals("1") ? "BUY" : "SELL", symbol, orderQty, price, reason);
             return;
         }
@@ -160,7 +161,7 @@ public class OrderManager {
                 .build();
         
         orders.put(orderId, order);
-        logger.info("Generated mock FIX order: {} - {} {} {} shares @ ${:.2f}", 
+        logger.info("Generated mock FIX order: {} - {} {} {} shares @ ${}", 
                    orderId, side.equals("1") ? "BUY" : "SELL", symbol, orderQty, price);
     }
     
@@ -251,7 +252,7 @@ public class OrderManager {
                     .build();
             
             orders.put(orderId, order);
-            logger.info("Added new FIX order: {} - {} {} {} shares @ ${:.2f}", 
+            logger.info("Added new FIX order: {} - {} {} {} shares @ ${}", 
                        orderId, request.getSide().equals("1") ? "BUY" : "SELL", 
                        request.getSymbol(), request.getOrderQty(), request.getPrice());
             
@@ -428,7 +429,8 @@ public class OrderManager {
                     "ListCancelledOrRejectedOrders",
                     "GetServiceInfo",
                     "GetFixConfig",
-                    "ToggleFix"
+                    "ToggleFix",
+                    "GetAcceptorStats"
                 ))
                 .setFixConfig(fixConfig)
                 .build();
@@ -502,6 +504,25 @@ public class OrderManager {
         }
     }
     
+    // Connections accepted by each FIX listener; more than one means SO_REUSEPORT
+    public AcceptorStatsResponse getAcceptorStats(AcceptorStatsRequest request) {
+        AcceptorStatsResponse.Builder builder = AcceptorStatsResponse.newBuilder();
+        if (application == null) {
+            logger.warn("Application reference not set, no acceptor stats available");
+            return builder.build();
+        }
+        
+        AtomicLongArray accepted = application.getFixServer().getAcceptedConnections();
+        builder.setReusePort(accepted.length() > 1);
+        for (int i = 0; i < accepted.length(); i++) {
+            builder.addAcceptors(AcceptorStats.newBuilder()
+                    .setAcceptor(i)
+                    .setAcceptedConnections(accepted.get(i))
+                    .build());
+        }
+        return builder.build();
+    }
+    
     // Method to toggle admin server on/off (affects Consul gRPC health check)
     public ToggleAdminResponse toggleAdmin(ToggleAdminRequest request) {
         try {
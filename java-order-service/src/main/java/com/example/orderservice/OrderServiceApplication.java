@@ -27,7 +27,8 @@ public class OrderServiceApplication {
         this.orderManager = new OrderManager();
         
         // Create servers with OrderManager reference
-        this.fixServer = new FixServer(ServiceConfig.FIX_PORT, this.orderManager);
+        this.fixServer = new FixServer(ServiceConfig.FIX_PORT, this.orderManager, ServiceConfig.FIX_CONNECTION_EXECUTOR,
+                ServiceConfig.FIX_ACCEPTOR_THREADS);
         this.adminServer = new AdminServer(ServiceConfig.ADMIN_PORT, this.orderManager);
         
         // Set the application reference in OrderManager for server control
@@ -148,6 +149,10 @@ public class OrderServiceApplication {
         return fixServer.isRunning();
     }
     
+    public FixServer getFixServer() {
+        return fixServer;
+    }
+    
     public static void main(String[] args) {
         OrderServiceApplication app = new OrderServiceApplication();
         app.run();
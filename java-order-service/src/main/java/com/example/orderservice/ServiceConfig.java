@@ -26,6 +26,8 @@ public class ServiceConfig {
     public static final String FIX_SENDER_COMP_ID = getEnv("FIX_SENDER_COMP_ID", "ORDER_SERVICE");
     public static final int FIX_HEARTBEAT_INTERVAL = getEnvAsInt("FIX_HEARTBEAT_INTERVAL", 30);
     public static final String FIX_VERSION = getEnv("FIX_VERSION", "FIX.4.4");
+    public static final String FIX_CONNECTION_EXECUTOR = getEnv("FIX_CONNECTION_EXECUTOR", "cached"); // cached | virtual
+    public static final int FIX_ACCEPTOR_THREADS = getEnvAsInt("FIX_ACCEPTOR_THREADS", 1); // >1 binds SO_REUSEPORT listeners
     
     // Mock Order Generation
     public static final int MOCK_ORDER_INITIAL_DELAY = getEnvAsInt("MOCK_ORDER_INITIAL_DELAY", 5);
@@ -85,6 +87,8 @@ public class ServiceConfig {
         logger.info("FIX Sender Comp ID: {}", FIX_SENDER_COMP_ID);
         logger.info("FIX Heartbeat Interval: {}", FIX_HEARTBEAT_INTERVAL);
         logger.info("FIX Version: {}", FIX_VERSION);
+        logger.info("FIX Connection Executor: {}", FIX_CONNECTION_EXECUTOR);
+        logger.info("FIX Acceptor Threads: {}", FIX_ACCEPTOR_THREADS);
         logger.info("Mock Order Enabled: {}", MOCK_ORDER_ENABLED);
         logger.info("Mock Order Initial Delay: {}", MOCK_ORDER_INITIAL_DELAY);
         logger.info("Mock Order Interval: {}", MOCK_ORDER_INTERVAL);
@@ -158,6 +158,19 @@ public class OrderServiceGrpcImpl extends OrderAdminServiceGrpc.OrderAdminServic
         }
     }
     
+    @Override
+    public void getAcceptorStats(AcceptorStatsRequest request,
+                                 StreamObserver<AcceptorStatsResponse> responseObserver) {
+        try {
+            AcceptorStatsResponse response = orderManager.getAcceptorStats(request);
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+        } catch (Exception e) {
+            logger.error("Error in getAcceptorStats", e);
+            responseObserver.onError(e);
+        }
+    }
+    
     @Override
     public void toggleAdmin(ToggleAdminRequest request, 
                           StreamObserver<ToggleAdminResponse> responseObserver) {
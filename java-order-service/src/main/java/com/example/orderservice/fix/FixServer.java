@@ -9,22 +9,39 @@ import java.io.PrintWriter;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.net.StandardSocketOptions;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 public class FixServer {
     private static final Logger logger = LoggerFactory.getLogger(FixServer.class);
 
     private final int port;
     private final OrderManager orderManager;
-    private final ExecutorService executorService = Executors.newCachedThreadPool();
+    private final String connectionExecutor;
+    private final int acceptorThreads;
 
-    private volatile ServerSocket serverSocket;      // may be rebound
+    private volatile ExecutorService executorService; // recreated on every start
+    private volatile ServerSocket[] serverSockets;   // may be rebound
+    private volatile AtomicLongArray acceptedConnections = new AtomicLongArray(0);
     private volatile boolean running = false;
 
     public FixServer(int port, OrderManager orderManager) {
+        this(port, orderManager, "cached", 1);
+    }
+
+    /**
+     * @param connectionExecutor "cached" for a platform thread pool, "virtual"
+     *                           for one virtual thread per client connection
+     * @param acceptorThreads    listening sockets bound to the port with SO_REUSEPORT,
+     *                           each with its own accept thread; 1 binds a single socket
+     */
+    public FixServer(int port, OrderManager orderManager, String connectionExecutor, int acceptorThreads) {
         this.port = port;
         this.orderManager = orderManager;
+        this.connectionExecutor = connectionExecutor;
+        this.acceptorThreads = acceptorThreads;
     }
 
     /* ------------------------------------------------------------------- */
@@ -35,23 +52,66 @@ public class FixServer {
             return;
         }
 
-        serverSocket = new ServerSocket();
-        serverSocket.setReuseAddress(true);          // <<< quick re-bind
-        serverSocket.bind(new InetSocketAddress(port));
+        serverSockets = bindListeners();
+        acceptedConnections = new AtomicLongArray(serverSockets.length);
+        executorService = newConnectionExecutor();
         running = true;
 
-        logger.info("FIX server STARTED on port {}", port);
+        logger.info("FIX server STARTED on port {} ({} connection threads, {} acceptors)",
+                port, connectionExecutor, serverSockets.length);
 
-        new Thread(this::acceptLoop, "fix-listener-" + port) {{
-            setDaemon(true);
-            start();
-        }};
+        for (int i = 0; i < serverSockets.length; i++) {
+            int acceptor = i;
+            String name = "fix-listener-" + port + (serverSockets.length > 1 ? "-" + i : "");
+            new Thread(() -> acceptLoop(acceptor), name) {{
+                setDaemon(true);
+                start();
+            }};
+        }
+    }
+
+    /**
+     * Binds one listening socket, or {@code acceptorThreads} sockets sharing the
+     * port through SO_REUSEPORT so the kernel spreads new connections across them.
+     */
+    private ServerSocket[] bindListeners() throws IOException {
+        ServerSocket first = new ServerSocket();
+        boolean reusePort = acceptorThreads > 1 && first.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT);
+        if (acceptorThreads > 1 && !reusePort) {
+            logger.warn("SO_REUSEPORT is not supported on this platform; using a single acceptor");
+        }
+        ServerSocket[] sockets = new ServerSocket[reusePort ? acceptorThreads : 1];
+        try {
+            for (int i = 0; i < sockets.length; i++) {
+                ServerSocket socket = i == 0 ? first : new ServerSocket();
+                sockets[i] = socket;
+                socket.setReuseAddress(true);          // <<< quick re-bind
+                if (reusePort) {
+                    socket.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+                }
+                socket.bind(new InetSocketAddress(port));
+            }
+        } catch (IOException e) {
+            closeListeners(sockets);               // not yet published in serverSockets
+            throw e;
+        }
+        return sockets;
+    }
+
+    private ExecutorService newConnectionExecutor() {
+        if ("virtual".equalsIgnoreCase(connectionExecutor)) {
+            // handleClient blocks (including the demo sleep); virtual threads unmount instead of pinning a carrier
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fix-client-" + port + "-", 0).factory());
+        }
+        return Executors.newCachedThreadPool();
     }
 
-    private void acceptLoop() {
+    private void acceptLoop(int acceptor) {
+        ServerSocket serverSocket = serverSockets[acceptor];
         while (running) {
             try {
                 Socket client = serverSocket.accept();
+                acceptedConnections.incrementAndGet(acceptor);
                 executorService.submit(() -> handleClient(client));
             } catch (IOException e) {
                 if (running) logger.error("Accept error", e);
@@ -90,13 +150,8 @@ public class FixServer {
         }
 
         running = false;
-        try {
-            if (serverSocket != null && !serverSocket.isClosed()) {
-                serverSocket.close();                // release the port immediately
-                logger.info("FIX server socket CLOSED on port {}", port);
-            }
-        } catch (IOException e) {
-            logger.warn("Error closing server socket", e);
+        if (closeListeners()) {                      // release the port immediately
+            logger.info("FIX server socket CLOSED on port {}", port);
         }
         
         // Shutdown the executor service to stop any pending client handlers
@@ -107,6 +162,32 @@ public class FixServer {
 
     public boolean isRunning() { return running; }
     
+    /** Connections accepted by each listening socket since the last start. */
+    public AtomicLongArray getAcceptedConnections() { return acceptedConnections; }
+    
+    /** Closes every listening socket; returns whether any was still open. */
+    private boolean closeListeners() {
+        return closeListeners(serverSockets);
+    }
+    
+    private static boolean closeListeners(ServerSocket[] sockets) {
+        boolean closed = false;
+        if (sockets == null) {
+            return false;
+        }
+        for (ServerSocket socket : sockets) {
+            try {
+                if (socket != null && !socket.isClosed()) {
+                    socket.close();
+                    closed = true;
+                }
+            } catch (IOException e) {
+                logger.warn("Error closing server socket", e);
+            }
+        }
+        return closed;
+    }
+    
     /**
      * Force close the server socket to ensure the port is released immediately.
      * This is used to make Consul health checks fail quickly.
@@ -115,13 +196,8 @@ public class FixServer {
         logger.warn("FORCE SHUTDOWN of FIX server on port {}", port);
         running = false;
         
-        try {
-            if (serverSocket != null && !serverSocket.isClosed()) {
-                serverSocket.close();
-                logger.info("FIX server socket FORCE CLOSED on port {}", port);
-            }
-        } catch (IOException e) {
-            logger.warn("Error force closing server socket", e);
+        if (closeListeners()) {
+            logger.info("FIX server socket FORCE CLOSED on port {}", port);
         }
         
         executorService.shutdownNow(); // Force shutdown all threads
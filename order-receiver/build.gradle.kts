@@ -2,6 +2,7 @@ plugins {
     id("java")
     id("application")
     id("com.google.protobuf") version "0.9.4"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.example"
@@ -29,6 +30,7 @@ dependencies {
     
     // Testing
     testImplementation("org.junit.jupiter:junit-jupiter:5.9.2")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
 protobuf {
@@ -58,7 +60,15 @@ tasks.test {
     useJUnitPlatform()
 }
 
+// Benchmarks live in src/jmh/java; run with ./gradlew :order-receiver:jmh
+jmh {
+    warmupIterations.set(2)
+    iterations.set(5)
+    fork.set(1)
+}
+
 java {
-    sourceCompatibility = JavaVersion.VERSION_11
-    targetCompatibility = JavaVersion.VERSION_11
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    }
 } 
\ No newline at end of file
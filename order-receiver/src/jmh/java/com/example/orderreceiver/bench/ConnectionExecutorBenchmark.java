@@ -0,0 +1,90 @@
+package com.example.orderreceiver.bench;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.orderreceiver.OrderManager;
+import com.example.orderreceiver.tcp.AdmissionController;
+import com.example.orderreceiver.tcp.OrderTcpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the blocking listener's cached platform-thread pool with one virtual
+ * thread per connection. Each invocation connects, sends one order and reads
+ * the answer while {@code idleConnections} other clients hold a connection (and
+ * therefore a handler thread) open.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ConnectionExecutorBenchmark {
+    private static final byte[] ORDER =
+            "ORDER|BENCH-000001|AAPL|BUY|100|150.50|TRADER001|NASDAQ|20241201-14:30:45.123\n"
+                    .getBytes(StandardCharsets.US_ASCII);
+
+    @Param({"cached", "virtual"})
+    public String executor;
+
+    @Param({"0", "2000"})
+    public int idleConnections;
+
+    private OrderTcpServer server;
+    private int port;
+    private final List<Socket> idle = new ArrayList<>();
+
+    @Setup
+    public void setUp() throws IOException {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+        server = new OrderTcpServer(port, "blocking", 1, executor, 1, AdmissionController.unbounded(), null, new OrderManager());
+        server.start();
+
+        for (int i = 0; i < idleConnections; i++) {
+            idle.add(new Socket("localhost", port));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (Socket socket : idle) {
+            try { socket.close(); } catch (IOException ignored) {}
+        }
+        idle.clear();
+        server.shutdown();
+        server.getOrderManager().shutdown();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public String connectAndOrder() throws IOException {
+        try (Socket socket = new Socket("localhost", port)) {
+            OutputStream out = socket.getOutputStream();
+            out.write(ORDER);
+            out.flush();
+            return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII)).readLine();
+        }
+    }
+}
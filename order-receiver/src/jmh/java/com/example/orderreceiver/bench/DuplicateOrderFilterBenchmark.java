@@ -0,0 +1,72 @@
+package com.example.orderreceiver.bench;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.orderreceiver.OrderManager;
+import com.example.orderreceiver.dedup.DuplicateOrderFilter;
+import com.example.orderreceiver.tcp.ResponseStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cost the duplicate check adds to each order: claiming and completing a new
+ * id, and answering a resent one from the exact recent set. Both should stay
+ * well under a microsecond.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DuplicateOrderFilterBenchmark {
+    private static final int RESENT_IDS = 1 << 12;
+
+    private final AtomicLong nextId = new AtomicLong();
+    private final String[] resentIds = new String[RESENT_IDS];
+    private OrderManager orderManager;
+    private DuplicateOrderFilter filter;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        orderManager = new OrderManager();
+        filter = new DuplicateOrderFilter(orderManager, TimeUnit.MINUTES.toMillis(5), 100_000,
+                TimeUnit.HOURS.toMillis(1), 1_000_000);
+        for (int i = 0; i < RESENT_IDS; i++) {
+            resentIds[i] = "RESENT-" + i;
+            filter.claim("AAPL", resentIds[i]);
+            filter.complete(resentIds[i], ResponseStatus.FILLED);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        orderManager.shutdown();
+    }
+
+    /** Includes building the id string, as decoding does for every order. */
+    @Benchmark
+    @Threads(4)
+    public ResponseStatus newOrder() {
+        String orderId = "SENDER-" + nextId.incrementAndGet();
+        ResponseStatus original = filter.claim("AAPL", orderId);
+        filter.complete(orderId, ResponseStatus.FILLED);
+        return original;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ResponseStatus resentOrder() {
+        return filter.claim("AAPL", resentIds[(int) (nextId.incrementAndGet() & (RESENT_IDS - 1))]);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.orderreceiver.bench;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.orderreceiver.OrderManager;
+import com.example.orderreceiver.journal.MappedOrderJournal;
+import com.example.orderreceiver.tcp.AdmissionController;
+import com.example.orderreceiver.tcp.OrderTcpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Per-order round-trip latency over loopback TCP with the journal off and with
+ * group commit at two flush intervals. With the journal on, every response
+ * waits for the sync that covers its order, so more concurrent clients share
+ * each sync.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JournalLatencyBenchmark {
+    private static final byte[] ORDER =
+            "ORDER|BENCH-000001|AAPL|BUY|100|150.50|TRADER001|NASDAQ|20241201-14:30:45.123\n"
+                    .getBytes(StandardCharsets.US_ASCII);
+
+    /** Flush interval in microseconds; 0 runs without a journal. */
+    @Param({"0", "200", "1000"})
+    public int flushIntervalMicros;
+
+    private OrderTcpServer server;
+    private MappedOrderJournal journal;
+    private Path directory;
+    private int port;
+
+    @Setup
+    public void setUp() throws IOException {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+        server = new OrderTcpServer(port, "blocking", 1, "cached", 1, AdmissionController.unbounded(), null, new OrderManager());
+        if (flushIntervalMicros > 0) {
+            directory = Files.createTempDirectory("journal-latency-bench");
+            journal = MappedOrderJournal.open(directory, 64 * 1024 * 1024, 2, flushIntervalMicros, 256 * 1024);
+            server.setJournal(journal);
+        }
+        server.start();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.shutdown();
+        server.getOrderManager().shutdown();
+        if (journal != null) {
+            journal.close();
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    /** One persistent connection per benchmark thread. */
+    @State(Scope.Thread)
+    public static class Client {
+        private final byte[] response = new byte[256];
+        private Socket socket;
+        private InputStream in;
+        private OutputStream out;
+
+        @Setup
+        public void connect(JournalLatencyBenchmark benchmark) throws IOException {
+            socket = new Socket("localhost", benchmark.port);
+            socket.setTcpNoDelay(true);
+            in = socket.getInputStream();
+            out = socket.getOutputStream();
+        }
+
+        @TearDown
+        public void close() throws IOException {
+            socket.close();
+        }
+
+        int roundTrip() throws IOException {
+            out.write(ORDER);
+            int filled = 0;
+            while (true) {
+                int read = in.read(response, filled, response.length - filled);
+                if (read < 0) {
+                    throw new EOFException("Receiver closed the connection");
+                }
+                for (int i = filled; i < filled + read; i++) {
+                    if (response[i] == '\n') {
+                        return i;
+                    }
+                }
+                filled += read;
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int singleClient(Client client) throws IOException {
+        return client.roundTrip();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public int eightClients(Client client) throws IOException {
+        return client.roundTrip();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.orderreceiver.bench;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.orderreceiver.OrderManager;
+import com.example.orderreceiver.grpc.Order;
+import com.example.orderreceiver.grpc.OrderResponse;
+import com.example.orderreceiver.journal.MappedOrderJournal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Startup replay speed: reads a journal of one million orders written by an
+ * earlier run back into a fresh {@link OrderManager} and waits until every
+ * shard has applied them. Scored in orders replayed per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JournalReplayBenchmark {
+    private static final int RECORDS = 1_000_000;
+    private static final int SYMBOLS = 256;
+    private static final int SEGMENT_BYTES = 64 * 1024 * 1024;
+
+    @Param({"1", "4"})
+    public int shards;
+
+    private Path directory;
+
+    @Setup
+    public void setUp() throws IOException {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        directory = Files.createTempDirectory("journal-replay-bench");
+        try (MappedOrderJournal journal = MappedOrderJournal.open(directory, SEGMENT_BYTES, 0, 1000, 1024 * 1024)) {
+            long position = 0;
+            for (int i = 0; i < RECORDS; i++) {
+                String orderId = "BENCH-" + i;
+                position = journal.append(Order.newBuilder()
+                        .setOrderId(orderId)
+                        .setSymbol("SYM" + (i % SYMBOLS))
+                        .setSide(i % 2 == 0 ? "BUY" : "SELL")
+                        .setOrderQty(100)
+                        .setPrice(150.50)
+                        .setAccount("TRADER001")
+                        .setExchange("NASDAQ")
+                        .setTransactTime("20241201-14:30:45.123")
+                        .build(),
+                        OrderResponse.newBuilder()
+                        .setOrderId(orderId)
+                        .setStatus(i % 10 == 0 ? "REJECTED" : "FILLED")
+                        .setMessage("Order filled successfully")
+                        .build());
+            }
+            journal.awaitDurable(position);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public long replay() throws IOException {
+        OrderManager orderManager = new OrderManager(shards);
+        // Each open starts an empty segment of its own; it replays as a header and nothing else
+        try (MappedOrderJournal journal = MappedOrderJournal.open(directory, SEGMENT_BYTES, 0, 1000, 1024 * 1024)) {
+            long replayed = journal.replay(orderManager::record);
+            orderManager.awaitProcessed();
+            return replayed;
+        } finally {
+            orderManager.shutdown();
+        }
+    }
+}
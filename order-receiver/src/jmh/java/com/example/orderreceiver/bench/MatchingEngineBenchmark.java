@@ -0,0 +1,70 @@
+package com.example.orderreceiver.bench;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.orderreceiver.matching.MatchResult;
+import com.example.orderreceiver.matching.MatchingEngine;
+import com.example.orderreceiver.matching.OrderBook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slf4j.LoggerFactory;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-order match latency for a book around a stable mid price, with a mix of
+ * crossing and resting orders. {@code bookOnly} measures the data structure;
+ * {@code engine} adds the symbol lookup and per-book lock taken on the order path.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MatchingEngineBenchmark {
+    private static final int ORDERS = 1 << 16;
+    private static final int MAX_RESTING = 10_000;
+    private static final long MID = 150_0000L; // 150.0000
+
+    private final boolean[] buys = new boolean[ORDERS];
+    private final long[] prices = new long[ORDERS];
+    private final long[] quantities = new long[ORDERS];
+    private OrderBook book;
+    private MatchingEngine engine;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        Random random = new Random(42);
+        for (int i = 0; i < ORDERS; i++) {
+            buys[i] = random.nextBoolean();
+            prices[i] = MID + (random.nextInt(201) - 100) * 100; // +/- 1.00 in cent ticks
+            quantities[i] = 1 + random.nextInt(500);
+        }
+        book = new OrderBook("AAPL", MAX_RESTING);
+        engine = new MatchingEngine(MAX_RESTING);
+        // Warm both books to a realistic depth before measuring
+        for (int i = 0; i < ORDERS; i++) {
+            book.submit("WARM", buys[i], prices[i], quantities[i]);
+            engine.submit("AAPL", "WARM", buys[i], prices[i], quantities[i]);
+        }
+    }
+
+    @Benchmark
+    public MatchResult bookOnly() {
+        int i = next++ & (ORDERS - 1);
+        return book.submit("BENCH", buys[i], prices[i], quantities[i]);
+    }
+
+    @Benchmark
+    public MatchResult engine() {
+        int i = next++ & (ORDERS - 1);
+        return engine.submit("AAPL", "BENCH", buys[i], prices[i], quantities[i]);
+    }
+}
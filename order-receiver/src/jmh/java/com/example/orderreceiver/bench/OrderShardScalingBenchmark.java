@@ -0,0 +1,87 @@
+package com.example.orderreceiver.bench;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.orderreceiver.OrderManager;
+import com.example.orderreceiver.grpc.Order;
+import com.example.orderreceiver.grpc.OrderResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order-state throughput as the number of symbol shards grows. Eight producer
+ * threads each record a batch of orders spread over many symbols and then wait
+ * until every shard has applied them, so the score is orders stored per second
+ * end to end rather than just the cost of enqueueing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OrderShardScalingBenchmark {
+    private static final int BATCH = 10_000;
+    private static final int DISTINCT_ORDERS = 1 << 16;
+    private static final int SYMBOLS = 256;
+
+    @Param({"1", "2", "4", "8"})
+    public int shards;
+
+    private OrderManager orderManager;
+    private final Order[] orders = new Order[DISTINCT_ORDERS];
+    private final OrderResponse[] responses = new OrderResponse[DISTINCT_ORDERS];
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        orderManager = new OrderManager(shards);
+        for (int i = 0; i < DISTINCT_ORDERS; i++) {
+            // Ids repeat across invocations, so the shards overwrite rather than grow
+            String orderId = "BENCH-" + i;
+            orders[i] = Order.newBuilder()
+                    .setOrderId(orderId)
+                    .setSymbol("SYM" + (i % SYMBOLS))
+                    .setSide(i % 2 == 0 ? "BUY" : "SELL")
+                    .setOrderQty(100)
+                    .setPrice(150.50)
+                    .setAccount("TRADER001")
+                    .setExchange("NASDAQ")
+                    .setTransactTime("20241201-14:30:45.123")
+                    .build();
+            responses[i] = OrderResponse.newBuilder()
+                    .setOrderId(orderId)
+                    .setStatus("FILLED")
+                    .setMessage("Order filled successfully")
+                    .build();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        orderManager.shutdown();
+    }
+
+    @Benchmark
+    @Threads(8)
+    @OperationsPerInvocation(BATCH)
+    public void recordBatch() {
+        int next = ThreadLocalRandom.current().nextInt(DISTINCT_ORDERS);
+        for (int i = 0; i < BATCH; i++) {
+            int index = (next + i) & (DISTINCT_ORDERS - 1);
+            orderManager.record(orders[index], responses[index]);
+        }
+        orderManager.awaitProcessed();
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.orderreceiver.bench;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.orderreceiver.OrderManager;
+import com.example.orderreceiver.tcp.AdmissionController;
+import com.example.orderreceiver.tcp.OrderTcpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order round trips over loopback TCP versus the receiver's Unix domain socket,
+ * on persistent connections with one order in flight per client. Reported both
+ * as throughput and as a latency distribution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UnixSocketBenchmark {
+    private static final byte[] ORDER =
+            "ORDER|BENCH-000001|AAPL|BUY|100|150.50|TRADER001|NASDAQ|20241201-14:30:45.123\n"
+                    .getBytes(StandardCharsets.US_ASCII);
+
+    @Param({"tcp", "uds"})
+    public String transport;
+
+    @Param({"blocking", "nio"})
+    public String serverMode;
+
+    private OrderTcpServer server;
+    private int port;
+    private Path socketPath;
+
+    @Setup
+    public void setUp() throws IOException {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+        socketPath = Files.createTempDirectory("uds-bench").resolve("receiver.sock");
+        server = new OrderTcpServer(port, serverMode, 2, "cached", 1, AdmissionController.unbounded(), null, new OrderManager());
+        server.setUnixSocketPath(socketPath);
+        server.start();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.shutdown();
+        server.getOrderManager().shutdown();
+        Files.deleteIfExists(socketPath.getParent());
+    }
+
+    /** One persistent connection per benchmark thread. */
+    @State(Scope.Thread)
+    public static class Client {
+        private final byte[] response = new byte[256];
+        private Closeable connection;
+        private InputStream in;
+        private OutputStream out;
+
+        @Setup
+        public void connect(UnixSocketBenchmark benchmark) throws IOException {
+            if ("uds".equals(benchmark.transport)) {
+                SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+                channel.connect(UnixDomainSocketAddress.of(benchmark.socketPath));
+                connection = channel;
+                in = Channels.newInputStream(channel);
+                out = Channels.newOutputStream(channel);
+            } else {
+                Socket socket = new Socket("localhost", benchmark.port);
+                socket.setTcpNoDelay(true);
+                connection = socket;
+                in = socket.getInputStream();
+                out = socket.getOutputStream();
+            }
+        }
+
+        @TearDown
+        public void close() throws IOException {
+            connection.close();
+        }
+
+        int roundTrip() throws IOException {
+            out.write(ORDER);
+            int filled = 0;
+            while (true) {
+                int read = in.read(response, filled, response.length - filled);
+                if (read < 0) {
+                    throw new EOFException("Receiver closed the connection");
+                }
+                for (int i = filled; i < filled + read; i++) {
+                    if (response[i] == '\n') {
+                        return i;
+                    }
+                }
+                filled += read;
+            }
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int singleClient(Client client) throws IOException {
+        return client.roundTrip();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int fourClients(Client client) throws IOException {
+        return client.roundTrip();
+    }
+}
@@ -7,28 +7,157 @@ import org.slf4j.LoggerFactory;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
+/**
+ * Order and response state, partitioned by symbol across single-writer
+ * {@link OrderShard}s. Writes are routed to the symbol's shard and return
+ * immediately; admin queries fan out to every shard and merge the results, so
+ * they observe all writes submitted before the query. Each shard evicts old
+ * state according to the {@link OrderRetention}.
+ */
 public class OrderManager {
     private static final Logger logger = LoggerFactory.getLogger(OrderManager.class);
     
-    private final Map<String, Order> orders = new ConcurrentHashMap<>();
-    private final Map<String, OrderResponse> responses = new ConcurrentHashMap<>();
+    private static final long QUERY_TIMEOUT_SECONDS = 5;
+    private static final long MIN_EXPIRY_INTERVAL_MILLIS = 100;
     
-    public void addOrder(Order order) {
-        orders.put(order.getOrderId(), order);
-        logger.info("Added order: {}", order.getOrderId());
+    private final OrderShard[] shards;
+    private final ScheduledExecutorService expiryTimer; // null unless retention has an age limit
+    
+    public OrderManager() {
+        this(1);
+    }
+    
+    public OrderManager(int shardCount) {
+        this(shardCount, OrderRetention.unlimited());
+    }
+    
+    public OrderManager(int shardCount, OrderRetention retention) {
+        shards = new OrderShard[Math.max(1, shardCount)];
+        RetainedOrders retained = new RetainedOrders(retention.maxOrders());
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new OrderShard(i, retention, retained, shards.length);
+        }
+        retained.register(shards);
+        for (OrderShard shard : shards) {
+            shard.start();
+        }
+        logger.info("Order state partitioned across {} shards", shards.length);
+        
+        if (retention.maxAgeMillis() > 0) {
+            long interval = Math.max(MIN_EXPIRY_INTERVAL_MILLIS, retention.maxAgeMillis() / retention.generations());
+            expiryTimer = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "order-retention") {{
+                setDaemon(true);
+            }});
+            expiryTimer.scheduleAtFixedRate(this::expire, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            expiryTimer = null;
+        }
+        if (!retention.isUnlimited()) {
+            logger.info("Order retention: max {} orders, max age {}ms, {} generations per shard",
+                    retention.maxOrders() == 0 ? "unlimited" : retention.maxOrders(),
+                    retention.maxAgeMillis() == 0 ? "unlimited" : retention.maxAgeMillis(),
+                    retention.generations());
+        }
+    }
+    
+    /** Stores an order and the response it was answered with on the order's symbol shard. */
+    public void record(Order order, OrderResponse response) {
+        shardFor(order.getSymbol()).record(order, response);
+    }
+    
+    /** Blocks until every shard has applied all writes submitted before the call. */
+    public void awaitProcessed() {
+        queryAll(shard -> Boolean.TRUE);
+    }
+    
+    public void shutdown() {
+        if (expiryTimer != null) {
+            expiryTimer.shutdownNow();
+        }
+        for (OrderShard shard : shards) {
+            shard.shutdown();
+        }
+    }
+    
+    private void expire() {
+        for (OrderShard shard : shards) {
+            shard.expire();
+        }
+    }
+    
+    /**
+     * The stored response to {@code orderId}, or {@code null}, once the symbol's
+     * shard gets to the lookup. Nothing waits for it, so the order path can ask
+     * without stalling an event loop; the future completes on the shard thread.
+     */
+    public CompletableFuture<OrderResponse> findResponse(String symbol, String orderId) {
+        return shardFor(symbol).query(shard -> shard.findResponse(orderId));
+    }
+    
+    private OrderShard shardFor(String symbol) {
+        int hash = symbol.hashCode();
+        hash ^= hash >>> 16;
+        return shards[Math.floorMod(hash, shards.length)];
     }
     
-    public void addResponse(String orderId, OrderResponse response) {
-        responses.put(orderId, response);
-        logger.info("Added response for order {}: {}", orderId, response.getStatus());
+    private <T> List<T> queryAll(Function<OrderShard, T> query) {
+        List<CompletableFuture<T>> pending = new ArrayList<>(shards.length);
+        for (OrderShard shard : shards) {
+            pending.add(shard.query(query));
+        }
+        List<T> results = new ArrayList<>(shards.length);
+        try {
+            for (CompletableFuture<T> result : pending) {
+                results.add(result.get(QUERY_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying order shards", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Order shard query failed", e);
+        }
+        return results;
+    }
+    
+    private <T> List<T> collectAll(Function<OrderShard, Collection<T>> query) {
+        List<T> merged = new ArrayList<>();
+        for (List<T> part : queryAll(shard -> new ArrayList<>(query.apply(shard)))) {
+            merged.addAll(part);
+        }
+        return merged;
+    }
+    
+    private int sum(Function<OrderShard, Integer> query) {
+        int total = 0;
+        for (int part : queryAll(query)) {
+            total += part;
+        }
+        return total;
+    }
+    
+    private long sumLong(Function<OrderShard, Long> query) {
+        long total = 0;
+        for (long part : queryAll(query)) {
+            total += part;
+        }
+        return total;
     }
     
     public GetOrderResponse getOrder(GetOrderRequest request) {
         try {
-            Order order = orders.get(request.getOrderId());
+            String orderId = request.getOrderId();
+            Order order = queryAll(shard -> shard.findOrder(orderId)).stream()
+                    .filter(Objects::nonNull)
+                    .findFirst()
+                    .orElse(null);
             
             if (order == null) {
                 return GetOrderResponse.newBuilder()
@@ -54,7 +183,7 @@ public class OrderManager {
     
     public ListAllOrderIdsResponse listAllOrderIds(ListAllOrderIdsRequest request) {
         try {
-            List<String> orderIds = new ArrayList<>(orders.keySet());
+            List<String> orderIds = collectAll(OrderShard::orderIds);
             
             return ListAllOrderIdsResponse.newBuilder()
                     .addAllOrderIds(orderIds)
@@ -68,10 +197,7 @@ public class OrderManager {
     
     public ListRejectedOrderIdsResponse listRejectedOrderIds(ListRejectedOrderIdsRequest request) {
         try {
-            List<String> rejectedOrderIds = responses.values().stream()
-                    .filter(response -> response.getStatus().equals("REJECTED"))
-                    .map(OrderResponse::getOrderId)
-                    .collect(Collectors.toList());
+            List<String> rejectedOrderIds = collectAll(shard -> shard.orderIdsWithStatus("REJECTED"));
             
             return ListRejectedOrderIdsResponse.newBuilder()
                     .addAllOrderIds(rejectedOrderIds)
@@ -85,10 +211,7 @@ public class OrderManager {
     
     public ListFilledOrderIdsResponse listFilledOrderIds(ListFilledOrderIdsRequest request) {
         try {
-            List<String> filledOrderIds = responses.values().stream()
-                    .filter(response -> response.getStatus().equals("FILLED"))
-                    .map(OrderResponse::getOrderId)
-                    .collect(Collectors.toList());
+            List<String> filledOrderIds = collectAll(shard -> shard.orderIdsWithStatus("FILLED"));
             
             return ListFilledOrderIdsResponse.newBuilder()
                     .addAllOrderIds(filledOrderIds)
@@ -105,8 +228,11 @@ public class OrderManager {
                 .setServiceName("Order Receiver")
                 .setVersion("1.0.0")
                 .setStatus("RUNNING")
-                .setOrderCount(orders.size())
-                .setResponseCount(responses.size())
+                .setOrderCount(getOrderCount())
+                .setResponseCount(getResponseCount())
+                .setEvictedOrders(getEvictedOrderCount())
+                .setEvictedResponses(getEvictedResponseCount())
+                .putAllResponseStatusCounts(getStatusCounts())
                 .addAllAvailableMethods(Arrays.asList(
                     "GetServiceInfo",
                     "RejectAllOrders",
@@ -114,7 +240,10 @@ public class OrderManager {
                     "GetOrder",
                     "ListAllOrderIds",
                     "ListRejectedOrderIds",
-                    "ListFilledOrderIds"
+                    "ListFilledOrderIds",
+                    "GetAdmissionStats",
+                    "GetAcceptorStats",
+                    "GetLoggingStats"
                 ))
                 .build();
     }
@@ -136,18 +265,43 @@ public class OrderManager {
     }
     
     public List<Order> getAllOrders() {
-        return new ArrayList<>(orders.values());
+        return collectAll(OrderShard::orderValues);
     }
     
     public List<OrderResponse> getAllResponses() {
-        return new ArrayList<>(responses.values());
+        return collectAll(OrderShard::responseValues);
     }
     
     public int getOrderCount() {
-        return orders.size();
+        return sum(OrderShard::orderCount);
     }
     
     public int getResponseCount() {
-        return responses.size();
+        return sum(OrderShard::responseCount);
+    }
+    
+    /** Retained responses per status, e.g. FILLED or REJECTED. */
+    public int getStatusCount(String status) {
+        return sum(shard -> shard.statusCount(status));
+    }
+    
+    public Map<String, Integer> getStatusCounts() {
+        Map<String, Integer> merged = new TreeMap<>();
+        for (Map<String, Integer> part : queryAll(OrderShard::statusCounts)) {
+            part.forEach((status, count) -> merged.merge(status, count, Integer::sum));
+        }
+        return merged;
+    }
+    
+    public long getEvictedOrderCount() {
+        return sumLong(OrderShard::evictedOrders);
+    }
+    
+    public long getEvictedResponseCount() {
+        return sumLong(OrderShard::evictedResponses);
+    }
+    
+    public int getShardCount() {
+        return shards.length;
     }
 } 
\ No newline at end of file
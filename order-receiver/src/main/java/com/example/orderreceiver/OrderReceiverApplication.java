@@ -2,14 +2,28 @@ package com.example.orderreceiver;
 
 import com.example.orderreceiver.admin.AdminServer;
 import com.example.orderreceiver.consul.ConsulRegistration;
+import com.example.orderreceiver.dedup.DuplicateOrderFilter;
+import com.example.orderreceiver.ipc.IpcOrderServer;
+import com.example.orderreceiver.journal.MappedOrderJournal;
+import com.example.orderreceiver.matching.MatchingEngine;
+import com.example.orderreceiver.pipeline.WaitStrategy;
+import com.example.orderreceiver.tcp.AdmissionController;
 import com.example.orderreceiver.tcp.OrderTcpServer;
+import com.example.orderreceiver.tcp.PipelineSettings;
+import com.example.orderreceiver.tcp.ResponseStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
 public class OrderReceiverApplication {
     private static final Logger logger = LoggerFactory.getLogger(OrderReceiverApplication.class);
     
     private final OrderTcpServer tcpServer;
+    private final IpcOrderServer ipcServer; // null unless IPC_PATH is set
+    private MappedOrderJournal journal;     // null unless JOURNAL_PATH is set
     private final AdminServer adminServer;
     private final ConsulRegistration consulRegistration;
     
@@ -17,7 +31,39 @@ public class OrderReceiverApplication {
         // Print configuration at startup
         ReceiverConfig.printConfiguration();
         
-        this.tcpServer = new OrderTcpServer(ReceiverConfig.TCP_PORT);
+        this.tcpServer = new OrderTcpServer(
+            ReceiverConfig.TCP_PORT,
+            ReceiverConfig.TCP_SERVER_MODE,
+            ReceiverConfig.TCP_EVENT_LOOP_THREADS,
+            ReceiverConfig.TCP_CONNECTION_EXECUTOR,
+            ReceiverConfig.TCP_ACCEPTOR_THREADS,
+            new AdmissionController(ReceiverConfig.MAX_CONNECTIONS, ReceiverConfig.MAX_INFLIGHT_ORDERS),
+            ReceiverConfig.TCP_PIPELINE
+                ? new PipelineSettings(ReceiverConfig.TCP_PIPELINE_RING_SIZE,
+                                       WaitStrategy.fromName(ReceiverConfig.TCP_PIPELINE_WAIT_STRATEGY))
+                : null,
+            new OrderManager(ReceiverConfig.ORDER_SHARDS, new OrderRetention(
+                ReceiverConfig.ORDER_RETENTION_MAX_ORDERS,
+                TimeUnit.SECONDS.toMillis(ReceiverConfig.ORDER_RETENTION_MAX_AGE_SECONDS),
+                ReceiverConfig.ORDER_RETENTION_GENERATIONS))
+        );
+        if (!ReceiverConfig.UDS_PATH.isEmpty()) {
+            tcpServer.setUnixSocketPath(Paths.get(ReceiverConfig.UDS_PATH));
+        }
+        if (ReceiverConfig.DEDUP_ENABLED) {
+            tcpServer.setDuplicateFilter(new DuplicateOrderFilter(
+                tcpServer.getOrderManager(),
+                TimeUnit.SECONDS.toMillis(ReceiverConfig.DEDUP_RECENT_WINDOW_SECONDS),
+                ReceiverConfig.DEDUP_MAX_RECENT_ORDERS,
+                TimeUnit.SECONDS.toMillis(ReceiverConfig.DEDUP_BLOOM_WINDOW_SECONDS),
+                ReceiverConfig.DEDUP_BLOOM_EXPECTED_ORDERS));
+        }
+        if (ReceiverConfig.MATCHING_ENGINE) {
+            tcpServer.setMatchingEngine(new MatchingEngine(ReceiverConfig.MATCHING_MAX_RESTING_ORDERS));
+        }
+        this.ipcServer = ReceiverConfig.IPC_PATH.isEmpty() ? null
+            : new IpcOrderServer(Paths.get(ReceiverConfig.IPC_PATH), tcpServer.getFrameHandler(),
+                                 ReceiverConfig.IPC_WAIT_STRATEGY);
         this.adminServer = new AdminServer(ReceiverConfig.ADMIN_PORT, this);
         this.consulRegistration = new ConsulRegistration(
             ReceiverConfig.SERVICE_NAME, 
@@ -31,9 +77,30 @@ public class OrderReceiverApplication {
         try {
             logger.info("Starting Order Receiver (ID: {})...", ReceiverConfig.SERVICE_ID);
             
+            // Restore journaled orders before accepting new ones
+            if (!ReceiverConfig.JOURNAL_PATH.isEmpty()) {
+                openJournal();
+            }
+            
             // Start TCP server
             tcpServer.start();
             logger.info("TCP server started on port {}", ReceiverConfig.TCP_PORT);
+            if (tcpServer.getUnixSocketPath() != null) {
+                consulRegistration.addMetadata("uds-path", tcpServer.getUnixSocketPath().toAbsolutePath().toString());
+            }
+            if (tcpServer.getDuplicateFilter() != null) {
+                consulRegistration.addMetadata("dedup", "true"); // senders may resend orders that timed out
+            }
+            
+            // Start shared-memory transport; TCP keeps working if it cannot be served
+            if (ipcServer != null) {
+                try {
+                    ipcServer.start();
+                    consulRegistration.addMetadata("ipc-path", ipcServer.getDirectory().toAbsolutePath().toString());
+                } catch (Exception e) {
+                    logger.error("Failed to start IPC server in {}, continuing with TCP only", ReceiverConfig.IPC_PATH, e);
+                }
+            }
             
             // Start admin server
             adminServer.start();
@@ -74,13 +141,44 @@ public class OrderReceiverApplication {
         try {
             consulRegistration.deregister();
             adminServer.shutdown();
+            if (ipcServer != null) {
+                ipcServer.shutdown();
+            }
             tcpServer.shutdown();
+            if (journal != null) {
+                journal.close();
+            }
+            tcpServer.getOrderManager().shutdown();
             logger.info("Order Receiver shutdown complete");
         } catch (Exception e) {
             logger.error("Error during shutdown", e);
         }
     }
     
+    private void openJournal() throws IOException {
+        journal = MappedOrderJournal.open(
+            Paths.get(ReceiverConfig.JOURNAL_PATH),
+            ReceiverConfig.JOURNAL_SEGMENT_BYTES,
+            ReceiverConfig.JOURNAL_RETAINED_SEGMENTS,
+            ReceiverConfig.JOURNAL_FLUSH_INTERVAL_MICROS,
+            ReceiverConfig.JOURNAL_FLUSH_BYTES
+        );
+        OrderManager orderManager = tcpServer.getOrderManager();
+        DuplicateOrderFilter duplicateFilter = tcpServer.getDuplicateFilter();
+        long startNanos = System.nanoTime();
+        long replayed = journal.replay((order, response) -> {
+            orderManager.record(order, response);
+            if (duplicateFilter != null) {
+                // Retries of orders answered before the restart get their original answer
+                duplicateFilter.seed(order.getOrderId(), ResponseStatus.valueOf(response.getStatus()));
+            }
+        });
+        orderManager.awaitProcessed();
+        logger.info("Replayed {} journaled orders in {}ms", replayed,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        tcpServer.setJournal(journal);
+    }
+    
     // Method to toggle reject mode
     public void setRejectMode(boolean rejectAll) {
         tcpServer.setRejectMode(rejectAll);
@@ -93,6 +191,14 @@ public class OrderReceiverApplication {
         return tcpServer.getOrderManager();
     }
     
+    public OrderTcpServer getTcpServer() {
+        return tcpServer;
+    }
+    
+    public AdmissionController getAdmissionController() {
+        return tcpServer.getAdmissionController();
+    }
+    
     public static void main(String[] args) {
         OrderReceiverApplication app = new OrderReceiverApplication();
         app.run();
@@ -0,0 +1,33 @@
+package com.example.orderreceiver;
+
+/**
+ * How long the receiver keeps stored orders and responses. Each shard keeps
+ * its state in {@code generations} segments. A segment is evicted whole once
+ * every entry in it is older than {@code maxAgeMillis}, and the oldest segment
+ * of any shard goes once all shards together hold more than {@code maxOrders}.
+ * A limit of 0 disables it.
+ */
+public final class OrderRetention {
+    private final int maxOrders;
+    private final long maxAgeMillis;
+    private final int generations;
+
+    public OrderRetention(int maxOrders, long maxAgeMillis, int generations) {
+        this.maxOrders = Math.max(0, maxOrders);
+        this.maxAgeMillis = Math.max(0, maxAgeMillis);
+        this.generations = Math.max(2, generations);
+    }
+
+    /** Keeps everything, as the receiver always did. */
+    public static OrderRetention unlimited() {
+        return new OrderRetention(0, 0, 2);
+    }
+
+    public int maxOrders() { return maxOrders; }
+    public long maxAgeMillis() { return maxAgeMillis; }
+    public int generations() { return generations; }
+
+    public boolean isUnlimited() {
+        return maxOrders == 0 && maxAgeMillis == 0;
+    }
+}
@@ -0,0 +1,435 @@
+package com.example.orderreceiver;
+
+import com.example.orderreceiver.grpc.Order;
+import com.example.orderreceiver.grpc.OrderResponse;
+import com.example.orderreceiver.logging.OrderFlowLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * One partition of the receiver's order state. Only the shard's own thread
+ * touches its {@link Generation}s, so they hold plain maps; other threads talk
+ * to the shard through its lock-free mailbox.
+ *
+ * <p>Writes go to the newest generation. A generation is sealed once it holds
+ * its share of the retention count or spans its share of the retention age.
+ * Generations are dropped whole, so eviction never scans individual entries:
+ * the shard's oldest once it has aged out, and the oldest across all shards
+ * when the shared {@link RetainedOrders} count needs room.
+ *
+ * <p>Responses are also indexed by status, with a running count per status, so
+ * status listings cost the size of their result and status counts are O(1).
+ */
+final class OrderShard implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(OrderShard.class);
+    private static final Logger orderFlow = OrderFlowLog.LOG;
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+
+    private final int index;
+    private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+    private final Deque<Generation> generations = new ArrayDeque<>(); // oldest first
+    private final RetainedOrders retained;
+    private final int generationCapacity;
+    private final long maxAgeMillis;      // 0 = no age limit
+    private final long generationSpanMillis;
+    private long evictedOrders;
+    private long evictedResponses;
+    private final Map<String, StatusCount> statusCounts = new HashMap<>();
+    private volatile long oldestCreatedAt;
+
+    private volatile Thread thread;
+    private volatile boolean parked;
+    private volatile boolean running = true;
+
+    OrderShard(int index) {
+        this(index, OrderRetention.unlimited(), RetainedOrders.unlimited(), 1);
+    }
+
+    /**
+     * @param retained   the count limit shared with the other shards
+     * @param shardCount shards sharing {@code retention}'s order limit; sizes generations to an even share
+     */
+    OrderShard(int index, OrderRetention retention, RetainedOrders retained, int shardCount) {
+        this.index = index;
+        this.retained = retained;
+        int share = Math.max(1, retention.maxOrders() / shardCount);
+        this.generationCapacity = retention.maxOrders() == 0 ? Integer.MAX_VALUE
+                : Math.max(1, (share + retention.generations() - 1) / retention.generations());
+        this.maxAgeMillis = retention.maxAgeMillis();
+        this.generationSpanMillis = maxAgeMillis == 0 ? Long.MAX_VALUE
+                : Math.max(1, maxAgeMillis / retention.generations());
+        generations.addLast(new Generation(System.currentTimeMillis()));
+        updateOldest();
+    }
+
+    void start() {
+        thread = new Thread(this, "order-shard-" + index);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void shutdown() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    /** Stores an order and its response; returns immediately. */
+    void record(Order order, OrderResponse response) {
+        submit(() -> {
+            String orderId = order.getOrderId();
+            Generation current = writableGeneration(System.currentTimeMillis());
+            if (current.orders.put(orderId, order) == null && !removeFromOlderGenerations(orderId)) {
+                retained.add(1);
+                if (oldestCreatedAt == Long.MAX_VALUE) {
+                    updateOldest();
+                }
+            }
+            orderFlow.info("Added order: {}", orderId);
+            OrderResponse previous = current.putResponse(orderId, response);
+            if (previous != null) {
+                countStatus(previous.getStatus(), -1);
+            }
+            countStatus(response.getStatus(), 1);
+            orderFlow.info("Added response for order {}: {}", orderId, response.getStatus());
+        });
+    }
+
+    /** Drops generations that have aged out; scheduled so idle shards still release memory. */
+    void expire() {
+        submit(() -> {
+            long now = System.currentTimeMillis();
+            if (generations.peekLast().isFull(now)) {
+                rotate(now);
+            }
+            evictExpired(now);
+        });
+    }
+
+    /**
+     * Drops this shard's oldest generation if the shared count limit still
+     * needs room; sent by a shard that is out of room but holds newer orders.
+     */
+    void yieldOldest() {
+        submit(() -> {
+            if (!retained.needsRoom(generationCapacity)) {
+                return;
+            }
+            evict(generations.removeFirst());
+            if (generations.isEmpty()) {
+                generations.addLast(new Generation(System.currentTimeMillis()));
+            }
+            updateOldest();
+        });
+    }
+
+    /** Start time of the oldest generation, or {@code Long.MAX_VALUE} while the shard is empty; readable from any thread. */
+    long oldestCreatedAt() {
+        return oldestCreatedAt;
+    }
+
+    /** Runs {@code query} on the shard thread after every write submitted before it. */
+    <T> CompletableFuture<T> query(Function<OrderShard, T> query) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        submit(() -> {
+            try {
+                result.complete(query.apply(this));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    // Shard-thread accessors, for use inside query()
+
+    /** The newest stored copy of an order, or {@code null} if unknown or evicted. */
+    Order findOrder(String orderId) {
+        Iterator<Generation> newestFirst = generations.descendingIterator();
+        while (newestFirst.hasNext()) {
+            Order order = newestFirst.next().orders.get(orderId);
+            if (order != null) {
+                return order;
+            }
+        }
+        return null;
+    }
+
+    /** The newest stored response to an order, or {@code null} if unknown or evicted. */
+    OrderResponse findResponse(String orderId) {
+        Iterator<Generation> newestFirst = generations.descendingIterator();
+        while (newestFirst.hasNext()) {
+            OrderResponse response = newestFirst.next().responses.get(orderId);
+            if (response != null) {
+                return response;
+            }
+        }
+        return null;
+    }
+
+    List<String> orderIds() {
+        List<String> ids = new ArrayList<>(orderCount());
+        for (Generation generation : generations) {
+            ids.addAll(generation.orders.keySet());
+        }
+        return ids;
+    }
+
+    List<Order> orderValues() {
+        List<Order> values = new ArrayList<>(orderCount());
+        for (Generation generation : generations) {
+            values.addAll(generation.orders.values());
+        }
+        return values;
+    }
+
+    List<OrderResponse> responseValues() {
+        List<OrderResponse> values = new ArrayList<>(responseCount());
+        for (Generation generation : generations) {
+            values.addAll(generation.responses.values());
+        }
+        return values;
+    }
+
+    int orderCount() {
+        int count = 0;
+        for (Generation generation : generations) {
+            count += generation.orders.size();
+        }
+        return count;
+    }
+
+    int responseCount() {
+        int count = 0;
+        for (Generation generation : generations) {
+            count += generation.responses.size();
+        }
+        return count;
+    }
+
+    /** Ids of retained orders whose response has {@code status}, oldest generation first. */
+    List<String> orderIdsWithStatus(String status) {
+        List<String> ids = new ArrayList<>(statusCount(status));
+        for (Generation generation : generations) {
+            Set<String> matching = generation.idsByStatus.get(status);
+            if (matching != null) {
+                ids.addAll(matching);
+            }
+        }
+        return ids;
+    }
+
+    int statusCount(String status) {
+        StatusCount count = statusCounts.get(status);
+        return count == null ? 0 : count.value;
+    }
+
+    Map<String, Integer> statusCounts() {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Map.Entry<String, StatusCount> count : statusCounts.entrySet()) {
+            if (count.getValue().value > 0) {
+                counts.put(count.getKey(), count.getValue().value);
+            }
+        }
+        return counts;
+    }
+
+    long evictedOrders() { return evictedOrders; }
+    long evictedResponses() { return evictedResponses; }
+
+    private Generation writableGeneration(long now) {
+        if (generations.peekLast().isFull(now)) {
+            rotate(now);
+            evictExpired(now);
+        }
+        return generations.peekLast();
+    }
+
+    /**
+     * Seals the newest generation and, under a count limit, makes room for the
+     * next. The oldest generation across all shards goes first: if it is
+     * another shard's, that shard is asked to drop it, and the total may
+     * briefly run over until it has.
+     */
+    private void rotate(long now) {
+        Generation current = generations.peekLast();
+        if (current.orders.isEmpty()) {
+            current.createdAt = now; // an idle stretch is not worth a generation
+            updateOldest();
+            return;
+        }
+        current.sealedAt = now;
+        while (retained.needsRoom(generationCapacity) && !generations.isEmpty()) {
+            OrderShard oldest = retained.oldestShard();
+            if (oldest != this) {
+                oldest.yieldOldest();
+                break;
+            }
+            evict(generations.removeFirst());
+            if (!generations.isEmpty()) {
+                updateOldest();
+            } else {
+                oldestCreatedAt = Long.MAX_VALUE;
+            }
+        }
+        generations.addLast(new Generation(now));
+        updateOldest();
+    }
+
+    /** Drops sealed generations whose newest entry is older than the retention age. */
+    private void evictExpired(long now) {
+        if (maxAgeMillis == 0) {
+            return;
+        }
+        while (generations.size() > 1 && generations.peekFirst().sealedAt <= now - maxAgeMillis) {
+            evict(generations.removeFirst());
+        }
+        updateOldest();
+    }
+
+    private void updateOldest() {
+        Generation oldest = generations.peekFirst();
+        oldestCreatedAt = generations.size() == 1 && oldest.orders.isEmpty() ? Long.MAX_VALUE : oldest.createdAt;
+    }
+
+    private void countStatus(String status, int delta) {
+        statusCounts.computeIfAbsent(status, s -> new StatusCount()).value += delta;
+    }
+
+    private void evict(Generation generation) {
+        evictedOrders += generation.orders.size();
+        retained.add(-generation.orders.size());
+        evictedResponses += generation.responses.size();
+        for (Map.Entry<String, Set<String>> status : generation.idsByStatus.entrySet()) {
+            countStatus(status.getKey(), -status.getValue().size());
+        }
+        logger.debug("Order shard {} evicted {} orders", index, generation.orders.size());
+    }
+
+    /**
+     * Keeps an order id in one generation only, so a resent order replaces its
+     * older copy; returns whether an older copy was removed.
+     */
+    private boolean removeFromOlderGenerations(String orderId) {
+        if (generations.size() == 1) {
+            return false;
+        }
+        Iterator<Generation> newestFirst = generations.descendingIterator();
+        newestFirst.next();
+        while (newestFirst.hasNext()) {
+            Generation older = newestFirst.next();
+            if (older.orders.remove(orderId) != null) {
+                OrderResponse removed = older.removeResponse(orderId);
+                if (removed != null) {
+                    countStatus(removed.getStatus(), -1);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void submit(Runnable task) {
+        mailbox.offer(task);
+        if (parked) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    @Override
+    public void run() {
+        int idle = 0;
+        while (running) {
+            Runnable task = mailbox.poll();
+            if (task == null) {
+                idle = idle(idle);
+                continue;
+            }
+            idle = 0;
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.error("Order shard {} task failed", index, e);
+            }
+        }
+    }
+
+    /** Spins, then yields, then parks until a producer finds the shard parked and unparks it. */
+    private int idle(int idle) {
+        if (idle < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (idle < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            parked = true;
+            if (mailbox.isEmpty() && running) {
+                LockSupport.park(this);
+            }
+            parked = false;
+            return 0;
+        }
+        return idle + 1;
+    }
+
+    /** One eviction unit: the orders and responses written during one stretch of time. */
+    private final class Generation {
+        final Map<String, Order> orders = new HashMap<>();
+        final Map<String, OrderResponse> responses = new HashMap<>();
+        final Map<String, Set<String>> idsByStatus = new HashMap<>();
+        long createdAt;
+        long sealedAt = Long.MAX_VALUE;
+
+        Generation(long createdAt) {
+            this.createdAt = createdAt;
+        }
+
+        boolean isFull(long now) {
+            return orders.size() >= generationCapacity || now - createdAt >= generationSpanMillis;
+        }
+
+        /** Stores a response and moves its id to the new status; returns the response it replaced. */
+        OrderResponse putResponse(String orderId, OrderResponse response) {
+            OrderResponse previous = responses.put(orderId, response);
+            if (previous != null) {
+                unindex(orderId, previous.getStatus());
+            }
+            idsByStatus.computeIfAbsent(response.getStatus(), status -> new HashSet<>()).add(orderId);
+            return previous;
+        }
+
+        OrderResponse removeResponse(String orderId) {
+            OrderResponse removed = responses.remove(orderId);
+            if (removed != null) {
+                unindex(orderId, removed.getStatus());
+            }
+            return removed;
+        }
+
+        private void unindex(String orderId, String status) {
+            Set<String> ids = idsByStatus.get(status);
+            if (ids != null) {
+                ids.remove(orderId);
+            }
+        }
+    }
+
+    private static final class StatusCount {
+        int value;
+    }
+}
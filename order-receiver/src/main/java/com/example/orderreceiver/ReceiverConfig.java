@@ -15,6 +15,53 @@ public class ReceiverConfig {
     public static final int TCP_PORT = getEnvAsInt("TCP_PORT", 9000 + (ORDINAL - 1));
     public static final int ADMIN_PORT = getEnvAsInt("ADMIN_PORT", 9100 + (ORDINAL - 1));
     
+    // TCP Server Configuration
+    public static final String TCP_SERVER_MODE = getEnv("TCP_SERVER_MODE", "blocking"); // blocking | nio
+    public static final String TCP_CONNECTION_EXECUTOR = getEnv("TCP_CONNECTION_EXECUTOR", "cached"); // cached | virtual
+    public static final int TCP_EVENT_LOOP_THREADS = getEnvAsInt("TCP_EVENT_LOOP_THREADS",
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    public static final int TCP_ACCEPTOR_THREADS = getEnvAsInt("TCP_ACCEPTOR_THREADS", 1); // >1 binds with SO_REUSEPORT
+    public static final String UDS_PATH = getEnv("UDS_PATH", ""); // Unix domain socket next to TCP_PORT (empty = disabled)
+    
+    // Processing Pipeline (nio mode only)
+    public static final boolean TCP_PIPELINE = getEnvAsBoolean("TCP_PIPELINE", false);
+    public static final int TCP_PIPELINE_RING_SIZE = getEnvAsInt("TCP_PIPELINE_RING_SIZE", 1024); // power of two
+    public static final String TCP_PIPELINE_WAIT_STRATEGY = getEnv("TCP_PIPELINE_WAIT_STRATEGY", "park"); // busy-spin | yield | park
+    
+    // Order State Sharding
+    public static final int ORDER_SHARDS = getEnvAsInt("ORDER_SHARDS", Runtime.getRuntime().availableProcessors());
+    
+    // Order Retention (0 = unlimited)
+    public static final int ORDER_RETENTION_MAX_ORDERS = getEnvAsInt("ORDER_RETENTION_MAX_ORDERS", 0);
+    public static final int ORDER_RETENTION_MAX_AGE_SECONDS = getEnvAsInt("ORDER_RETENTION_MAX_AGE_SECONDS", 0);
+    public static final int ORDER_RETENTION_GENERATIONS = getEnvAsInt("ORDER_RETENTION_GENERATIONS", 8);
+    
+    // Duplicate Order Detection
+    public static final boolean DEDUP_ENABLED = getEnvAsBoolean("DEDUP_ENABLED", false);
+    public static final int DEDUP_RECENT_WINDOW_SECONDS = getEnvAsInt("DEDUP_RECENT_WINDOW_SECONDS", 300);
+    public static final int DEDUP_MAX_RECENT_ORDERS = getEnvAsInt("DEDUP_MAX_RECENT_ORDERS", 100_000);
+    public static final int DEDUP_BLOOM_WINDOW_SECONDS = getEnvAsInt("DEDUP_BLOOM_WINDOW_SECONDS", 3600);
+    public static final int DEDUP_BLOOM_EXPECTED_ORDERS = getEnvAsInt("DEDUP_BLOOM_EXPECTED_ORDERS", 1_000_000);
+    
+    // Order Journal (empty path = disabled)
+    public static final String JOURNAL_PATH = getEnv("JOURNAL_PATH", "");
+    public static final int JOURNAL_SEGMENT_BYTES = getEnvAsInt("JOURNAL_SEGMENT_BYTES", 64 * 1024 * 1024);
+    public static final int JOURNAL_RETAINED_SEGMENTS = getEnvAsInt("JOURNAL_RETAINED_SEGMENTS", 16); // 0 = keep all
+    public static final int JOURNAL_FLUSH_INTERVAL_MICROS = getEnvAsInt("JOURNAL_FLUSH_INTERVAL_MICROS", 1000);
+    public static final int JOURNAL_FLUSH_BYTES = getEnvAsInt("JOURNAL_FLUSH_BYTES", 256 * 1024);
+    
+    // Matching Engine
+    public static final boolean MATCHING_ENGINE = getEnvAsBoolean("MATCHING_ENGINE", false);
+    public static final int MATCHING_MAX_RESTING_ORDERS = getEnvAsInt("MATCHING_MAX_RESTING_ORDERS", 100_000); // per symbol
+    
+    // Admission Control (0 = unlimited)
+    public static final int MAX_CONNECTIONS = getEnvAsInt("MAX_CONNECTIONS", 0);
+    public static final int MAX_INFLIGHT_ORDERS = getEnvAsInt("MAX_INFLIGHT_ORDERS", 0);
+    
+    // Shared-memory IPC for co-located senders (empty = disabled)
+    public static final String IPC_PATH = getEnv("IPC_PATH", "");
+    public static final String IPC_WAIT_STRATEGY = getEnv("IPC_WAIT_STRATEGY", "park"); // busy-spin | yield | park
+    
     // Consul Configuration
     public static final String CONSUL_HOST = getEnv("CONSUL_HOST", "localhost");
     public static final int CONSUL_PORT = getEnvAsInt("CONSUL_PORT", 8500);
@@ -49,6 +96,17 @@ public class ReceiverConfig {
         }
     }
     
+    private static boolean getEnvAsBoolean(String key, boolean defaultValue) {
+        String value = System.getenv(key);
+        if (value == null || value.trim().isEmpty()) {
+            logger.info("Using default value for {}: {}", key, defaultValue);
+            return defaultValue;
+        }
+        boolean boolValue = Boolean.parseBoolean(value);
+        logger.info("Using environment value for {}: {}", key, boolValue);
+        return boolValue;
+    }
+    
     public static void printConfiguration() {
         logger.info("=== Order Receiver Configuration ===");
         logger.info("Service Name: {}", SERVICE_NAME);
@@ -56,6 +114,34 @@ public class ReceiverConfig {
         logger.info("Service ID: {}", SERVICE_ID);
         logger.info("TCP Port: {}", TCP_PORT);
         logger.info("Admin Port: {}", ADMIN_PORT);
+        logger.info("TCP Server Mode: {}", TCP_SERVER_MODE);
+        logger.info("TCP Connection Executor: {}", TCP_CONNECTION_EXECUTOR);
+        logger.info("TCP Event Loop Threads: {}", TCP_EVENT_LOOP_THREADS);
+        logger.info("TCP Acceptor Threads: {}", TCP_ACCEPTOR_THREADS);
+        logger.info("UDS Path: {}", UDS_PATH.isEmpty() ? "disabled" : UDS_PATH);
+        logger.info("TCP Pipeline: {}", TCP_PIPELINE);
+        logger.info("TCP Pipeline Ring Size: {}", TCP_PIPELINE_RING_SIZE);
+        logger.info("TCP Pipeline Wait Strategy: {}", TCP_PIPELINE_WAIT_STRATEGY);
+        logger.info("Order Shards: {}", ORDER_SHARDS);
+        logger.info("Order Retention Max Orders: {}", ORDER_RETENTION_MAX_ORDERS);
+        logger.info("Order Retention Max Age Seconds: {}", ORDER_RETENTION_MAX_AGE_SECONDS);
+        logger.info("Order Retention Generations: {}", ORDER_RETENTION_GENERATIONS);
+        logger.info("Dedup Enabled: {}", DEDUP_ENABLED);
+        logger.info("Dedup Recent Window Seconds: {}", DEDUP_RECENT_WINDOW_SECONDS);
+        logger.info("Dedup Max Recent Orders: {}", DEDUP_MAX_RECENT_ORDERS);
+        logger.info("Dedup Bloom Window Seconds: {}", DEDUP_BLOOM_WINDOW_SECONDS);
+        logger.info("Dedup Bloom Expected Orders: {}", DEDUP_BLOOM_EXPECTED_ORDERS);
+        logger.info("Journal Path: {}", JOURNAL_PATH.isEmpty() ? "disabled" : JOURNAL_PATH);
+        logger.info("Journal Segment Bytes: {}", JOURNAL_SEGMENT_BYTES);
+        logger.info("Journal Retained Segments: {}", JOURNAL_RETAINED_SEGMENTS);
+        logger.info("Journal Flush Interval Micros: {}", JOURNAL_FLUSH_INTERVAL_MICROS);
+        logger.info("Journal Flush Bytes: {}", JOURNAL_FLUSH_BYTES);
+        logger.info("Matching Engine: {}", MATCHING_ENGINE);
+        logger.info("Matching Max Resting Orders: {}", MATCHING_MAX_RESTING_ORDERS);
+        logger.info("Max Connections: {}", MAX_CONNECTIONS);
+        logger.info("Max In-Flight Orders: {}", MAX_INFLIGHT_ORDERS);
+        logger.info("IPC Path: {}", IPC_PATH.isEmpty() ? "disabled" : IPC_PATH);
+        logger.info("IPC Wait Strategy: {}", IPC_WAIT_STRATEGY);
         logger.info("Consul Address: {}", CONSUL_ADDRESS);
         logger.info("Service Tags: {}", String.join(", ", SERVICE_TAGS));
         logger.info("===================================");
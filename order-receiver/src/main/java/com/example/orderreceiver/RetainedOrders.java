@@ -0,0 +1,52 @@
+package com.example.orderreceiver;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The count limit of an {@link OrderRetention}, shared by all shards. Shards
+ * are picked by symbol hash, so fixed per-shard shares would let a few busy
+ * symbols evict early while quiet shards sit below theirs. Every shard adds
+ * its new and evicted orders to one counter instead. When the total needs
+ * room, the shard holding the oldest generation gives it up.
+ */
+final class RetainedOrders {
+    private final int maxOrders;
+    private final LongAdder count = new LongAdder();
+    private volatile OrderShard[] shards = new OrderShard[0];
+
+    RetainedOrders(int maxOrders) {
+        this.maxOrders = Math.max(0, maxOrders);
+    }
+
+    static RetainedOrders unlimited() {
+        return new RetainedOrders(0);
+    }
+
+    /** Sets the shards that share the limit; call before any of them starts. */
+    void register(OrderShard[] shards) {
+        this.shards = shards.clone();
+    }
+
+    /** Counts orders added (positive) or evicted (negative) by a shard. */
+    void add(int delta) {
+        if (maxOrders > 0) {
+            count.add(delta);
+        }
+    }
+
+    /** Whether storing {@code headroom} more orders would take the total past the limit. */
+    boolean needsRoom(int headroom) {
+        return maxOrders > 0 && count.sum() + headroom > maxOrders;
+    }
+
+    /** The shard whose oldest generation was started first. */
+    OrderShard oldestShard() {
+        OrderShard oldest = null;
+        for (OrderShard shard : shards) {
+            if (oldest == null || shard.oldestCreatedAt() < oldest.oldestCreatedAt()) {
+                oldest = shard;
+            }
+        }
+        return oldest;
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.orderreceiver.admin;
 
 import com.example.orderreceiver.OrderReceiverApplication;
+import com.example.orderreceiver.dedup.DuplicateOrderFilter;
 import com.example.orderreceiver.grpc.*;
+import com.example.orderreceiver.logging.OrderFlowLog;
 import io.grpc.Server;
 import io.grpc.ServerBuilder;
 import io.grpc.stub.StreamObserver;
@@ -84,8 +86,12 @@ public class AdminServer {
         @Override
         public void getServiceInfo(ServiceInfoRequest request, StreamObserver<ServiceInfoResponse> responseObserver) {
             try {
-                ServiceInfoResponse response = application.getOrderManager().getServiceInfo(request);
-                responseObserver.onNext(response);
+                ServiceInfoResponse.Builder response = application.getOrderManager().getServiceInfo(request).toBuilder();
+                DuplicateOrderFilter duplicateFilter = application.getTcpServer().getDuplicateFilter();
+                if (duplicateFilter != null) {
+                    response.setDuplicateOrders(duplicateFilter.getDuplicateCount());
+                }
+                responseObserver.onNext(response.build());
                 responseObserver.onCompleted();
             } catch (Exception e) {
                 logger.error("Error getting service info", e);
@@ -166,5 +172,41 @@ public class AdminServer {
                 responseObserver.onError(e);
             }
         }
+        
+        @Override
+        public void getAdmissionStats(AdmissionStatsRequest request, StreamObserver<AdmissionStatsResponse> responseObserver) {
+            try {
+                AdmissionStatsResponse response = application.getAdmissionController().getAdmissionStats(request);
+                responseObserver.onNext(response);
+                responseObserver.onCompleted();
+            } catch (Exception e) {
+                logger.error("Error getting admission stats", e);
+                responseObserver.onError(e);
+            }
+        }
+        
+        @Override
+        public void getAcceptorStats(AcceptorStatsRequest request, StreamObserver<AcceptorStatsResponse> responseObserver) {
+            try {
+                AcceptorStatsResponse response = application.getTcpServer().getAcceptorStats(request);
+                responseObserver.onNext(response);
+                responseObserver.onCompleted();
+            } catch (Exception e) {
+                logger.error("Error getting acceptor stats", e);
+                responseObserver.onError(e);
+            }
+        }
+        
+        @Override
+        public void getLoggingStats(LoggingStatsRequest request, StreamObserver<LoggingStatsResponse> responseObserver) {
+            try {
+                LoggingStatsResponse response = OrderFlowLog.getLoggingStats(request);
+                responseObserver.onNext(response);
+                responseObserver.onCompleted();
+            } catch (Exception e) {
+                logger.error("Error getting logging stats", e);
+                responseObserver.onError(e);
+            }
+        }
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
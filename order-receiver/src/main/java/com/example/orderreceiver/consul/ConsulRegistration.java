@@ -22,6 +22,7 @@ public class ConsulRegistration {
     private final String serviceId;
     private final int mainPort; // Primary service port (TCP for orders)
     private final Map<String, Integer> additionalPorts; // Additional ports (admin, metrics, etc.)
+    private final Map<String, String> additionalMetadata = new HashMap<>(); // Optional transports etc.
     
     public ConsulRegistration(String serviceName, String serviceId, int mainPort, Map<String, Integer> additionalPorts) {
         this.consul = Consul.builder().build();
@@ -44,6 +45,11 @@ public class ConsulRegistration {
         this.additionalPorts = additionalPorts;
     }
     
+    /** Adds a metadata entry to publish on the next {@link #register()}. */
+    public void addMetadata(String key, String value) {
+        additionalMetadata.put(key, value);
+    }
+    
     public void register() {
         try {
             logger.info("Registering service with Consul: {} (ID: {})", serviceName, serviceId);
@@ -65,6 +71,8 @@ public class ConsulRegistration {
                 }
             }
             
+            metadata.putAll(additionalMetadata);
+            
             // Create health checks
             List<Registration.RegCheck> checks = Arrays.asList(
                 Registration.RegCheck.tcp("localhost:" + mainPort, 10L)
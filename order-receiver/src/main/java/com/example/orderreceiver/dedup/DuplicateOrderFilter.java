@@ -0,0 +1,187 @@
+package com.example.orderreceiver.dedup;
+
+import com.example.orderreceiver.OrderManager;
+import com.example.orderreceiver.tcp.ResponseStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Makes order handling idempotent by order id, so a sender that retries after
+ * a timeout gets the original answer instead of a second fill. Recent ids are
+ * kept exactly, with the status they were answered with, in two rotating
+ * generations bounded by {@code recentWindowMillis} and {@code maxRecentOrders}.
+ * Older ids are remembered only by a {@link RotatingBloomFilter}. When it
+ * reports a possible match the order is answered {@link ResponseStatus#BUSY}
+ * while the stored response is looked up on the symbol's shard; the sender's
+ * retry then gets that response, or, if there was none (a false positive), is
+ * handled as a new order.
+ *
+ * <p>The common case, a new id, costs one map insert and a Bloom probe. Nothing
+ * here waits: a duplicate of an order that is still being decided, or one
+ * whose stored response is being looked up, is answered BUSY, so the event
+ * loop or pipeline thread asking is never held up by another order or a shard.
+ */
+public class DuplicateOrderFilter {
+    private static final Logger logger = LoggerFactory.getLogger(DuplicateOrderFilter.class);
+
+    private final OrderManager orderManager;
+    private final RotatingBloomFilter bloomFilter;
+    private final long recentWindowNanos;
+    private final int maxRecentOrders;
+    private final AtomicLong nextRotation;
+    private final AtomicInteger recentCount = new AtomicInteger();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+
+    private volatile ConcurrentHashMap<String, Decision> current = new ConcurrentHashMap<>();
+    private volatile ConcurrentHashMap<String, Decision> previous = new ConcurrentHashMap<>();
+
+    /**
+     * @param recentWindowMillis   how long ids are kept exactly (at least one window, at most two)
+     * @param maxRecentOrders      ids per exact generation before it rotates early
+     * @param bloomWindowMillis    how long ids are kept in the Bloom filter
+     * @param expectedBloomOrders  ids expected per Bloom window, for sizing
+     */
+    public DuplicateOrderFilter(OrderManager orderManager, long recentWindowMillis, int maxRecentOrders,
+                                long bloomWindowMillis, int expectedBloomOrders) {
+        this.orderManager = orderManager;
+        this.recentWindowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, recentWindowMillis));
+        this.maxRecentOrders = Math.max(1, maxRecentOrders);
+        this.nextRotation = new AtomicLong(System.nanoTime() + recentWindowNanos);
+        this.bloomFilter = new RotatingBloomFilter(expectedBloomOrders,
+                TimeUnit.MILLISECONDS.toNanos(Math.max(1, bloomWindowMillis)));
+    }
+
+    /**
+     * Claims {@code orderId} for the caller, or returns the status it was
+     * originally answered with. A {@code null} result obliges the caller to
+     * call {@link #complete} once the order is decided. A duplicate arriving
+     * while the original is still being decided, or an id the Bloom filter may
+     * have seen, gets {@link ResponseStatus#BUSY}, and the sender's retry finds
+     * the decision later.
+     */
+    public ResponseStatus claim(String symbol, String orderId) {
+        long now = System.nanoTime();
+        rotateIfDue(now);
+        while (true) {
+            Decision decision = new Decision();
+            Decision existing = current.putIfAbsent(orderId, decision);
+            boolean inserted = existing == null;
+            if (inserted) {
+                existing = previous.get(orderId);
+            }
+            if (existing == null) {
+                recentCount.incrementAndGet();
+                if (bloomFilter.mightContain(orderId, now)) {
+                    lookUpStored(symbol, orderId, decision);
+                    return ResponseStatus.BUSY;
+                }
+                bloomFilter.add(orderId);
+                return null;
+            }
+            ResponseStatus original = existing.status;
+            if (original != null) {
+                decision.status = original; // for anyone who found this placeholder instead
+                duplicates.incrementAndGet();
+                return original;
+            }
+            if (existing.reclaimable) {
+                // Given up, or a Bloom match with no stored response: a new order after all
+                if (inserted || current.replace(orderId, existing, decision)) {
+                    if (inserted) {
+                        recentCount.incrementAndGet();
+                    }
+                    return null;
+                }
+                continue;
+            }
+            decision.abandoned = true;
+            current.remove(orderId, decision);
+            if (!existing.abandoned) {
+                return ResponseStatus.BUSY;
+            }
+            // The first attempt was given up before it was decided, so try again
+        }
+    }
+
+    /**
+     * Remembers an order that was decided before this filter existed, such as
+     * one replayed from the journal, so a retry of it is not decided again.
+     */
+    public void seed(String orderId, ResponseStatus status) {
+        rotateIfDue(System.nanoTime());
+        Decision decision = new Decision();
+        decision.status = status;
+        if (current.put(orderId, decision) == null) {
+            recentCount.incrementAndGet();
+        }
+        bloomFilter.add(orderId);
+    }
+
+    /**
+     * Records how a claimed order was answered and releases any duplicates
+     * waiting on it. A {@code null} status gives the claim up instead, so a
+     * retry is handled as a new order.
+     */
+    public void complete(String orderId, ResponseStatus status) {
+        Decision decision = current.get(orderId);
+        if (decision == null) {
+            decision = previous.get(orderId);
+        }
+        if (decision == null) {
+            return;
+        }
+        if (status == null) {
+            decision.reclaimable = true; // kept, so the retry skips the Bloom filter that already has the id
+        } else {
+            decision.status = status;
+        }
+    }
+
+    public long getDuplicateCount() {
+        return duplicates.get();
+    }
+
+    /** Bloom matches that turned out to be new orders. */
+    public long getFalsePositiveCount() {
+        return falsePositives.get();
+    }
+
+    /** Settles a Bloom match's placeholder once its shard answers, without waiting for it here. */
+    private void lookUpStored(String symbol, String orderId, Decision decision) {
+        orderManager.findResponse(symbol, orderId).whenComplete((response, error) -> {
+            if (response != null) {
+                decision.status = ResponseStatus.valueOf(response.getStatus());
+                return;
+            }
+            if (error != null) {
+                logger.warn("Could not look up stored response for possible duplicate {}: {}", orderId, error.getMessage());
+            }
+            falsePositives.incrementAndGet();
+            decision.reclaimable = true;
+        });
+    }
+
+    /** Drops the previous generation once the window has passed or the current one is full. */
+    private void rotateIfDue(long now) {
+        long due = nextRotation.get();
+        if ((now - due >= 0 || recentCount.get() >= maxRecentOrders)
+                && nextRotation.compareAndSet(due, now + recentWindowNanos)) {
+            previous = current;
+            current = new ConcurrentHashMap<>();
+            recentCount.set(0);
+        }
+    }
+
+    /** How one order id was answered; {@code status} is null until it is decided. */
+    private static final class Decision {
+        volatile ResponseStatus status;
+        volatile boolean abandoned;
+        volatile boolean reclaimable; // no decision is coming; the next claim takes the id as new
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.orderreceiver.dedup;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter over order ids seen in roughly the last two windows.
+ * Ids go into the current generation; lookups check it and the previous one.
+ * Once a window has passed the previous generation is dropped and a fresh
+ * one started, so memory stays at two bit arrays however long the receiver
+ * runs. Sized for {@code expectedPerWindow} ids at a 1% false-positive rate.
+ */
+final class RotatingBloomFilter {
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final int bits;     // power of two
+    private final int hashes;
+    private final long windowNanos;
+    private final AtomicLong nextRotation;
+
+    private volatile AtomicLongArray current;
+    private volatile AtomicLongArray previous;
+
+    RotatingBloomFilter(int expectedPerWindow, long windowNanos) {
+        double optimalBits = -Math.max(1, expectedPerWindow) * Math.log(FALSE_POSITIVE_RATE) / (Math.log(2) * Math.log(2));
+        this.bits = Integer.highestOneBit((int) Math.min(1 << 29, Math.max(64, optimalBits)) * 2 - 1);
+        this.hashes = Math.max(1, (int) Math.round((double) bits / Math.max(1, expectedPerWindow) * Math.log(2)));
+        this.windowNanos = windowNanos;
+        this.nextRotation = new AtomicLong(System.nanoTime() + windowNanos);
+        this.current = new AtomicLongArray(bits / 64);
+        this.previous = new AtomicLongArray(bits / 64);
+    }
+
+    /** {@code false} if {@code id} was certainly not added in the last window. */
+    boolean mightContain(String id, long now) {
+        rotateIfDue(now);
+        long hash = hash(id);
+        return contains(current, hash) || contains(previous, hash);
+    }
+
+    void add(String id) {
+        long hash = hash(id);
+        AtomicLongArray words = current;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1; // odd, so every probe lands on a distinct bit
+        for (int i = 0; i < hashes; i++) {
+            int bit = (h1 + i * h2) & (bits - 1);
+            long mask = 1L << bit;
+            int word = bit >>> 6;
+            long value = words.get(word);
+            while ((value & mask) == 0 && !words.compareAndSet(word, value, value | mask)) {
+                value = words.get(word);
+            }
+        }
+    }
+
+    private boolean contains(AtomicLongArray words, long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int bit = (h1 + i * h2) & (bits - 1);
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** The caller that wins the race swaps generations; everyone else carries on. */
+    private void rotateIfDue(long now) {
+        long due = nextRotation.get();
+        if (now - due >= 0 && nextRotation.compareAndSet(due, now + windowNanos)) {
+            previous = current;
+            current = new AtomicLongArray(bits / 64);
+        }
+    }
+
+    /** 64-bit mix of the id's characters; the halves seed double hashing. */
+    private static long hash(String id) {
+        long h = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < id.length(); i++) {
+            h = (h ^ id.charAt(i)) * 0xBF58476D1CE4E5B9L;
+        }
+        h ^= h >>> 31;
+        h *= 0x94D049BB133111EBL;
+        return h ^ (h >>> 29);
+    }
+}
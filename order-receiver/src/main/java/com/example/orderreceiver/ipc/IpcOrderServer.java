@@ -0,0 +1,211 @@
+package com.example.orderreceiver.ipc;
+
+import com.example.orderreceiver.tcp.OrderFrameHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Shared-memory transport for senders on the same host. Each sender creates a
+ * session file holding a request and a response {@link SharedMemoryRing} in
+ * the IPC directory; one server thread discovers new sessions, polls every
+ * request ring and answers through the same order handler as the TCP
+ * listener. The receiver holds a lock on {@value #LOCK_FILE} while serving,
+ * which is how senders tell a live directory from a stale one, and senders
+ * hold a lock on their own session file for as long as they use it.
+ */
+public class IpcOrderServer {
+    private static final Logger logger = LoggerFactory.getLogger(IpcOrderServer.class);
+
+    public static final String LOCK_FILE = "receiver.lock";
+    public static final String SESSION_SUFFIX = ".ring";
+
+    private static final long SCAN_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long LIVENESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int SPIN_TRIES = 1000;
+    private static final int YIELD_TRIES = 100;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final Path directory;
+    private final OrderFrameHandler handler;
+    private final String waitStrategy;
+    private final List<IpcSession> sessions = new ArrayList<>(); // server thread only
+    private final Set<Path> attached = new HashSet<>();           // server thread only
+
+    private FileChannel lockChannel;
+    private FileLock lock;
+    private Thread thread;
+    private volatile int sessionCount;
+    private volatile boolean running = false;
+
+    /**
+     * @param waitStrategy how the server thread waits for requests: "busy-spin"
+     *                     keeps a core busy for the lowest latency, "yield" spins
+     *                     then yields, "park" spins, yields, then sleeps briefly
+     */
+    public IpcOrderServer(Path directory, OrderFrameHandler handler, String waitStrategy) {
+        this.directory = directory;
+        this.handler = handler;
+        this.waitStrategy = normalize(waitStrategy);
+    }
+
+    public synchronized void start() throws IOException {
+        if (running) {
+            logger.info("IPC server already running in {}", directory);
+            return;
+        }
+
+        Files.createDirectories(directory);
+        lockChannel = FileChannel.open(directory.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        lock = lockChannel.tryLock();
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("IPC directory " + directory + " is already served by another receiver");
+        }
+
+        running = true;
+        thread = new Thread(this::serve, "ipc-server") {{
+            setDaemon(true);
+            start();
+        }};
+        logger.info("IPC server STARTED in {} ({} wait)", directory, waitStrategy);
+    }
+
+    public synchronized void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            lock.release();
+            lockChannel.close();
+        } catch (IOException e) {
+            logger.warn("Error releasing IPC directory lock", e);
+        }
+        logger.info("IPC server STOPPED in {}", directory);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public int getSessionCount() {
+        return sessionCount;
+    }
+
+    private void serve() {
+        long nextScan = 0;
+        long nextLivenessCheck = System.nanoTime() + LIVENESS_INTERVAL_NANOS;
+        int idle = 0;
+        while (running) {
+            boolean progress = false;
+            for (int i = 0; i < sessions.size(); i++) {
+                progress |= sessions.get(i).poll();
+            }
+
+            long now = System.nanoTime();
+            if (now - nextScan >= 0) {
+                scan();
+                nextScan = now + SCAN_INTERVAL_NANOS;
+            }
+            if (now - nextLivenessCheck >= 0) {
+                removeAbandoned();
+                nextLivenessCheck = now + LIVENESS_INTERVAL_NANOS;
+            }
+
+            idle = progress ? 0 : idle(idle);
+        }
+        for (IpcSession session : sessions) {
+            session.close();
+        }
+        sessions.clear();
+        attached.clear();
+        sessionCount = 0;
+    }
+
+    /** Attaches session files that appeared since the last scan. */
+    private void scan() {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SESSION_SUFFIX)) {
+            for (Path path : files) {
+                if (attached.contains(path)) {
+                    continue;
+                }
+                attached.add(path);
+                IpcSession session = IpcSession.open(path, handler);
+                if (session != null) {
+                    sessions.add(session);
+                    logger.info("IPC session attached: {}", path.getFileName());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Error scanning IPC directory {}: {}", directory, e.getMessage());
+        }
+        sessionCount = sessions.size();
+    }
+
+    /** Drops sessions that failed or whose sender exited without cleaning up. */
+    private void removeAbandoned() {
+        Iterator<IpcSession> iterator = sessions.iterator();
+        while (iterator.hasNext()) {
+            IpcSession session = iterator.next();
+            if (session.isClosed() || !session.isSenderAlive()) {
+                logger.info("IPC session detached: {}", session.path().getFileName());
+                session.delete();
+                attached.remove(session.path());
+                iterator.remove();
+            }
+        }
+        attached.removeIf(path -> !Files.exists(path));
+        sessionCount = sessions.size();
+    }
+
+    private int idle(int idle) {
+        if ("busy-spin".equals(waitStrategy) || idle < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if ("yield".equals(waitStrategy) || idle < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(this, PARK_NANOS);
+            return idle;
+        }
+        return idle + 1;
+    }
+
+    private static String normalize(String waitStrategy) {
+        String name = waitStrategy == null ? "" : waitStrategy.trim().toLowerCase();
+        switch (name) {
+            case "busy-spin":
+            case "yield":
+            case "park":
+                return name;
+            default:
+                logger.warn("Unknown IPC wait strategy '{}', using park", waitStrategy);
+                return "park";
+        }
+    }
+}
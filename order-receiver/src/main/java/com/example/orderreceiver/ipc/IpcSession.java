@@ -0,0 +1,158 @@
+package com.example.orderreceiver.ipc;
+
+import com.example.orderreceiver.tcp.OrderFrameHandler;
+import com.example.orderreceiver.tcp.OrderSession;
+import com.example.orderreceiver.tcp.ResponseEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Receiver end of one sender's session file. The request ring is read into a
+ * connection-style buffer and framed by an {@link OrderSession}, so the text
+ * and binary protocols work exactly as over TCP; responses are copied into the
+ * response ring. Owned by the IPC server thread.
+ */
+final class IpcSession {
+    private static final Logger logger = LoggerFactory.getLogger(IpcSession.class);
+
+    private static final int WRITE_BUFFER_SIZE = 8 * ResponseEncoder.MAX_RESPONSE_BYTES;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer file;
+    private final SharedMemoryRing requests;
+    private final SharedMemoryRing responses;
+    private final OrderSession session;
+    private final byte[] readBuffer = new byte[OrderSession.MAX_FRAME_BYTES];
+    private final ByteBuffer writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+    private int filled;
+    private boolean closed;
+
+    private IpcSession(Path path, FileChannel channel, MappedByteBuffer file, int capacity, OrderFrameHandler handler) {
+        this.path = path;
+        this.channel = channel;
+        this.file = file;
+        this.requests = SharedMemoryRing.requests(file, capacity);
+        this.responses = SharedMemoryRing.responses(file, capacity);
+        this.session = new OrderSession(handler);
+    }
+
+    /** Maps a session file and tells the sender it is being served; {@code null} if it is not a valid session. */
+    static IpcSession open(Path path, OrderFrameHandler handler) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int capacity = SharedMemoryRing.capacity(file);
+            if (capacity < 0) {
+                logger.warn("Ignoring invalid IPC session file {}", path);
+                channel.close();
+                return null;
+            }
+            IpcSession session = new IpcSession(path, channel, file, capacity, handler);
+            SharedMemoryRing.markAttached(file);
+            return session;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Moves pending responses into the response ring, then frames and answers
+     * whatever requests have arrived. Never blocks; returns whether any bytes moved.
+     */
+    boolean poll() {
+        boolean progress = flush();
+        while (!closed && writeBuffer.remaining() >= ResponseEncoder.MAX_RESPONSE_BYTES) {
+            int read = requests.read(readBuffer, filled, readBuffer.length - filled);
+            int end = filled + read;
+            int start = session.process(readBuffer, 0, end, writeBuffer);
+            if (session.isFailed()) {
+                flush();
+                close();
+                return true;
+            }
+            filled = end - start;
+            System.arraycopy(readBuffer, start, readBuffer, 0, filled);
+            if (filled == readBuffer.length) {
+                logger.warn("Order frame exceeds {} bytes, closing IPC session {}", OrderSession.MAX_FRAME_BYTES, path.getFileName());
+                close();
+                return true;
+            }
+            if (read == 0 && start == 0) {
+                break;
+            }
+            progress = true;
+        }
+        return flush() || progress;
+    }
+
+    private boolean flush() {
+        if (writeBuffer.position() == 0) {
+            return false;
+        }
+        writeBuffer.flip();
+        int written = responses.write(writeBuffer.array(), writeBuffer.position(), writeBuffer.remaining());
+        writeBuffer.position(writeBuffer.position() + written);
+        writeBuffer.compact();
+        return written > 0;
+    }
+
+    /** {@code true} while the sender still holds its lock on the session file. */
+    boolean isSenderAlive() {
+        try {
+            FileLock lock = channel.tryLock();
+            if (lock == null) {
+                return true;
+            }
+            lock.release();
+            return false;
+        } catch (OverlappingFileLockException e) {
+            return true; // sender lives in this JVM
+        } catch (IOException e) {
+            logger.warn("Cannot check IPC session {}: {}", path.getFileName(), e.getMessage());
+            return true;
+        }
+    }
+
+    /** Tells the sender the session is no longer served and releases the mapping's channel. */
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        SharedMemoryRing.markClosed(file);
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Error closing IPC session {}", path.getFileName(), e);
+        }
+    }
+
+    void delete() {
+        close();
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Error deleting IPC session file {}", path, e);
+        }
+    }
+}
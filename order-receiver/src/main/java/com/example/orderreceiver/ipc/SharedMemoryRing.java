@@ -0,0 +1,116 @@
+package com.example.orderreceiver.ipc;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Single-producer single-consumer byte stream laid over part of a memory-mapped
+ * session file, so the two ends may live in different processes. The producer
+ * and consumer each own one monotonically increasing byte position, on its own
+ * cache line; the producer copies bytes in and publishes its position with a
+ * release store, the consumer acquires it, copies out and releases its own.
+ * <p>
+ * A session file holds one ring per direction behind a small file header:
+ * <pre>
+ *   0  int magic      4  int ring capacity
+ *   8  int attached   12 int closed          (set by the receiver)
+ *   64 request ring   64 + RING_HEADER_BYTES + capacity  response ring
+ * </pre>
+ * The sender module keeps an identical copy of this layout.
+ */
+final class SharedMemoryRing {
+    static final int MAGIC = 0x4F524431; // "ORD1"
+    static final int FILE_HEADER_BYTES = 64;
+    static final int RING_HEADER_BYTES = 128;
+
+    private static final int CAPACITY_OFFSET = 4;
+    private static final int ATTACHED_OFFSET = 8;
+    private static final int CLOSED_OFFSET = 12;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private final ByteBuffer buffer;
+    private final int writePositionOffset;
+    private final int readPositionOffset;
+    private final int dataOffset;
+    private final int capacity;
+    private final int mask;
+
+    private SharedMemoryRing(ByteBuffer buffer, int base, int capacity) {
+        this.buffer = buffer;
+        this.writePositionOffset = base;
+        this.readPositionOffset = base + 64;
+        this.dataOffset = base + RING_HEADER_BYTES;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+    }
+
+    static long fileSize(int capacity) {
+        return FILE_HEADER_BYTES + 2L * (RING_HEADER_BYTES + capacity);
+    }
+
+    /** Reads and validates the ring capacity recorded in a mapped session file; -1 if the file is not a session. */
+    static int capacity(ByteBuffer file) {
+        if (file.capacity() < FILE_HEADER_BYTES || (int) INTS.getAcquire(file, 0) != MAGIC) {
+            return -1;
+        }
+        int capacity = (int) INTS.get(file, CAPACITY_OFFSET);
+        boolean valid = capacity >= 64 && Integer.bitCount(capacity) == 1 && file.capacity() == fileSize(capacity);
+        return valid ? capacity : -1;
+    }
+
+    static SharedMemoryRing requests(ByteBuffer file, int capacity) {
+        return new SharedMemoryRing(file, FILE_HEADER_BYTES, capacity);
+    }
+
+    static SharedMemoryRing responses(ByteBuffer file, int capacity) {
+        return new SharedMemoryRing(file, FILE_HEADER_BYTES + RING_HEADER_BYTES + capacity, capacity);
+    }
+
+    static void markAttached(ByteBuffer file) {
+        INTS.setRelease(file, ATTACHED_OFFSET, 1);
+    }
+
+    static void markClosed(ByteBuffer file) {
+        INTS.setRelease(file, CLOSED_OFFSET, 1);
+    }
+
+    /** Copies up to {@code length} bytes into the ring; returns how many fit. Producer only. */
+    int write(byte[] src, int offset, int length) {
+        long write = (long) LONGS.get(buffer, writePositionOffset);
+        long read = (long) LONGS.getAcquire(buffer, readPositionOffset);
+        int count = (int) Math.min(length, capacity - (write - read));
+        if (count <= 0) {
+            return 0;
+        }
+        int index = (int) (write & mask);
+        int first = Math.min(count, capacity - index);
+        buffer.put(dataOffset + index, src, offset, first);
+        if (first < count) {
+            buffer.put(dataOffset, src, offset + first, count - first);
+        }
+        LONGS.setRelease(buffer, writePositionOffset, write + count);
+        return count;
+    }
+
+    /** Copies up to {@code length} available bytes out of the ring; returns how many were read. Consumer only. */
+    int read(byte[] dst, int offset, int length) {
+        long read = (long) LONGS.get(buffer, readPositionOffset);
+        long write = (long) LONGS.getAcquire(buffer, writePositionOffset);
+        int count = (int) Math.min(length, write - read);
+        if (count <= 0) {
+            return 0;
+        }
+        int index = (int) (read & mask);
+        int first = Math.min(count, capacity - index);
+        buffer.get(dataOffset + index, dst, offset, first);
+        if (first < count) {
+            buffer.get(dataOffset, dst, offset + first, count - first);
+        }
+        LONGS.setRelease(buffer, readPositionOffset, read + count);
+        return count;
+    }
+}
@@ -0,0 +1,452 @@
+package com.example.orderreceiver.journal;
+
+import com.example.orderreceiver.grpc.Order;
+import com.example.orderreceiver.grpc.OrderResponse;
+import com.example.orderreceiver.tcp.OrderFrame;
+import com.example.orderreceiver.tcp.OrderJournal;
+import com.example.orderreceiver.tcp.ResponseStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of every stored order and the response it was answered
+ * with, written into memory-mapped segment files. Appends only copy bytes into
+ * the mapping; a flusher thread forces them to disk once
+ * {@code flushIntervalMicros} have passed or {@code flushBytes} are pending, so
+ * one fsync covers every order appended since the last one (group commit).
+ * Callers that must not answer before the order is durable wait in
+ * {@link #awaitDurable(long)}.
+ *
+ * <p>Each run appends to new segments, so a record torn by a crash can only be
+ * the last one of a segment; {@link #replay} stops a segment at the first
+ * record whose length or checksum does not hold.
+ */
+public final class MappedOrderJournal implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(MappedOrderJournal.class);
+
+    public static final String SEGMENT_SUFFIX = ".journal";
+
+    private static final int SEGMENT_MAGIC = 0x4F524A31; // "ORJ1"
+    private static final int SEGMENT_HEADER_BYTES = 8;   // magic, reserved
+    private static final int RECORD_HEADER_BYTES = 8;    // payload length, CRC32C of payload
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int retainedSegments;
+    private final long flushIntervalNanos;
+    private final long flushBytes;
+    private final List<Path> replaySegments;
+    private final Deque<Path> segmentFiles = new ArrayDeque<>(); // oldest first
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final List<Segment> sealed = new ArrayList<>(); // appendLock; not yet forced
+    private Segment current;                                // appendLock
+    private long nextSequence;                              // appendLock
+    private volatile long appendedPosition;
+
+    private final ReentrantLock durableLock = new ReentrantLock();
+    private final Condition durableAdvanced = durableLock.newCondition();
+    private volatile long durablePosition;
+
+    private final AtomicLong appendedRecords = new AtomicLong();
+    private final AtomicLong syncs = new AtomicLong();
+    private final Thread flusher;
+    private volatile boolean running = true;
+    private volatile boolean failed = false;
+
+    private MappedOrderJournal(Path directory, int segmentBytes, int retainedSegments,
+                               long flushIntervalMicros, long flushBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.retainedSegments = retainedSegments;
+        this.flushIntervalNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(1, flushIntervalMicros));
+        this.flushBytes = Math.max(1, flushBytes);
+        this.replaySegments = listSegments(directory);
+        segmentFiles.addAll(replaySegments);
+        nextSequence = replaySegments.isEmpty() ? 1 : sequenceOf(replaySegments.get(replaySegments.size() - 1)) + 1;
+        current = newSegment();
+        flusher = new Thread(this::flushLoop, "journal-flusher") {{
+            setDaemon(true);
+            start();
+        }};
+    }
+
+    /**
+     * Opens the journal in {@code directory}, creating it if needed. Existing
+     * segments are kept for {@link #replay}; new records go to a new segment.
+     *
+     * @param segmentBytes     size of each mapped segment file
+     * @param retainedSegments segment files kept on disk, oldest deleted first; 0 keeps all
+     */
+    public static MappedOrderJournal open(Path directory, int segmentBytes, int retainedSegments,
+                                          long flushIntervalMicros, long flushBytes) throws IOException {
+        if (segmentBytes < 64 * 1024) {
+            throw new IllegalArgumentException("Journal segments must be at least 64KB: " + segmentBytes);
+        }
+        Files.createDirectories(directory);
+        MappedOrderJournal journal = new MappedOrderJournal(directory, segmentBytes,
+                retainedSegments == 0 ? 0 : Math.max(2, retainedSegments), flushIntervalMicros, flushBytes);
+        logger.info("Order journal OPENED in {} ({} segments to replay)", directory, journal.replaySegments.size());
+        return journal;
+    }
+
+    /**
+     * Feeds every intact record written by earlier runs to {@code sink}, oldest
+     * first, and returns how many were read. Call before the first append.
+     */
+    public long replay(BiConsumer<Order, OrderResponse> sink) throws IOException {
+        long records = 0;
+        for (Path path : replaySegments) {
+            if (Files.exists(path)) {
+                records += replaySegment(path, sink);
+            }
+        }
+        return records;
+    }
+
+    private static long replaySegment(Path path, BiConsumer<Order, OrderResponse> sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < SEGMENT_HEADER_BYTES || buffer.getInt(0) != SEGMENT_MAGIC) {
+                logger.warn("Skipping journal segment {} with an invalid header", path.getFileName());
+                return 0;
+            }
+            buffer.position(SEGMENT_HEADER_BYTES);
+            CRC32C crc = new CRC32C();
+            long records = 0;
+            while (buffer.remaining() >= RECORD_HEADER_BYTES) {
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length == 0) {
+                    break; // end of written data
+                }
+                if (length < 4 || length > buffer.remaining()) {
+                    logger.warn("Journal segment {} ends in a torn record after {} records", path.getFileName(), records);
+                    break;
+                }
+                ByteBuffer payload = buffer.slice(buffer.position(), length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    logger.warn("Journal segment {} has a corrupt record after {} records", path.getFileName(), records);
+                    break;
+                }
+                int orderLength = payload.getInt(0);
+                if (orderLength < 0 || orderLength > length - 4) {
+                    logger.warn("Journal segment {} has a malformed record after {} records", path.getFileName(), records);
+                    break;
+                }
+                Order order = Order.parseFrom(payload.slice(4, orderLength));
+                OrderResponse response = OrderResponse.parseFrom(payload.slice(4 + orderLength, length - 4 - orderLength));
+                sink.accept(order, response);
+                buffer.position(buffer.position() + length);
+                records++;
+            }
+            return records;
+        }
+    }
+
+    /**
+     * Copies an order and its response into the journal and returns the
+     * position to pass to {@link #awaitDurable(long)}, or -1 if the journal has
+     * failed or the record would not fit in an empty segment. Never waits for
+     * the disk.
+     */
+    public long append(Order order, OrderResponse response) {
+        byte[] orderBytes = order.toByteArray();
+        byte[] responseBytes = response.toByteArray();
+        int payloadLength = 4 + orderBytes.length + responseBytes.length;
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + payloadLength);
+        record.putInt(payloadLength).putInt(0).putInt(orderBytes.length).put(orderBytes).put(responseBytes);
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), RECORD_HEADER_BYTES, payloadLength);
+        record.putInt(4, (int) crc.getValue());
+        record.flip();
+        if (record.remaining() > segmentBytes - SEGMENT_HEADER_BYTES) {
+            // Rolling would not make room; skip the record rather than fail the journal
+            logger.warn("Order {} not journaled: its {}-byte record exceeds the {}-byte segment",
+                    order.getOrderId(), record.remaining(), segmentBytes);
+            return -1;
+        }
+
+        long position;
+        appendLock.lock();
+        try {
+            if (failed || !running) {
+                return -1;
+            }
+            if (current.buffer.remaining() < record.remaining()) {
+                roll();
+            }
+            current.buffer.put(record);
+            position = appendedPosition + record.limit();
+            appendedPosition = position;
+        } catch (IOException | UncheckedIOException e) {
+            fail("Failed to append to order journal", e);
+            return -1;
+        } finally {
+            appendLock.unlock();
+        }
+        appendedRecords.incrementAndGet();
+        if (position - durablePosition >= flushBytes) {
+            LockSupport.unpark(flusher);
+        }
+        return position;
+    }
+
+    /**
+     * Blocks until everything up to {@code position} has been forced to disk.
+     * Returns {@code false} if it never will be: the journal failed or closed,
+     * the position is -1, or the thread was interrupted.
+     */
+    public boolean awaitDurable(long position) {
+        if (position < 0) {
+            return false;
+        }
+        if (durablePosition >= position) {
+            return true;
+        }
+        durableLock.lock();
+        try {
+            while (durablePosition < position && !failed && running) {
+                durableAdvanced.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            durableLock.unlock();
+        }
+        return durablePosition >= position;
+    }
+
+    /** Position after the last append. */
+    public long appendedPosition() {
+        return appendedPosition;
+    }
+
+    public long durablePosition() {
+        return durablePosition;
+    }
+
+    public long getAppendedRecords() {
+        return appendedRecords.get();
+    }
+
+    /** Group commits performed; records per sync is how well appends are being batched. */
+    public long getSyncCount() {
+        return syncs.get();
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Pipeline journal stage that commits once per batch: the business stage has
+     * already appended the batch's orders, so waiting for the latest position
+     * makes the whole batch durable with one sync before any of it is answered.
+     */
+    public OrderJournal batchCommitHook() {
+        return new OrderJournal() {
+            @Override
+            public void append(OrderFrame frame, ResponseStatus status) {
+            }
+
+            @Override
+            public void flush() {
+                long position = appendedPosition;
+                if (position > durablePosition) {
+                    LockSupport.unpark(flusher);
+                    awaitDurable(position);
+                }
+            }
+        };
+    }
+
+    private void flushLoop() {
+        while (running) {
+            LockSupport.parkNanos(this, flushIntervalNanos);
+            sync();
+        }
+        sync();
+    }
+
+    /** Forces every byte appended so far, sealed segments first, and wakes waiters. */
+    private void sync() {
+        List<Segment> toForce;
+        Segment segment;
+        int end;
+        long target;
+        appendLock.lock();
+        try {
+            target = appendedPosition;
+            toForce = new ArrayList<>(sealed);
+            sealed.clear();
+            segment = current;
+            end = segment.buffer.position();
+        } finally {
+            appendLock.unlock();
+        }
+        if ((target == durablePosition && toForce.isEmpty()) || failed) {
+            return;
+        }
+
+        try {
+            for (Segment done : toForce) {
+                done.force(done.buffer.position());
+                done.close();
+            }
+            segment.force(end);
+        } catch (UncheckedIOException e) {
+            fail("Failed to sync order journal", e);
+            return;
+        }
+        syncs.incrementAndGet();
+        durableLock.lock();
+        try {
+            durablePosition = target;
+            durableAdvanced.signalAll();
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    /** Seals the current segment and starts the next; called with appendLock held. */
+    private void roll() throws IOException {
+        sealed.add(current);
+        current = newSegment();
+        while (retainedSegments > 0 && segmentFiles.size() > retainedSegments) {
+            Path oldest = segmentFiles.removeFirst();
+            Files.deleteIfExists(oldest);
+            logger.info("Deleted journal segment {}", oldest.getFileName());
+        }
+    }
+
+    private Segment newSegment() throws IOException {
+        Path path = directory.resolve(String.format("%016d%s", nextSequence++, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            buffer.putInt(SEGMENT_MAGIC).putInt(0);
+            segmentFiles.addLast(path);
+            return new Segment(channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void fail(String message, Exception e) {
+        logger.error("{}; orders are no longer journaled", message, e);
+        failed = true;
+        durableLock.lock();
+        try {
+            durableAdvanced.signalAll();
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        durableLock.lock();
+        try {
+            durableAdvanced.signalAll();
+        } finally {
+            durableLock.unlock();
+        }
+        appendLock.lock();
+        try {
+            current.close();
+        } finally {
+            appendLock.unlock();
+        }
+        logger.info("Order journal CLOSED in {} ({} records, {} syncs)", directory, appendedRecords.get(), syncs.get());
+    }
+
+    private static List<Path> listSegments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path path : files) {
+                if (sequenceOf(path) > 0) {
+                    segments.add(path);
+                }
+            }
+        }
+        segments.sort((a, b) -> Long.compare(sequenceOf(a), sequenceOf(b)));
+        return segments;
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /** One mapped segment file. {@link #forced} is only touched by the flusher. */
+    private static final class Segment {
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        int forced;
+
+        Segment(FileChannel channel, MappedByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        void force(int end) {
+            if (end > forced) {
+                buffer.force(forced, end - forced);
+                forced = end;
+            }
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.warn("Error closing journal segment", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.orderreceiver.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link AsyncAppender} that counts the events it throws away. Logback's
+ * appender hands events to its worker through a fixed-size array queue; with
+ * {@code neverBlock} set a full queue drops the event instead of stalling the
+ * logging thread, and below {@code discardingThreshold} INFO and lower events
+ * are discarded early. Neither is reported by logback, so both are counted
+ * here. Counts are read from the queue just before the hand-off and can be off
+ * by a few events under contention.
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+    private static final List<CountingAsyncAppender> started = new CopyOnWriteArrayList<>();
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+
+    @Override
+    public void start() {
+        super.start();
+        if (isStarted()) {
+            started.add(this);
+        }
+    }
+
+    @Override
+    public void stop() {
+        started.remove(this);
+        super.stop();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        int remaining = getRemainingCapacity();
+        if (remaining < getDiscardingThreshold() && isDiscardable(event)) {
+            discarded.increment();
+        } else if (remaining == 0 && isNeverBlock()) {
+            dropped.increment();
+        }
+        super.append(event);
+    }
+
+    public long getDroppedEvents() { return dropped.sum(); }
+    public long getDiscardedEvents() { return discarded.sum(); }
+
+    /** Appenders currently running, for reporting. */
+    static List<CountingAsyncAppender> startedAppenders() {
+        return started;
+    }
+}
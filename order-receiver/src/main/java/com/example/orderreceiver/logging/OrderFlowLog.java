@@ -0,0 +1,47 @@
+package com.example.orderreceiver.logging;
+
+import com.example.orderreceiver.grpc.LoggingStatsRequest;
+import com.example.orderreceiver.grpc.LoggingStatsResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logger for events that happen once per order or per order connection. It is
+ * configured separately from the rest of the receiver's logging (see
+ * {@code logback.xml}): sampled and rate limited by
+ * {@link OrderFlowSamplingFilter}, then handed to {@link CountingAsyncAppender}s
+ * so the order path never waits on console or file I/O.
+ */
+public final class OrderFlowLog {
+    public static final String LOGGER_NAME = "order-flow";
+
+    public static final Logger LOG = LoggerFactory.getLogger(LOGGER_NAME);
+
+    private OrderFlowLog() {
+    }
+
+    /** Events lost to sampling, rate limiting and full async queues since startup. */
+    public static LoggingStatsResponse getLoggingStats(LoggingStatsRequest request) {
+        LoggingStatsResponse.Builder stats = LoggingStatsResponse.newBuilder();
+        int capacity = 0;
+        int remaining = 0;
+        long dropped = 0;
+        long discarded = 0;
+        for (CountingAsyncAppender appender : CountingAsyncAppender.startedAppenders()) {
+            capacity += appender.getQueueSize();
+            remaining += appender.getRemainingCapacity();
+            dropped += appender.getDroppedEvents();
+            discarded += appender.getDiscardedEvents();
+        }
+        stats.setQueueCapacity(capacity)
+                .setQueueRemaining(remaining)
+                .setDroppedEvents(dropped)
+                .setDiscardedEvents(discarded);
+        OrderFlowSamplingFilter filter = OrderFlowSamplingFilter.activeFilter();
+        if (filter != null) {
+            stats.setSampledOutEvents(filter.getSampledOutEvents())
+                    .setRateLimitedEvents(filter.getRateLimitedEvents());
+        }
+        return stats.build();
+    }
+}
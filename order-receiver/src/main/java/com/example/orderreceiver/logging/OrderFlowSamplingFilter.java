@@ -0,0 +1,90 @@
+package com.example.orderreceiver.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thins out per-order log events before logback builds them. Only INFO and
+ * lower events on {@code loggerName} are affected; warnings and errors always
+ * pass. Every {@code sampleEvery}-th event is kept, and at most
+ * {@code maxPerSecond} kept events pass in any one second (0 = no limit).
+ * Events are sampled one at a time, so the lines for a single order may be
+ * kept or dropped independently.
+ */
+public class OrderFlowSamplingFilter extends TurboFilter {
+    private static volatile OrderFlowSamplingFilter active;
+
+    private String loggerName = OrderFlowLog.LOGGER_NAME;
+    private int sampleEvery = 1;
+    private int maxPerSecond = 0;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong windowSecond = new AtomicLong();
+    private final AtomicInteger windowCount = new AtomicInteger();
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (!isStarted() || logger == null || level == null || level.isGreaterOrEqual(Level.WARN)
+                || !loggerName.equals(logger.getName()) || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        if (sampleEvery > 1 && sequence.getAndIncrement() % sampleEvery != 0) {
+            sampledOut.increment();
+            return FilterReply.DENY;
+        }
+        if (maxPerSecond > 0 && !tryAcquire()) {
+            rateLimited.increment();
+            return FilterReply.DENY;
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    /** Fixed one-second windows; the first event of a new second resets the count. */
+    private boolean tryAcquire() {
+        long second = System.currentTimeMillis() / 1000;
+        long current = windowSecond.get();
+        if (second != current && windowSecond.compareAndSet(current, second)) {
+            windowCount.set(0);
+        }
+        return windowCount.incrementAndGet() <= maxPerSecond;
+    }
+
+    @Override
+    public void start() {
+        if (sampleEvery < 1) {
+            addWarn("sampleEvery must be at least 1, using 1");
+            sampleEvery = 1;
+        }
+        super.start();
+        active = this;
+    }
+
+    @Override
+    public void stop() {
+        if (active == this) {
+            active = null;
+        }
+        super.stop();
+    }
+
+    public void setLoggerName(String loggerName) { this.loggerName = loggerName; }
+    public void setSampleEvery(int sampleEvery) { this.sampleEvery = sampleEvery; }
+    public void setMaxPerSecond(int maxPerSecond) { this.maxPerSecond = maxPerSecond; }
+
+    public long getSampledOutEvents() { return sampledOut.sum(); }
+    public long getRateLimitedEvents() { return rateLimited.sum(); }
+
+    /** The filter installed by the logging configuration, or {@code null}. */
+    static OrderFlowSamplingFilter activeFilter() {
+        return active;
+    }
+}
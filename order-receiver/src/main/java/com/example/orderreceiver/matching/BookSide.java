@@ -0,0 +1,82 @@
+package com.example.orderreceiver.matching;
+
+import java.util.Arrays;
+
+/**
+ * Price levels for one side of a book, kept in a sorted primitive array with
+ * the best price last so that consuming the top of book never shifts the
+ * array. Keys are the price for bids and the negated price for asks, which
+ * makes "best" the highest key on both sides.
+ */
+final class BookSide {
+    private final boolean bids;
+    private long[] keys = new long[64];
+    private PriceLevel[] levels = new PriceLevel[64];
+    private int size;
+    private PriceLevel freeLevels;
+
+    BookSide(boolean bids) {
+        this.bids = bids;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int levelCount() {
+        return size;
+    }
+
+    PriceLevel best() {
+        return levels[size - 1];
+    }
+
+    /** {@code true} if an incoming order on the other side at {@code price} trades with the best level. */
+    boolean crosses(long price) {
+        return size > 0 && (bids ? levels[size - 1].price >= price : levels[size - 1].price <= price);
+    }
+
+    void removeBest() {
+        PriceLevel level = levels[--size];
+        levels[size] = null;
+        release(level);
+    }
+
+    /** Finds or creates the level for {@code price}. */
+    PriceLevel level(long price) {
+        long key = bids ? price : -price;
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index >= 0) {
+            return levels[index];
+        }
+        index = -index - 1;
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            levels = Arrays.copyOf(levels, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(levels, index, levels, index + 1, size - index);
+        PriceLevel level = acquire();
+        level.price = price;
+        keys[index] = key;
+        levels[index] = level;
+        size++;
+        return level;
+    }
+
+    private PriceLevel acquire() {
+        PriceLevel level = freeLevels;
+        if (level == null) {
+            return new PriceLevel();
+        }
+        freeLevels = level.nextFree;
+        level.nextFree = null;
+        return level;
+    }
+
+    private void release(PriceLevel level) {
+        level.clear();
+        level.nextFree = freeLevels;
+        freeLevels = level;
+    }
+}
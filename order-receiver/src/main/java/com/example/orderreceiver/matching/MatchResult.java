@@ -0,0 +1,13 @@
+package com.example.orderreceiver.matching;
+
+/** Outcome of submitting one order to an {@link OrderBook}. */
+public enum MatchResult {
+    /** Entire quantity traded against resting orders. */
+    FILLED,
+    /** Part traded; the remainder rests on the book (or was dropped if the book is full). */
+    PARTIALLY_FILLED,
+    /** Nothing crossed; the whole order rests on the book. */
+    RESTING,
+    /** Nothing crossed and the book has no room to rest it. */
+    BOOK_FULL
+}
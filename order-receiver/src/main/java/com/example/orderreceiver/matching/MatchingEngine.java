@@ -0,0 +1,40 @@
+package com.example.orderreceiver.matching;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link OrderBook} per symbol, created on first use. Books are matched
+ * under their own monitor, so orders for different symbols never contend and
+ * orders for the same symbol are applied in the order they arrive here.
+ */
+public class MatchingEngine {
+    private static final Logger logger = LoggerFactory.getLogger(MatchingEngine.class);
+
+    private final Map<String, OrderBook> books = new ConcurrentHashMap<>();
+    private final int maxRestingOrdersPerBook;
+
+    public MatchingEngine(int maxRestingOrdersPerBook) {
+        this.maxRestingOrdersPerBook = maxRestingOrdersPerBook;
+    }
+
+    public MatchResult submit(String symbol, String orderId, boolean buy, long price, long quantity) {
+        OrderBook book = books.get(symbol);
+        if (book == null) {
+            book = books.computeIfAbsent(symbol, s -> {
+                logger.info("Created order book for {}", s);
+                return new OrderBook(s, maxRestingOrdersPerBook);
+            });
+        }
+        synchronized (book) {
+            return book.submit(orderId, buy, price, quantity);
+        }
+    }
+
+    public int getBookCount() {
+        return books.size();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.orderreceiver.matching;
+
+/**
+ * Price-time priority limit order book for one symbol. An incoming order trades
+ * against the best opposite levels while prices cross, oldest resting order
+ * first, and any remainder rests at its limit price. Prices are fixed-point
+ * longs; the book allocates nothing per order once its node pool has warmed up.
+ * Not thread-safe: {@link MatchingEngine} serialises access per book.
+ */
+public final class OrderBook {
+    private final String symbol;
+    private final int maxRestingOrders;
+    private final BookSide bids = new BookSide(true);
+    private final BookSide asks = new BookSide(false);
+
+    private RestingOrder freeOrders;
+    private int restingOrders;
+
+    public OrderBook(String symbol, int maxRestingOrders) {
+        this.symbol = symbol;
+        this.maxRestingOrders = maxRestingOrders;
+    }
+
+    /**
+     * @param price limit price in the caller's fixed-point units
+     */
+    public MatchResult submit(String orderId, boolean buy, long price, long quantity) {
+        BookSide opposite = buy ? asks : bids;
+        long remaining = quantity;
+
+        while (remaining > 0 && opposite.crosses(price)) {
+            PriceLevel level = opposite.best();
+            RestingOrder maker = level.head;
+            while (maker != null && remaining > 0) {
+                long traded = Math.min(maker.remaining, remaining);
+                maker.remaining -= traded;
+                level.quantity -= traded;
+                remaining -= traded;
+                RestingOrder next = maker.next;
+                if (maker.remaining == 0) {
+                    level.remove(maker);
+                    release(maker);
+                }
+                maker = next;
+            }
+            if (level.isEmpty()) {
+                opposite.removeBest();
+            }
+        }
+
+        if (remaining == 0) {
+            return MatchResult.FILLED;
+        }
+        boolean traded = remaining < quantity;
+        RestingOrder order = acquire();
+        if (order == null) {
+            return traded ? MatchResult.PARTIALLY_FILLED : MatchResult.BOOK_FULL;
+        }
+        order.orderId = orderId;
+        order.remaining = remaining;
+        (buy ? bids : asks).level(price).append(order);
+        return traded ? MatchResult.PARTIALLY_FILLED : MatchResult.RESTING;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public int getRestingOrders() {
+        return restingOrders;
+    }
+
+    /** Best bid in fixed-point units, or {@link Long#MIN_VALUE} if there are no bids. */
+    public long bestBid() {
+        return bids.isEmpty() ? Long.MIN_VALUE : bids.best().price;
+    }
+
+    /** Best ask in fixed-point units, or {@link Long#MAX_VALUE} if there are no asks. */
+    public long bestAsk() {
+        return asks.isEmpty() ? Long.MAX_VALUE : asks.best().price;
+    }
+
+    private RestingOrder acquire() {
+        if (restingOrders >= maxRestingOrders) {
+            return null;
+        }
+        restingOrders++;
+        RestingOrder order = freeOrders;
+        if (order == null) {
+            return new RestingOrder();
+        }
+        freeOrders = order.next;
+        order.next = null;
+        return order;
+    }
+
+    private void release(RestingOrder order) {
+        restingOrders--;
+        order.clear();
+        order.next = freeOrders;
+        freeOrders = order;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.orderreceiver.matching;
+
+/** All resting orders at one price on one side, oldest first (time priority). */
+final class PriceLevel {
+    long price;
+    long quantity;
+    RestingOrder head;
+    RestingOrder tail;
+    PriceLevel nextFree; // free-list link while pooled
+
+    void append(RestingOrder order) {
+        order.prev = tail;
+        order.next = null;
+        if (tail == null) {
+            head = order;
+        } else {
+            tail.next = order;
+        }
+        tail = order;
+        quantity += order.remaining;
+    }
+
+    void remove(RestingOrder order) {
+        if (order.prev == null) {
+            head = order.next;
+        } else {
+            order.prev.next = order.next;
+        }
+        if (order.next == null) {
+            tail = order.prev;
+        } else {
+            order.next.prev = order.prev;
+        }
+    }
+
+    boolean isEmpty() {
+        return head == null;
+    }
+
+    void clear() {
+        price = 0;
+        quantity = 0;
+        head = null;
+        tail = null;
+    }
+}
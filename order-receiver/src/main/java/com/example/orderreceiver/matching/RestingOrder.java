@@ -0,0 +1,20 @@
+package com.example.orderreceiver.matching;
+
+/**
+ * A resting order, linked intrusively into its {@link PriceLevel}'s FIFO queue.
+ * Nodes are recycled through the owning book's free list rather than allocated
+ * per order.
+ */
+final class RestingOrder {
+    String orderId;
+    long remaining;
+    RestingOrder prev;
+    RestingOrder next;
+
+    void clear() {
+        orderId = null;
+        remaining = 0;
+        prev = null;
+        next = null;
+    }
+}
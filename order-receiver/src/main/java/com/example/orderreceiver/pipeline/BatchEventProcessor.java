@@ -0,0 +1,73 @@
+package com.example.orderreceiver.pipeline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs one {@link EventHandler} over a {@link RingBuffer}, trailing an upstream
+ * sequence (the ring's cursor for the first stage). Everything that became
+ * available since the last wait is handled as one batch before the stage's own
+ * sequence is advanced, so a stage that falls behind catches up in larger,
+ * cheaper batches.
+ */
+public final class BatchEventProcessor<E> implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(BatchEventProcessor.class);
+
+    private final String name;
+    private final RingBuffer<E> ringBuffer;
+    private final Sequence upstream;
+    private final EventHandler<? super E> handler;
+    private final WaitStrategy waitStrategy;
+    private final Sequence sequence = new Sequence(-1);
+    private final BooleanSupplier haltedCheck = this::isHalted;
+
+    private volatile boolean running = true;
+
+    public BatchEventProcessor(String name, RingBuffer<E> ringBuffer, Sequence upstream,
+                               EventHandler<? super E> handler, WaitStrategy waitStrategy) {
+        this.name = name;
+        this.ringBuffer = ringBuffer;
+        this.upstream = upstream;
+        this.handler = handler;
+        this.waitStrategy = waitStrategy;
+    }
+
+    public Sequence getSequence() {
+        return sequence;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void halt() {
+        running = false;
+    }
+
+    private boolean isHalted() {
+        return !running;
+    }
+
+    @Override
+    public void run() {
+        long next = sequence.get() + 1;
+        while (running) {
+            long available = waitStrategy.waitFor(next, upstream, haltedCheck);
+            if (available < next) {
+                continue;
+            }
+            while (next <= available) {
+                try {
+                    handler.onEvent(ringBuffer.get(next), next, next == available);
+                } catch (RuntimeException e) {
+                    logger.error("Pipeline stage {} failed on sequence {}", name, next, e);
+                }
+                next++;
+            }
+            sequence.set(available);
+        }
+        logger.debug("Pipeline stage {} stopped at sequence {}", name, sequence.get());
+    }
+}
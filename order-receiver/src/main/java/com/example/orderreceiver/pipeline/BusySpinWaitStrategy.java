@@ -0,0 +1,18 @@
+package com.example.orderreceiver.pipeline;
+
+import java.util.function.BooleanSupplier;
+
+/** Spins on the dependency. Lowest latency; dedicates a core to every waiting thread. */
+public final class BusySpinWaitStrategy implements WaitStrategy {
+    @Override
+    public long waitFor(long sequence, Sequence dependency, BooleanSupplier halted) {
+        long available;
+        while ((available = dependency.get()) < sequence) {
+            if (halted.getAsBoolean()) {
+                return available;
+            }
+            Thread.onSpinWait();
+        }
+        return available;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.orderreceiver.pipeline;
+
+/** One stage of a pipeline, invoked on the stage's own thread for every slot in sequence order. */
+@FunctionalInterface
+public interface EventHandler<E> {
+    /**
+     * @param endOfBatch {@code true} for the last slot currently available, the
+     *                   point at which a stage should flush whatever it has batched
+     */
+    void onEvent(E event, long sequence, boolean endOfBatch);
+}
@@ -0,0 +1,35 @@
+package com.example.orderreceiver.pipeline;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Spins, then yields, then parks for short intervals. Idle stages cost almost
+ * no CPU, at the price of up to a timer tick of wake-up latency after a lull.
+ */
+public final class ParkingWaitStrategy implements WaitStrategy {
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long PARK_NANOS = 20_000;
+
+    @Override
+    public long waitFor(long sequence, Sequence dependency, BooleanSupplier halted) {
+        long available;
+        int counter = SPIN_TRIES + YIELD_TRIES;
+        while ((available = dependency.get()) < sequence) {
+            if (halted.getAsBoolean()) {
+                return available;
+            }
+            if (counter > YIELD_TRIES) {
+                counter--;
+                Thread.onSpinWait();
+            } else if (counter > 0) {
+                counter--;
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+        return available;
+    }
+}
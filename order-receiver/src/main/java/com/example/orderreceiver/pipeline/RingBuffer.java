@@ -0,0 +1,118 @@
+package com.example.orderreceiver.pipeline;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Preallocated ring of mutable slots with a single producer. The producer
+ * claims a slot with {@link #next()} and fills it in place; {@link #publish}
+ * then releases every slot claimed up to the given sequence at once.
+ * Consumers follow the published cursor (or an upstream consumer's sequence)
+ * through {@link BatchEventProcessor}s. Slots are reused, so nothing is
+ * allocated per event.
+ */
+public final class RingBuffer<E> {
+    private final Object[] entries;
+    private final int mask;
+    private final Sequence cursor = new Sequence(-1);
+    private final WaitStrategy waitStrategy;
+    private final BooleanSupplier haltedCheck = this::isHalted;
+
+    private volatile Sequence gatingSequence;
+    private volatile boolean halted;
+
+    // Producer-thread state
+    private long nextSequence = -1;
+    private long cachedGatingSequence = -1;
+
+    public RingBuffer(Supplier<E> factory, int size, WaitStrategy waitStrategy) {
+        if (size <= 0 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("Ring size must be a power of two: " + size);
+        }
+        this.entries = new Object[size];
+        this.mask = size - 1;
+        this.waitStrategy = waitStrategy;
+        for (int i = 0; i < size; i++) {
+            entries[i] = factory.get();
+        }
+        this.gatingSequence = cursor;
+    }
+
+    /** The last stage's sequence; the producer never laps it. */
+    public void setGatingSequence(Sequence gatingSequence) {
+        this.gatingSequence = gatingSequence;
+    }
+
+    public Sequence getCursor() {
+        return cursor;
+    }
+
+    public int getBufferSize() {
+        return entries.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E) entries[(int) sequence & mask];
+    }
+
+    /**
+     * Claims the next slot, waiting while the ring is full. A claimed slot must
+     * be filled before the next claim: if the ring is full, everything claimed
+     * so far is published before waiting so the consumers can make room.
+     *
+     * @return the claimed sequence, or -1 if the ring was halted while waiting
+     */
+    public long next() {
+        long next = nextSequence + 1;
+        long wrapPoint = next - entries.length;
+        if (wrapPoint > cachedGatingSequence) {
+            if (cursor.get() < nextSequence) {
+                publish(nextSequence);
+            }
+            long gating = waitStrategy.waitFor(wrapPoint, gatingSequence, haltedCheck);
+            if (gating < wrapPoint) {
+                return -1;
+            }
+            cachedGatingSequence = gating;
+        }
+        nextSequence = next;
+        return next;
+    }
+
+    /**
+     * Claims the next slot if one is free, without waiting. Same rules as
+     * {@link #next()} for filling the slot.
+     *
+     * @return the claimed sequence, or -1 if the ring is full
+     */
+    public long tryNext() {
+        long next = nextSequence + 1;
+        long wrapPoint = next - entries.length;
+        if (wrapPoint > cachedGatingSequence) {
+            long gating = gatingSequence.get();
+            if (wrapPoint > gating) {
+                if (cursor.get() < nextSequence) {
+                    publish(nextSequence);
+                }
+                return -1;
+            }
+            cachedGatingSequence = gating;
+        }
+        nextSequence = next;
+        return next;
+    }
+
+    /** Makes every slot up to and including {@code sequence} visible to consumers. */
+    public void publish(long sequence) {
+        cursor.set(sequence);
+    }
+
+    public void halt() {
+        halted = true;
+    }
+
+    public boolean isHalted() {
+        return halted;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.orderreceiver.pipeline;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A position in a {@link RingBuffer}, written by exactly one thread and read by
+ * others. Padded on both sides so that neighbouring sequences owned by
+ * different stages never share a cache line.
+ */
+public final class Sequence extends SequenceRhsPadding {
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public Sequence(long initialValue) {
+        VALUE.setRelease(this, initialValue);
+    }
+
+    public long get() {
+        return (long) VALUE.getAcquire(this);
+    }
+
+    /** Publishes {@code value}; everything written before the call is visible to readers that observe it. */
+    public void set(long value) {
+        VALUE.setRelease(this, value);
+    }
+
+    @Override
+    public String toString() {
+        return Long.toString(get());
+    }
+}
+
+abstract class SequenceLhsPadding {
+    protected long p1, p2, p3, p4, p5, p6, p7;
+}
+
+abstract class SequenceValue extends SequenceLhsPadding {
+    protected volatile long value;
+}
+
+abstract class SequenceRhsPadding extends SequenceValue {
+    protected long p9, p10, p11, p12, p13, p14, p15;
+}
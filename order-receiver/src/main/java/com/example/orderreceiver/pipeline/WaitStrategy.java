@@ -0,0 +1,35 @@
+package com.example.orderreceiver.pipeline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * How a pipeline stage (or a producer waiting for free slots) waits for the
+ * sequence it depends on to advance. Strategies trade CPU for latency: a busy
+ * spin reacts fastest but burns a core per waiting thread.
+ */
+public interface WaitStrategy {
+    /**
+     * Waits until {@code dependency} reaches {@code sequence}.
+     *
+     * @param halted checked while waiting; once it returns {@code true} the wait is abandoned
+     * @return the highest available sequence, which is below {@code sequence}
+     *         only if the wait was abandoned
+     */
+    long waitFor(long sequence, Sequence dependency, BooleanSupplier halted);
+
+    /** Resolves "busy-spin", "yield" or "park"; anything else falls back to park. */
+    static WaitStrategy fromName(String name) {
+        switch (name.trim().toLowerCase()) {
+            case "busy-spin": return new BusySpinWaitStrategy();
+            case "yield": return new YieldingWaitStrategy();
+            case "park": return new ParkingWaitStrategy();
+            default:
+                Logger logger = LoggerFactory.getLogger(WaitStrategy.class);
+                logger.warn("Unknown wait strategy '{}', using park", name);
+                return new ParkingWaitStrategy();
+        }
+    }
+}
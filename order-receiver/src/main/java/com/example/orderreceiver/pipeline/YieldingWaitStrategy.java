@@ -0,0 +1,26 @@
+package com.example.orderreceiver.pipeline;
+
+import java.util.function.BooleanSupplier;
+
+/** Spins briefly, then yields the core between checks. Low latency without starving other runnable threads. */
+public final class YieldingWaitStrategy implements WaitStrategy {
+    private static final int SPIN_TRIES = 100;
+
+    @Override
+    public long waitFor(long sequence, Sequence dependency, BooleanSupplier halted) {
+        long available;
+        int counter = SPIN_TRIES;
+        while ((available = dependency.get()) < sequence) {
+            if (halted.getAsBoolean()) {
+                return available;
+            }
+            if (counter > 0) {
+                counter--;
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+        return available;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.orderreceiver.tcp;
+
+import com.example.orderreceiver.grpc.AdmissionStatsRequest;
+import com.example.orderreceiver.grpc.AdmissionStatsResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounds open connections and in-flight orders. Work past either limit is shed
+ * immediately with a BUSY answer instead of queueing, which keeps latency for
+ * admitted orders bounded under overload. A limit of 0 or less disables it.
+ */
+public class AdmissionController {
+    /** Written to a client whose connection is refused, before it is closed. */
+    static final byte[] CONNECTION_REFUSED =
+            "UNKNOWN|BUSY|Connection limit reached\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final int maxConnections;
+    private final int maxInFlightOrders;
+
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicInteger inFlightOrders = new AtomicInteger();
+    private final LongAdder admittedOrders = new LongAdder();
+    private final LongAdder shedOrders = new LongAdder();
+    private final LongAdder shedConnections = new LongAdder();
+
+    public AdmissionController(int maxConnections, int maxInFlightOrders) {
+        this.maxConnections = maxConnections;
+        this.maxInFlightOrders = maxInFlightOrders;
+    }
+
+    public static AdmissionController unbounded() {
+        return new AdmissionController(0, 0);
+    }
+
+    public boolean tryAcquireConnection() {
+        if (!tryAcquire(openConnections, maxConnections)) {
+            shedConnections.increment();
+            return false;
+        }
+        return true;
+    }
+
+    public void releaseConnection() {
+        openConnections.decrementAndGet();
+    }
+
+    public boolean tryAcquireOrder() {
+        if (!tryAcquire(inFlightOrders, maxInFlightOrders)) {
+            shedOrders.increment();
+            return false;
+        }
+        admittedOrders.increment();
+        return true;
+    }
+
+    public void releaseOrder() {
+        inFlightOrders.decrementAndGet();
+    }
+
+    /** Returns the permit of an order that was admitted but could not be queued, counting it as shed. */
+    public void shedOrder() {
+        inFlightOrders.decrementAndGet();
+        admittedOrders.decrement();
+        shedOrders.increment();
+    }
+
+    private static boolean tryAcquire(AtomicInteger counter, int limit) {
+        if (counter.incrementAndGet() > limit && limit > 0) {
+            counter.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public int getOpenConnections() { return openConnections.get(); }
+    public int getInFlightOrders() { return inFlightOrders.get(); }
+    public long getShedOrders() { return shedOrders.sum(); }
+    public long getShedConnections() { return shedConnections.sum(); }
+
+    public AdmissionStatsResponse getAdmissionStats(AdmissionStatsRequest request) {
+        return AdmissionStatsResponse.newBuilder()
+                .setOpenConnections(openConnections.get())
+                .setMaxConnections(maxConnections)
+                .setInFlightOrders(inFlightOrders.get())
+                .setMaxInFlightOrders(maxInFlightOrders)
+                .setAdmittedOrders(admittedOrders.sum())
+                .setShedOrders(shedOrders.sum())
+                .setShedConnections(shedConnections.sum())
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.orderreceiver.tcp;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Direct-mapped cache of short ASCII strings (symbols, accounts, exchanges) so
+ * that repeated field values decoded from order frames reuse one String instead
+ * of allocating a new one per order. Collisions simply overwrite the slot; races
+ * between threads are benign because Strings are immutable.
+ */
+final class AsciiInterner {
+    private static final int MAX_LENGTH = 32;
+
+    private final String[] table;
+    private final int mask;
+
+    AsciiInterner(int capacityPowerOfTwo) {
+        this.table = new String[capacityPowerOfTwo];
+        this.mask = capacityPowerOfTwo - 1;
+    }
+
+    String intern(byte[] bytes, int offset, int length) {
+        if (length > MAX_LENGTH) {
+            return new String(bytes, offset, length, StandardCharsets.US_ASCII);
+        }
+
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & mask;
+
+        String cached = table[slot];
+        if (cached != null && matches(cached, bytes, offset, length)) {
+            return cached;
+        }
+        String value = new String(bytes, offset, length, StandardCharsets.US_ASCII);
+        table[slot] = value;
+        return value;
+    }
+
+    private static boolean matches(String value, byte[] bytes, int offset, int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) != bytes[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
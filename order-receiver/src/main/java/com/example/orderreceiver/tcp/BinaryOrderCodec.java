@@ -0,0 +1,202 @@
+package com.example.orderreceiver.tcp;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Length-prefixed binary encoding of the order protocol, negotiated per
+ * connection with a {@code HELLO|BINARY/1} text line. All integers are
+ * big-endian and every frame starts with a 4-byte payload length.
+ *
+ * <pre>
+ * DEFINE   (client) type=1 | field:1 | id:2 | length:1 | ascii value
+ * ORDER    (client) type=2 | side:1 | symbolId:2 | accountId:2 | exchangeId:2
+ *                   | quantity:4 | price:8 (1/10000 units) | transactTime:8 (epoch ms)
+ *                   | orderIdLength:1 | orderId
+ * RESPONSE (server) type=3 | status:1 | orderIdLength:1 | orderId | messageLength:2 | message
+ * </pre>
+ *
+ * Symbols, accounts and exchanges are sent once per connection as DEFINE
+ * frames and then referenced by their 16-bit IDs, which count up from 0 in
+ * each field.
+ */
+public final class BinaryOrderCodec {
+    public static final String HELLO_PREFIX = "HELLO|";
+    public static final String PROTOCOL_VERSION = "BINARY/1";
+
+    public static final byte TYPE_DEFINE = 1;
+    public static final byte TYPE_ORDER = 2;
+    public static final byte TYPE_RESPONSE = 3;
+
+    public static final byte FIELD_SYMBOL = 1;
+    public static final byte FIELD_ACCOUNT = 2;
+    public static final byte FIELD_EXCHANGE = 3;
+
+    public static final byte SIDE_BUY = 0;
+    public static final byte SIDE_SELL = 1;
+
+    public static final int LENGTH_PREFIX_BYTES = 4;
+
+    static final byte[] HELLO_ACCEPTED = ("HELLO|" + PROTOCOL_VERSION + "|OK\n").getBytes(StandardCharsets.US_ASCII);
+    static final byte[] HELLO_DECLINED = "HELLO|TEXT|Unsupported protocol\n".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int ORDER_FIXED_BYTES = 1 + 1 + 2 + 2 + 2 + 4 + 8 + 8 + 1;
+    private static final int DEFINE_FIXED_BYTES = 1 + 1 + 2 + 1;
+
+    private BinaryOrderCodec() {
+    }
+
+    /**
+     * Per-connection ID tables populated by DEFINE frames. The peer picks the
+     * IDs, so each table only accepts the next unused ID, up to
+     * {@link #MAX_IDS}; anything else is a malformed frame.
+     */
+    static final class Dictionary {
+        static final int MAX_IDS = 4096;
+
+        private final Table symbols = new Table(32);
+        private final Table accounts = new Table(8);
+        private final Table exchanges = new Table(8);
+
+        boolean define(byte field, int id, String value) {
+            switch (field) {
+                case FIELD_SYMBOL: return symbols.add(id, value);
+                case FIELD_ACCOUNT: return accounts.add(id, value);
+                case FIELD_EXCHANGE: return exchanges.add(id, value);
+                default: return false;
+            }
+        }
+    }
+
+    private static final class Table {
+        private String[] values;
+        private int size;
+
+        Table(int capacity) {
+            values = new String[capacity];
+        }
+
+        boolean add(int id, String value) {
+            if (id != size || size == Dictionary.MAX_IDS) {
+                return false;
+            }
+            if (size == values.length) {
+                String[] larger = new String[Math.min(values.length * 2, Dictionary.MAX_IDS)];
+                System.arraycopy(values, 0, larger, 0, size);
+                values = larger;
+            }
+            values[size++] = value;
+            return true;
+        }
+
+        String get(int id) {
+            return id < size ? values[id] : null;
+        }
+    }
+
+    /** Returns {@code true} if a complete frame starts at {@code start}; see {@link #frameLength}. */
+    static boolean hasCompleteFrame(byte[] buffer, int start, int end) {
+        return end - start >= LENGTH_PREFIX_BYTES
+                && end - start - LENGTH_PREFIX_BYTES >= frameLength(buffer, start);
+    }
+
+    /** Payload length of the frame starting at {@code start}; the 4-byte prefix must be present. */
+    static int frameLength(byte[] buffer, int start) {
+        return getInt(buffer, start);
+    }
+
+    /** Applies a DEFINE payload; returns {@code false} if it is malformed or defines an unexpected ID. */
+    static boolean define(byte[] buffer, int offset, int length, Dictionary dictionary) {
+        if (length < DEFINE_FIXED_BYTES) {
+            return false;
+        }
+        byte field = buffer[offset + 1];
+        int id = getUnsignedShort(buffer, offset + 2);
+        int valueLength = buffer[offset + 4] & 0xFF;
+        if (DEFINE_FIXED_BYTES + valueLength > length) {
+            return false;
+        }
+        String value = new String(buffer, offset + DEFINE_FIXED_BYTES, valueLength, StandardCharsets.US_ASCII);
+        return dictionary.define(field, id, value);
+    }
+
+    /** Decodes an ORDER payload (starting at its type byte) into the flyweight. */
+    static OrderFrameDecoder.Result decodeOrder(byte[] buffer, int offset, int length,
+                                                OrderFrame frame, Dictionary dictionary) {
+        frame.reset(buffer);
+        if (length < ORDER_FIXED_BYTES) {
+            return OrderFrameDecoder.Result.MISSING_FIELDS;
+        }
+        int orderIdLength = buffer[offset + ORDER_FIXED_BYTES - 1] & 0xFF;
+        if (ORDER_FIXED_BYTES + orderIdLength > length) {
+            return OrderFrameDecoder.Result.MISSING_FIELDS;
+        }
+        frame.orderIdOffset = offset + ORDER_FIXED_BYTES;
+        frame.orderIdLength = orderIdLength;
+
+        byte side = buffer[offset + 1];
+        if (side != SIDE_BUY && side != SIDE_SELL) {
+            return OrderFrameDecoder.Result.INVALID_SIDE;
+        }
+        frame.buy = side == SIDE_BUY;
+
+        frame.symbol = dictionary.symbols.get(getUnsignedShort(buffer, offset + 2));
+        frame.account = dictionary.accounts.get(getUnsignedShort(buffer, offset + 4));
+        frame.exchange = dictionary.exchanges.get(getUnsignedShort(buffer, offset + 6));
+        if (frame.symbol == null || frame.account == null || frame.exchange == null) {
+            return OrderFrameDecoder.Result.UNKNOWN_REFERENCE;
+        }
+
+        int quantity = getInt(buffer, offset + 8);
+        if (quantity <= 0) {
+            return OrderFrameDecoder.Result.INVALID_QUANTITY;
+        }
+        frame.quantity = quantity;
+
+        long price = getLong(buffer, offset + 12);
+        if (price < 0) {
+            return OrderFrameDecoder.Result.INVALID_PRICE;
+        }
+        frame.price = price;
+        frame.transactTimeMillis = getLong(buffer, offset + 20);
+        return OrderFrameDecoder.Result.OK;
+    }
+
+    /**
+     * Reads only the order ID of an ORDER payload, without the dictionary, so
+     * an order can be answered without being decoded.
+     */
+    static void decodeOrderId(byte[] buffer, int offset, int length, OrderFrame frame) {
+        frame.reset(buffer);
+        if (length >= ORDER_FIXED_BYTES) {
+            int orderIdLength = buffer[offset + ORDER_FIXED_BYTES - 1] & 0xFF;
+            if (ORDER_FIXED_BYTES + orderIdLength <= length) {
+                frame.orderIdOffset = offset + ORDER_FIXED_BYTES;
+                frame.orderIdLength = orderIdLength;
+            }
+        }
+    }
+
+    static void encodeResponse(ByteBuffer out, OrderFrame frame, ResponseStatus status, byte[] message) {
+        int orderIdLength = Math.min(frame.orderIdLength(), 255);
+        out.putInt(1 + 1 + 1 + orderIdLength + 2 + message.length);
+        out.put(TYPE_RESPONSE);
+        out.put(status.wireCode());
+        out.put((byte) orderIdLength);
+        out.put(frame.buffer(), frame.orderIdOffset(), orderIdLength);
+        out.putShort((short) message.length);
+        out.put(message);
+    }
+
+    private static int getUnsignedShort(byte[] b, int i) {
+        return ((b[i] & 0xFF) << 8) | (b[i + 1] & 0xFF);
+    }
+
+    private static int getInt(byte[] b, int i) {
+        return ((b[i] & 0xFF) << 24) | ((b[i + 1] & 0xFF) << 16) | ((b[i + 2] & 0xFF) << 8) | (b[i + 3] & 0xFF);
+    }
+
+    private static long getLong(byte[] b, int i) {
+        return ((long) getInt(b, i) << 32) | (getInt(b, i + 4) & 0xFFFFFFFFL);
+    }
+}
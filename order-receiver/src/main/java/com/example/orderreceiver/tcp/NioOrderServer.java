@@ -0,0 +1,465 @@
+package com.example.orderreceiver.tcp;
+
+import com.example.orderreceiver.logging.OrderFlowLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Non-blocking order listener: an accept thread hands connections round-robin
+ * to a small fixed set of selector event loops, so the thread count no longer
+ * grows with the number of connected clients. Several accept threads, each on
+ * its own SO_REUSEPORT socket, can share the port during connection storms. With {@link PipelineSettings}
+ * each loop only frames input and hands it to its own {@link OrderPipeline}.
+ */
+public class NioOrderServer {
+    private static final Logger logger = LoggerFactory.getLogger(NioOrderServer.class);
+    private static final Logger orderFlow = OrderFlowLog.LOG;
+
+    private static final int WRITE_BUFFER_SIZE = 2 * ResponseEncoder.MAX_RESPONSE_BYTES;
+    private static final int WRITE_HIGH_WATER_MARK = 64 * 1024;
+    private static final int ACCEPT_BACKLOG = 1024;
+
+    private final int port;
+    private final OrderFrameHandler orderHandler;
+    private final AdmissionController admissionController;
+    private final PipelineSettings pipelineSettings;
+    private final OrderJournal journal;
+    private final EventLoop[] eventLoops;
+    private final int acceptorThreads;
+    private final AtomicInteger nextAdoptedLoop = new AtomicInteger();
+
+    private volatile ServerSocketChannel[] serverChannels;
+    private volatile AtomicLongArray acceptedConnections = new AtomicLongArray(0);
+    private volatile AtomicLongArray refusedConnections = new AtomicLongArray(0);
+    private volatile boolean running = false;
+
+    /**
+     * @param orderHandler     decides each order; with a pipeline, admission is done
+     *                         by the pipeline, so the handler must not take permits
+     * @param pipelineSettings staged pipeline per event loop, or {@code null} to
+     *                         handle orders inline on the event loop thread
+     * @param journal          pipeline journal stage hook
+     */
+    public NioOrderServer(int port, int eventLoopThreads, int acceptorThreads, OrderFrameHandler orderHandler,
+                          AdmissionController admissionController, PipelineSettings pipelineSettings,
+                          OrderJournal journal) {
+        this.port = port;
+        this.acceptorThreads = acceptorThreads;
+        this.orderHandler = orderHandler;
+        this.admissionController = admissionController;
+        this.pipelineSettings = pipelineSettings;
+        this.journal = journal;
+        this.eventLoops = new EventLoop[Math.max(1, eventLoopThreads)];
+    }
+
+    public void start() throws IOException {
+        serverChannels = bindListeners();
+        acceptedConnections = new AtomicLongArray(serverChannels.length);
+        refusedConnections = new AtomicLongArray(serverChannels.length);
+        running = true;
+
+        for (int i = 0; i < eventLoops.length; i++) {
+            eventLoops[i] = new EventLoop(Selector.open(), i);
+            Thread loopThread = new Thread(eventLoops[i], "tcp-nio-" + port + "-" + i);
+            loopThread.setDaemon(true);
+            loopThread.start();
+        }
+
+        for (int i = 0; i < serverChannels.length; i++) {
+            int acceptor = i;
+            String name = "tcp-listener-" + port + (serverChannels.length > 1 ? "-" + i : "");
+            new Thread(() -> acceptLoop(acceptor), name) {{
+                setDaemon(true);
+                start();
+            }};
+        }
+
+        logger.info("NIO order server listening on port {} with {} event loops and {} acceptors{}", port,
+                eventLoops.length, serverChannels.length, pipelineSettings != null ? " (pipelined)" : "");
+    }
+
+    /**
+     * Binds one listening channel, or {@code acceptorThreads} channels sharing
+     * the port through SO_REUSEPORT so the kernel spreads new connections across them.
+     */
+    private ServerSocketChannel[] bindListeners() throws IOException {
+        ServerSocketChannel first = ServerSocketChannel.open();
+        boolean reusePort = acceptorThreads > 1 && first.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT);
+        if (acceptorThreads > 1 && !reusePort) {
+            logger.warn("SO_REUSEPORT is not supported on this platform; using a single acceptor");
+        }
+        ServerSocketChannel[] channels = new ServerSocketChannel[reusePort ? acceptorThreads : 1];
+        try {
+            for (int i = 0; i < channels.length; i++) {
+                ServerSocketChannel channel = i == 0 ? first : ServerSocketChannel.open();
+                channels[i] = channel;
+                channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+                if (reusePort) {
+                    channel.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+                }
+                channel.bind(new InetSocketAddress(port), ACCEPT_BACKLOG);
+            }
+        } catch (IOException e) {
+            closeListeners(channels);
+            throw e;
+        }
+        return channels;
+    }
+
+    private static void closeListeners(ServerSocketChannel[] channels) {
+        for (ServerSocketChannel channel : channels) {
+            try {
+                if (channel != null) channel.close();
+            } catch (IOException e) {
+                logger.warn("Error closing server channel", e);
+            }
+        }
+    }
+
+    private void acceptLoop(int acceptor) {
+        ServerSocketChannel serverChannel = serverChannels[acceptor];
+        int nextLoop = acceptor % eventLoops.length;
+        while (running) {
+            try {
+                SocketChannel client = serverChannel.accept();
+                if (!admissionController.tryAcquireConnection()) {
+                    refusedConnections.incrementAndGet(acceptor);
+                    refuse(client);
+                    continue;
+                }
+                acceptedConnections.incrementAndGet(acceptor);
+                client.configureBlocking(false);
+                client.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                eventLoops[nextLoop].register(client);
+                nextLoop = (nextLoop + 1) % eventLoops.length;
+            } catch (ClosedChannelException e) {
+                break;
+            } catch (IOException e) {
+                if (running) logger.error("Accept error", e);
+            }
+        }
+    }
+
+    private void refuse(SocketChannel client) {
+        // Still in blocking mode here, so the short notice is written in full
+        try (client) {
+            client.write(ByteBuffer.wrap(AdmissionController.CONNECTION_REFUSED));
+        } catch (IOException e) {
+            logger.debug("Failed to notify refused client: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Serves a connection accepted and admitted by another listener, such as the
+     * Unix domain socket. The channel may be of any protocol family.
+     */
+    public void adopt(SocketChannel client) throws IOException {
+        client.configureBlocking(false);
+        eventLoops[Math.floorMod(nextAdoptedLoop.getAndIncrement(), eventLoops.length)].register(client);
+    }
+
+    public void shutdown() {
+        running = false;
+        if (serverChannels != null) {
+            closeListeners(serverChannels);
+        }
+        for (EventLoop loop : eventLoops) {
+            if (loop != null) {
+                if (loop.pipeline != null) {
+                    loop.pipeline.halt();
+                }
+                loop.selector.wakeup();
+            }
+        }
+    }
+
+    public AtomicLongArray getAcceptedConnections() {
+        return acceptedConnections;
+    }
+
+    public AtomicLongArray getRefusedConnections() {
+        return refusedConnections;
+    }
+
+    /** Per-connection buffers and decode state, owned exclusively by one event loop thread. */
+    private static final class Connection {
+        final ByteBuffer readBuffer = ByteBuffer.allocate(OrderSession.MAX_FRAME_BYTES);
+        final OrderSession session;              // orders handled inline, or
+        final PipelinedOrderSession pipelined;   // handed to the loop's pipeline
+        ByteBuffer writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+        SelectionKey key;
+        boolean closed;
+        boolean inputShutdown;                   // the peer half-closed; nothing more to read
+
+        /** Makes room for one more response, growing the buffer only when the peer is not draining it. */
+        ByteBuffer writableBuffer() {
+            if (writeBuffer.remaining() < ResponseEncoder.MAX_RESPONSE_BYTES) {
+                ByteBuffer larger = ByteBuffer.allocate(writeBuffer.capacity() * 2);
+                writeBuffer.flip();
+                larger.put(writeBuffer);
+                writeBuffer = larger;
+            }
+            return writeBuffer;
+        }
+
+        Connection(OrderFrameHandler handler, OrderPipeline pipeline) {
+            if (pipeline != null) {
+                this.session = null;
+                this.pipelined = new PipelinedOrderSession(pipeline, new OrderPipeline.Outbox(this));
+            } else {
+                this.session = new OrderSession(handler);
+                this.pipelined = null;
+            }
+        }
+
+        boolean hasPendingWrites() {
+            return writeBuffer.position() > 0;
+        }
+
+        boolean isFailed() {
+            return session != null ? session.isFailed() : pipelined.isFailed();
+        }
+
+        boolean isCloseRequested() {
+            return pipelined != null ? pipelined.outbox().isCloseRequested() : inputShutdown;
+        }
+    }
+
+    private final class EventLoop implements Runnable {
+        private final Selector selector;
+        private final OrderPipeline pipeline;
+        private final Queue<SocketChannel> pendingRegistrations = new ConcurrentLinkedQueue<>();
+        private final Queue<OrderPipeline.Outbox> readyOutboxes = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean wakeupPending = new AtomicBoolean();
+
+        EventLoop(Selector selector, int index) {
+            this.selector = selector;
+            if (pipelineSettings != null) {
+                pipeline = new OrderPipeline("tcp-pipeline-" + port + "-" + index, pipelineSettings, orderHandler,
+                        journal, admissionController, this::responsesReady);
+                pipeline.start();
+            } else {
+                pipeline = null;
+            }
+        }
+
+        /** Called by the pipeline's respond stage, or by the loop for orders it sheds; coalesces wake-ups until the loop has drained. */
+        private void responsesReady(OrderPipeline.Outbox outbox) {
+            readyOutboxes.add(outbox);
+            if (wakeupPending.compareAndSet(false, true)) {
+                selector.wakeup();
+            }
+        }
+
+        void register(SocketChannel channel) {
+            pendingRegistrations.add(channel);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    selector.select();
+                    registerPending();
+                    drainResponses();
+
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        try {
+                            if (key.isReadable()) {
+                                onReadable(key);
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                onWritable(key);
+                            }
+                        } catch (IOException e) {
+                            logger.debug("Closing order connection after I/O error: {}", e.getMessage());
+                            close(key);
+                        }
+                    }
+                } catch (IOException e) {
+                    if (running) logger.error("Event loop error", e);
+                }
+            }
+            closeAll();
+        }
+
+        private void registerPending() {
+            SocketChannel channel;
+            while ((channel = pendingRegistrations.poll()) != null) {
+                try {
+                    Connection connection = new Connection(orderHandler, pipeline);
+                    connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+                    orderFlow.info("Order client connected: {}", channel.getRemoteAddress());
+                } catch (IOException e) {
+                    logger.warn("Failed to register order connection", e);
+                    admissionController.releaseConnection();
+                    try { channel.close(); } catch (IOException ignored) {}
+                }
+            }
+        }
+
+        private void drainResponses() {
+            wakeupPending.set(false);
+            OrderPipeline.Outbox outbox;
+            while ((outbox = readyOutboxes.poll()) != null) {
+                Connection connection = (Connection) outbox.owner;
+                SelectionKey key = connection.key;
+                if (key == null || !key.isValid()) {
+                    continue;
+                }
+                connection.writeBuffer = outbox.drainInto(connection.writeBuffer);
+                try {
+                    onWritable(key);
+                } catch (IOException e) {
+                    logger.debug("Closing order connection after I/O error: {}", e.getMessage());
+                    close(key);
+                }
+            }
+        }
+
+        private void onReadable(SelectionKey key) throws IOException {
+            SocketChannel channel = (SocketChannel) key.channel();
+            Connection connection = (Connection) key.attachment();
+            ByteBuffer buffer = connection.readBuffer;
+
+            int read = channel.read(buffer);
+            if (read < 0) {
+                connection.inputShutdown = true;
+                if (connection.pipelined != null && !connection.pipelined.isFailed()) {
+                    // Half-closed: answer what is already in the pipeline, then close
+                    connection.pipelined.closeAfterResponses();
+                    pipeline.publishPending();
+                    key.interestOps(connection.hasPendingWrites() ? SelectionKey.OP_WRITE : 0);
+                    return;
+                }
+                if (connection.pipelined == null && connection.hasPendingWrites()) {
+                    // Half-closed: flush the responses still queued; onWritable closes once they are out
+                    key.interestOps(SelectionKey.OP_WRITE);
+                    return;
+                }
+                close(key);
+                return;
+            }
+
+            // A single read may carry several pipelined orders; answer each in arrival order.
+            byte[] bytes = buffer.array();
+            int start = 0;
+            int end = buffer.position();
+            if (connection.pipelined != null) {
+                onReadablePipelined(key, connection, bytes, end);
+                return;
+            }
+            do {
+                start = connection.session.process(bytes, start, end, connection.writableBuffer());
+            } while (connection.writeBuffer.remaining() < ResponseEncoder.MAX_RESPONSE_BYTES
+                    && !connection.session.isFailed());
+            buffer.flip().position(start);
+            buffer.compact();
+
+            if (connection.session.isFailed()) {
+                onWritable(key);
+                close(key);
+                return;
+            }
+
+            if (!buffer.hasRemaining()) {
+                logger.warn("Order frame exceeds {} bytes, closing connection", OrderSession.MAX_FRAME_BYTES);
+                close(key);
+                return;
+            }
+
+            if (connection.hasPendingWrites()) {
+                onWritable(key);
+            }
+        }
+
+        /** Publishes the frames read so far; responses arrive later through {@link #drainResponses()}. */
+        private void onReadablePipelined(SelectionKey key, Connection connection, byte[] bytes, int end) {
+            ByteBuffer buffer = connection.readBuffer;
+            int start = connection.pipelined.process(bytes, 0, end);
+            pipeline.publishPending();
+            buffer.flip().position(start);
+            buffer.compact();
+
+            if (connection.isFailed()) {
+                // The pipeline closes the connection once the responses ahead of the failure are written
+                key.interestOps(connection.hasPendingWrites() ? SelectionKey.OP_WRITE : 0);
+                return;
+            }
+
+            if (!buffer.hasRemaining()) {
+                logger.warn("Order frame exceeds {} bytes, closing connection", OrderSession.MAX_FRAME_BYTES);
+                close(key);
+            }
+        }
+
+        private void onWritable(SelectionKey key) throws IOException {
+            SocketChannel channel = (SocketChannel) key.channel();
+            Connection connection = (Connection) key.attachment();
+            ByteBuffer buffer = connection.writeBuffer;
+
+            buffer.flip();
+            channel.write(buffer);
+            buffer.compact();
+
+            int readInterest = connection.isFailed() || connection.inputShutdown ? 0 : SelectionKey.OP_READ;
+            if (!connection.hasPendingWrites()) {
+                if (connection.isCloseRequested()) {
+                    close(key);
+                    return;
+                }
+                key.interestOps(readInterest);
+            } else if (buffer.position() > WRITE_HIGH_WATER_MARK) {
+                // Slow reader: stop taking new orders until the backlog drains.
+                key.interestOps(SelectionKey.OP_WRITE);
+            } else {
+                key.interestOps(readInterest | SelectionKey.OP_WRITE);
+            }
+        }
+
+        private void close(SelectionKey key) {
+            Connection connection = (Connection) key.attachment();
+            if (!connection.closed) {
+                connection.closed = true;
+                admissionController.releaseConnection();
+            }
+            key.cancel();
+            try { key.channel().close(); } catch (IOException ignored) {}
+        }
+
+        private void closeAll() {
+            for (SelectionKey key : selector.keys()) {
+                close(key);
+            }
+            SocketChannel channel;
+            while ((channel = pendingRegistrations.poll()) != null) {
+                admissionController.releaseConnection();
+                try { channel.close(); } catch (IOException ignored) {}
+            }
+            try { selector.close(); } catch (IOException ignored) {}
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.orderreceiver.tcp;
+
+/**
+ * One preallocated ring slot. The event loop copies a raw frame into it; each
+ * pipeline stage then fills in its part (decoded frame, status) in place.
+ */
+final class OrderEvent {
+    static final byte TEXT_ORDER = 0;
+    static final byte BINARY_DEFINE = 1;
+    static final byte BINARY_ORDER = 2;
+    /** Pre-encoded bytes (handshake reply) written in order with the responses around it. */
+    static final byte CONTROL = 3;
+
+    final byte[] bytes = new byte[OrderSession.MAX_FRAME_BYTES];
+    final OrderFrame frame = new OrderFrame();
+
+    byte kind;
+    int length;
+    OrderPipeline.Outbox outbox;
+    BinaryOrderCodec.Dictionary dictionary;
+    byte[] reply;
+    boolean closeAfter;
+    /** Holds an in-flight permit from the {@link AdmissionController}, returned by the respond stage. */
+    boolean admitted;
+
+    OrderFrameDecoder.Result result;
+    ResponseStatus status;
+
+    boolean isOrder() {
+        return kind == TEXT_ORDER || kind == BINARY_ORDER;
+    }
+
+    void clear() {
+        outbox = null;
+        dictionary = null;
+        reply = null;
+        closeAfter = false;
+        admitted = false;
+        result = null;
+        status = null;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.orderreceiver.tcp;
+
+import com.example.orderreceiver.grpc.Order;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Mutable flyweight over one decoded order frame. Text fields are kept as
+ * offset/length pairs into the connection's read buffer and numeric fields are
+ * parsed in place, so decoding allocates nothing. Binary frames resolve symbol,
+ * account and exchange through the connection's dictionary instead. A frame is
+ * only valid until the underlying buffer is reused for the next read.
+ */
+public final class OrderFrame {
+    /** Prices are carried as fixed-point longs with four implied decimals. */
+    public static final long PRICE_SCALE = 10_000L;
+
+    private static final AsciiInterner FIELD_CACHE = new AsciiInterner(1024);
+    private static final DateTimeFormatter TRANSACT_TIME_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    byte[] buffer;
+    int orderIdOffset;
+    int orderIdLength;
+    int symbolOffset;
+    int symbolLength;
+    int accountOffset;
+    int accountLength;
+    int exchangeOffset;
+    int exchangeLength;
+    int timestampOffset;
+    int timestampLength;
+    boolean buy;
+    int quantity;
+    long price;
+    // Set by the binary decoder only
+    String symbol;
+    String account;
+    String exchange;
+    long transactTimeMillis;
+
+    void reset(byte[] buffer) {
+        this.buffer = buffer;
+        orderIdLength = 0;
+        symbolLength = 0;
+        accountLength = 0;
+        exchangeLength = 0;
+        timestampLength = 0;
+        buy = false;
+        quantity = 0;
+        price = 0;
+        symbol = null;
+        account = null;
+        exchange = null;
+        transactTimeMillis = 0;
+    }
+
+    public byte[] buffer() { return buffer; }
+    public int orderIdOffset() { return orderIdOffset; }
+    public int orderIdLength() { return orderIdLength; }
+    public boolean isBuy() { return buy; }
+    public int quantity() { return quantity; }
+    /** Price in units of 1/{@link #PRICE_SCALE}. */
+    public long price() { return price; }
+
+    /**
+     * Materialises the frame as the protobuf stored by {@code OrderManager}.
+     * Repeated field values come from a shared intern cache or the binary
+     * dictionary; only the order ID and timestamp are new Strings.
+     */
+    public Order toGrpcOrder() {
+        boolean binary = symbol != null;
+        return Order.newBuilder()
+                .setOrderId(new String(buffer, orderIdOffset, orderIdLength, StandardCharsets.US_ASCII))
+                .setSymbol(binary ? symbol : FIELD_CACHE.intern(buffer, symbolOffset, symbolLength))
+                .setSide(buy ? "BUY" : "SELL")
+                .setOrderQty(quantity)
+                .setPrice((double) price / PRICE_SCALE)
+                .setAccount(binary ? account : FIELD_CACHE.intern(buffer, accountOffset, accountLength))
+                .setExchange(binary ? exchange : FIELD_CACHE.intern(buffer, exchangeOffset, exchangeLength))
+                .setTransactTime(binary
+                        ? TRANSACT_TIME_FORMAT.format(Instant.ofEpochMilli(transactTimeMillis))
+                        : new String(buffer, timestampOffset, timestampLength, StandardCharsets.US_ASCII))
+                .build();
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.orderreceiver.tcp;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses {@code ORDER|orderId|symbol|side|quantity|price|account|exchange|timestamp}
+ * frames straight from a byte buffer into an {@link OrderFrame}. Malformed input
+ * is reported through {@link Result} rather than exceptions, so a bad frame costs
+ * no more than a good one.
+ */
+public final class OrderFrameDecoder {
+
+    public enum Result {
+        OK(""),
+        NOT_AN_ORDER("Not an ORDER message"),
+        MISSING_FIELDS("Missing order fields"),
+        INVALID_SIDE("Invalid side"),
+        INVALID_QUANTITY("Invalid quantity"),
+        INVALID_PRICE("Invalid price"),
+        UNKNOWN_REFERENCE("Unknown symbol, account or exchange id");
+
+        private final String message;
+        private final byte[] messageBytes;
+
+        Result(String message) {
+            this.message = message;
+            this.messageBytes = message.getBytes(StandardCharsets.US_ASCII);
+        }
+
+        public String message() { return message; }
+        public byte[] messageBytes() { return messageBytes; }
+    }
+
+    private static final byte DELIMITER = '|';
+    private static final byte[] ORDER_TAG = {'O', 'R', 'D', 'E', 'R'};
+    private static final byte[] BUY = {'B', 'U', 'Y'};
+    private static final byte[] SELL = {'S', 'E', 'L', 'L'};
+    private static final int MAX_PRICE_DECIMALS = 4;
+    private static final long MAX_PRICE_UNITS = Long.MAX_VALUE / OrderFrame.PRICE_SCALE / 10;
+
+    private OrderFrameDecoder() {
+    }
+
+    /** Returns the index of the next '\n' in {@code buffer[from, to)}, or -1. */
+    public static int indexOfLineEnd(byte[] buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decodes one frame without its trailing newline (a trailing '\r' is
+     * tolerated). On failure the frame still carries the order ID if it was
+     * reached, so the error can be correlated by the client.
+     */
+    public static Result decode(byte[] buffer, int offset, int length, OrderFrame frame) {
+        frame.reset(buffer);
+        int end = offset + length;
+        if (end > offset && buffer[end - 1] == '\r') {
+            end--;
+        }
+
+        int fieldEnd = nextDelimiter(buffer, offset, end);
+        if (!regionEquals(buffer, offset, fieldEnd, ORDER_TAG)) {
+            return Result.NOT_AN_ORDER;
+        }
+
+        int start = fieldEnd + 1;
+        fieldEnd = nextDelimiter(buffer, start, end);
+        if (fieldEnd >= end) return Result.MISSING_FIELDS;
+        frame.orderIdOffset = start;
+        frame.orderIdLength = fieldEnd - start;
+
+        start = fieldEnd + 1;
+        fieldEnd = nextDelimiter(buffer, start, end);
+        if (fieldEnd >= end) return Result.MISSING_FIELDS;
+        frame.symbolOffset = start;
+        frame.symbolLength = fieldEnd - start;
+
+        start = fieldEnd + 1;
+        fieldEnd = nextDelimiter(buffer, start, end);
+        if (fieldEnd >= end) return Result.MISSING_FIELDS;
+        if (regionEquals(buffer, start, fieldEnd, BUY)) {
+            frame.buy = true;
+        } else if (regionEquals(buffer, start, fieldEnd, SELL)) {
+            frame.buy = false;
+        } else {
+            return Result.INVALID_SIDE;
+        }
+
+        start = fieldEnd + 1;
+        fieldEnd = nextDelimiter(buffer, start, end);
+        if (fieldEnd >= end) return Result.MISSING_FIELDS;
+        int quantity = parseQuantity(buffer, start, fieldEnd);
+        if (quantity <= 0) return Result.INVALID_QUANTITY;
+        frame.quantity = quantity;
+
+        start = fieldEnd + 1;
+        fieldEnd = nextDelimiter(buffer, start, end);
+        if (fieldEnd >= end) return Result.MISSING_FIELDS;
+        long price = parsePrice(buffer, start, fieldEnd);
+        if (price < 0) return Result.INVALID_PRICE;
+        frame.price = price;
+
+        start = fieldEnd + 1;
+        fieldEnd = nextDelimiter(buffer, start, end);
+        if (fieldEnd >= end) return Result.MISSING_FIELDS;
+        frame.accountOffset = start;
+        frame.accountLength = fieldEnd - start;
+
+        start = fieldEnd + 1;
+        fieldEnd = nextDelimiter(buffer, start, end);
+        if (fieldEnd >= end) return Result.MISSING_FIELDS;
+        frame.exchangeOffset = start;
+        frame.exchangeLength = fieldEnd - start;
+
+        // Timestamp runs to the next delimiter or the end of the frame; extra fields are ignored.
+        start = fieldEnd + 1;
+        if (start >= end) return Result.MISSING_FIELDS;
+        fieldEnd = nextDelimiter(buffer, start, end);
+        frame.timestampOffset = start;
+        frame.timestampLength = fieldEnd - start;
+
+        return Result.OK;
+    }
+
+    private static int nextDelimiter(byte[] buffer, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (buffer[i] == DELIMITER) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private static boolean regionEquals(byte[] buffer, int from, int to, byte[] expected) {
+        if (to - from != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (buffer[from + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Returns the parsed quantity, or -1 if the field is empty, non-numeric or overflows. */
+    private static int parseQuantity(byte[] buffer, int from, int to) {
+        if (from == to || to - from > 9) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /** Returns the price scaled by {@link OrderFrame#PRICE_SCALE}, or -1 if malformed. */
+    private static long parsePrice(byte[] buffer, int from, int to) {
+        if (from == to) {
+            return -1;
+        }
+        long units = 0;
+        long fraction = 0;
+        int decimals = -1;
+        int digits = 0;
+        for (int i = from; i < to; i++) {
+            byte b = buffer[i];
+            if (b == '.' && decimals < 0) {
+                decimals = 0;
+                continue;
+            }
+            int digit = b - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            digits++;
+            if (decimals < 0) {
+                if (units > MAX_PRICE_UNITS) {
+                    return -1;
+                }
+                units = units * 10 + digit;
+            } else if (decimals < MAX_PRICE_DECIMALS) {
+                fraction = fraction * 10 + digit;
+                decimals++;
+            }
+            // Digits past the fourth decimal are truncated.
+        }
+        if (digits == 0) {
+            return -1;
+        }
+        for (int d = Math.max(decimals, 0); d < MAX_PRICE_DECIMALS; d++) {
+            fraction *= 10;
+        }
+        return units * OrderFrame.PRICE_SCALE + fraction;
+    }
+}
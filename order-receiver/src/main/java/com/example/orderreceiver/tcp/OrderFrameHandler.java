@@ -0,0 +1,11 @@
+package com.example.orderreceiver.tcp;
+
+/** Business handling for one decoded order, independent of the wire format it arrived in. */
+@FunctionalInterface
+public interface OrderFrameHandler {
+    /**
+     * @param frame connection-owned flyweight, valid only for the duration of the call
+     * @return the status to answer the order with
+     */
+    ResponseStatus onOrder(OrderFrame frame);
+}
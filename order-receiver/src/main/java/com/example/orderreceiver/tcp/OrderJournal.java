@@ -0,0 +1,15 @@
+package com.example.orderreceiver.tcp;
+
+/**
+ * Durability hook run by the pipeline's journal stage, after the business
+ * decision and before the response is written. {@link #flush()} is called at
+ * the end of every batch, so an implementation can commit a whole batch at once.
+ */
+public interface OrderJournal {
+    OrderJournal NONE = (frame, status) -> { };
+
+    void append(OrderFrame frame, ResponseStatus status);
+
+    default void flush() {
+    }
+}
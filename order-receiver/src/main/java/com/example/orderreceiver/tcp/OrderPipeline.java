@@ -0,0 +1,324 @@
+package com.example.orderreceiver.tcp;
+
+import com.example.orderreceiver.pipeline.BatchEventProcessor;
+import com.example.orderreceiver.pipeline.RingBuffer;
+import com.example.orderreceiver.pipeline.WaitStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Staged order processing for one NIO event loop. The loop frames inbound bytes
+ * and copies each frame into a preallocated ring (it is the ring's only
+ * producer); four stage threads then take every slot in sequence order, each
+ * handling whatever has accumulated as one batch:
+ * <ol>
+ *   <li>decode - parse the text or binary frame in place</li>
+ *   <li>business - store and decide via the {@link OrderFrameHandler}</li>
+ *   <li>journal - hand the decision to the {@link OrderJournal}, flushing per batch</li>
+ *   <li>respond - encode into the connection's {@link Outbox} and, once per
+ *       batch, tell the event loop which connections have output</li>
+ * </ol>
+ *
+ * <p>Admission happens on the event loop: an order is published only if it
+ * gets an in-flight permit and a free slot, and the permit is returned once
+ * the respond stage has answered it. Otherwise the loop answers BUSY itself,
+ * ahead of any responses still in the pipeline, and never waits for the ring.
+ */
+final class OrderPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(OrderPipeline.class);
+
+    private final RingBuffer<OrderEvent> ringBuffer;
+    private final List<BatchEventProcessor<OrderEvent>> stages;
+    private final OrderFrameHandler handler;
+    private final OrderJournal journal;
+    private final AdmissionController admissionController;
+    private final Consumer<Outbox> responsesReady;
+
+    // Respond-stage state
+    private final List<Outbox> touchedOutboxes = new ArrayList<>();
+
+    // Producer (event loop) state
+    private long lastClaimed = -1;
+    private final OrderFrame shedFrame = new OrderFrame();
+
+    /**
+     * @param handler  decides admitted orders; must not take its own admission permit
+     */
+    OrderPipeline(String name, PipelineSettings settings, OrderFrameHandler handler, OrderJournal journal,
+                  AdmissionController admissionController, Consumer<Outbox> responsesReady) {
+        this.handler = handler;
+        this.journal = journal;
+        this.admissionController = admissionController;
+        this.responsesReady = responsesReady;
+
+        WaitStrategy waitStrategy = settings.waitStrategy();
+        ringBuffer = new RingBuffer<>(OrderEvent::new, settings.ringSize(), waitStrategy);
+        BatchEventProcessor<OrderEvent> decode = new BatchEventProcessor<>(
+                name + "-decode", ringBuffer, ringBuffer.getCursor(), (event, sequence, endOfBatch) -> decode(event), waitStrategy);
+        BatchEventProcessor<OrderEvent> business = new BatchEventProcessor<>(
+                name + "-business", ringBuffer, decode.getSequence(), (event, sequence, endOfBatch) -> decide(event), waitStrategy);
+        BatchEventProcessor<OrderEvent> journaling = new BatchEventProcessor<>(
+                name + "-journal", ringBuffer, business.getSequence(), (event, sequence, endOfBatch) -> journal(event, endOfBatch), waitStrategy);
+        BatchEventProcessor<OrderEvent> respond = new BatchEventProcessor<>(
+                name + "-respond", ringBuffer, journaling.getSequence(), (event, sequence, endOfBatch) -> respond(event, endOfBatch), waitStrategy);
+        ringBuffer.setGatingSequence(respond.getSequence());
+        stages = List.of(decode, business, journaling, respond);
+    }
+
+    void start() {
+        for (BatchEventProcessor<OrderEvent> stage : stages) {
+            Thread thread = new Thread(stage, stage.getName());
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    void halt() {
+        ringBuffer.halt();
+        for (BatchEventProcessor<OrderEvent> stage : stages) {
+            stage.halt();
+        }
+    }
+
+    /**
+     * Publishes one order frame if it can be admitted. Without an in-flight
+     * permit or a free slot the order is answered BUSY on the spot instead.
+     * Event loop thread only.
+     *
+     * @return {@code false} if the pipeline has been halted
+     */
+    boolean publishOrder(Outbox outbox, byte kind, byte[] buffer, int offset, int length,
+                         BinaryOrderCodec.Dictionary dictionary) {
+        if (ringBuffer.isHalted()) {
+            return false;
+        }
+        if (!admissionController.tryAcquireOrder()) {
+            shed(outbox, kind, buffer, offset, length);
+            return true;
+        }
+        long sequence = ringBuffer.tryNext();
+        if (sequence < 0) {
+            admissionController.shedOrder();
+            shed(outbox, kind, buffer, offset, length);
+            return true;
+        }
+        OrderEvent event = fill(sequence, outbox, kind, buffer, offset, length, dictionary);
+        event.admitted = true;
+        return true;
+    }
+
+    /** Answers an order BUSY straight into its outbox; only the order ID is decoded. */
+    private void shed(Outbox outbox, byte kind, byte[] buffer, int offset, int length) {
+        boolean binary = kind == OrderEvent.BINARY_ORDER;
+        if (binary) {
+            BinaryOrderCodec.decodeOrderId(buffer, offset, length, shedFrame);
+        } else {
+            OrderFrameDecoder.decode(buffer, offset, length, shedFrame);
+        }
+        outbox.appendResponse(shedFrame, ResponseStatus.BUSY, ResponseStatus.BUSY.defaultMessageBytes(), binary);
+        responsesReady.accept(outbox);
+    }
+
+    /**
+     * Copies one non-order frame (a binary DEFINE) into the next slot, waiting
+     * for one if the ring is full. Event loop thread only; the slot
+     * becomes visible to the stages at the next {@link #publishPending()}, or
+     * earlier if the ring fills up.
+     *
+     * @return {@code false} if the pipeline was halted while waiting for a free slot
+     */
+    boolean publishFrame(Outbox outbox, byte kind, byte[] buffer, int offset, int length,
+                         BinaryOrderCodec.Dictionary dictionary) {
+        long sequence = ringBuffer.next();
+        if (sequence < 0) {
+            return false;
+        }
+        fill(sequence, outbox, kind, buffer, offset, length, dictionary);
+        return true;
+    }
+
+    private OrderEvent fill(long sequence, Outbox outbox, byte kind, byte[] buffer, int offset, int length,
+                            BinaryOrderCodec.Dictionary dictionary) {
+        OrderEvent event = ringBuffer.get(sequence);
+        event.kind = kind;
+        event.outbox = outbox;
+        event.dictionary = dictionary;
+        System.arraycopy(buffer, offset, event.bytes, 0, length);
+        event.length = length;
+        lastClaimed = sequence;
+        return event;
+    }
+
+    /** Queues pre-encoded bytes and/or a close behind everything already published for {@code outbox}. */
+    boolean publishControl(Outbox outbox, byte[] reply, boolean closeAfter) {
+        long sequence = ringBuffer.next();
+        if (sequence < 0) {
+            return false;
+        }
+        OrderEvent event = ringBuffer.get(sequence);
+        event.kind = OrderEvent.CONTROL;
+        event.outbox = outbox;
+        event.reply = reply;
+        event.closeAfter = closeAfter;
+        event.length = 0;
+        lastClaimed = sequence;
+        return true;
+    }
+
+    /** Makes every frame copied since the last call visible to the stages with a single release. */
+    void publishPending() {
+        if (lastClaimed >= 0) {
+            ringBuffer.publish(lastClaimed);
+        }
+    }
+
+    private void decode(OrderEvent event) {
+        switch (event.kind) {
+            case OrderEvent.TEXT_ORDER:
+                event.result = OrderFrameDecoder.decode(event.bytes, 0, event.length, event.frame);
+                break;
+            case OrderEvent.BINARY_ORDER:
+                event.result = BinaryOrderCodec.decodeOrder(event.bytes, 0, event.length, event.frame, event.dictionary);
+                break;
+            case OrderEvent.BINARY_DEFINE:
+                if (!BinaryOrderCodec.define(event.bytes, 0, event.length, event.dictionary)) {
+                    logger.warn("Malformed binary DEFINE frame, closing connection");
+                    event.outbox.discarding = true;
+                    event.closeAfter = true;
+                }
+                return;
+            default:
+                return;
+        }
+        if (event.result != OrderFrameDecoder.Result.OK) {
+            logger.warn("Malformed order frame: {}", event.result.message());
+        }
+    }
+
+    private void decide(OrderEvent event) {
+        if (!event.isOrder() || event.outbox.discarding) {
+            return;
+        }
+        event.status = event.result == OrderFrameDecoder.Result.OK
+                ? handler.onOrder(event.frame)
+                : ResponseStatus.ERROR;
+    }
+
+    private void journal(OrderEvent event, boolean endOfBatch) {
+        if (event.status != null && event.status != ResponseStatus.ERROR && event.status != ResponseStatus.BUSY) {
+            journal.append(event.frame, event.status);
+        }
+        if (endOfBatch) {
+            journal.flush();
+        }
+    }
+
+    private void respond(OrderEvent event, boolean endOfBatch) {
+        Outbox outbox = event.outbox;
+        if (event.reply != null) {
+            outbox.appendReply(event.reply);
+        } else if (event.status != null) {
+            byte[] message = event.status == ResponseStatus.ERROR
+                    ? event.result.messageBytes()
+                    : event.status.defaultMessageBytes();
+            outbox.appendResponse(event.frame, event.status, message, event.kind == OrderEvent.BINARY_ORDER);
+        }
+        if (event.closeAfter) {
+            outbox.requestClose();
+        }
+        if (!outbox.scheduled && (event.reply != null || event.status != null || event.closeAfter)) {
+            outbox.scheduled = true;
+            touchedOutboxes.add(outbox);
+        }
+        if (event.admitted) {
+            admissionController.releaseOrder();
+        }
+        event.clear();
+
+        if (endOfBatch) {
+            for (Outbox touched : touchedOutboxes) {
+                touched.scheduled = false;
+                responsesReady.accept(touched);
+            }
+            touchedOutboxes.clear();
+        }
+    }
+
+    /**
+     * Encoded responses for one connection, filled by the respond stage and
+     * drained by the owning event loop.
+     */
+    static final class Outbox {
+        private static final int INITIAL_CAPACITY = 2 * ResponseEncoder.MAX_RESPONSE_BYTES;
+
+        /** The event loop's per-connection state. */
+        final Object owner;
+
+        /** Set by the decode stage once the connection is being closed; later frames are dropped. */
+        boolean discarding;
+        /** Respond-stage only: already queued for this batch's notification. */
+        private boolean scheduled;
+
+        private ByteBuffer pending = ByteBuffer.allocate(INITIAL_CAPACITY);
+        private boolean closeRequested;
+
+        Outbox(Object owner) {
+            this.owner = owner;
+        }
+
+        synchronized void appendReply(byte[] reply) {
+            if (!closeRequested) {
+                writable(reply.length).put(reply);
+            }
+        }
+
+        synchronized void appendResponse(OrderFrame frame, ResponseStatus status, byte[] message, boolean binary) {
+            if (closeRequested) {
+                return;
+            }
+            ByteBuffer out = writable(ResponseEncoder.MAX_RESPONSE_BYTES);
+            if (binary) {
+                BinaryOrderCodec.encodeResponse(out, frame, status, message);
+            } else {
+                ResponseEncoder.encode(out, frame, status, message);
+            }
+        }
+
+        synchronized void requestClose() {
+            closeRequested = true;
+        }
+
+        synchronized boolean isCloseRequested() {
+            return closeRequested;
+        }
+
+        /** Moves everything pending into {@code target}, growing it if needed, and returns the buffer now holding it. */
+        synchronized ByteBuffer drainInto(ByteBuffer target) {
+            pending.flip();
+            if (target.remaining() < pending.remaining()) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(target.capacity() * 2, target.position() + pending.remaining()));
+                target.flip();
+                larger.put(target);
+                target = larger;
+            }
+            target.put(pending);
+            pending.clear();
+            return target;
+        }
+
+        private ByteBuffer writable(int bytes) {
+            if (pending.remaining() < bytes) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + bytes));
+                pending.flip();
+                larger.put(pending);
+                pending = larger;
+            }
+            return pending;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.orderreceiver.tcp;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Protocol state for one client connection. Splits the inbound byte stream into
+ * newline-delimited text frames or, once the client has negotiated it with
+ * {@code HELLO|BINARY/1}, length-prefixed binary frames, and answers every order
+ * in the same format. Used by both the blocking and the NIO listener.
+ */
+public final class OrderSession {
+    private static final Logger logger = LoggerFactory.getLogger(OrderSession.class);
+
+    /** Largest frame accepted in either format; also the per-connection read buffer size. */
+    public static final int MAX_FRAME_BYTES = 1024;
+
+    private static final byte[] HELLO_PREFIX = BinaryOrderCodec.HELLO_PREFIX.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BINARY_VERSION = BinaryOrderCodec.PROTOCOL_VERSION.getBytes(StandardCharsets.US_ASCII);
+
+    private final OrderFrameHandler handler;
+    private final OrderFrame frame = new OrderFrame();
+    private BinaryOrderCodec.Dictionary dictionary; // non-null once binary is negotiated
+    private boolean failed;
+
+    public OrderSession(OrderFrameHandler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Consumes complete frames from {@code buffer[start, end)} and returns the
+     * index of the first byte not consumed. Stops early once {@code out} has
+     * less than {@link ResponseEncoder#MAX_RESPONSE_BYTES} remaining, so the
+     * caller should drain or grow {@code out} and call again.
+     */
+    public int process(byte[] buffer, int start, int end, ByteBuffer out) {
+        while (!failed && out.remaining() >= ResponseEncoder.MAX_RESPONSE_BYTES) {
+            int next = dictionary == null
+                    ? processTextFrame(buffer, start, end, out)
+                    : processBinaryFrame(buffer, start, end, out);
+            if (next < 0) {
+                break;
+            }
+            start = next;
+        }
+        return start;
+    }
+
+    /** {@code true} once the stream can no longer be framed; the connection should be closed. */
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public boolean isBinary() {
+        return dictionary != null;
+    }
+
+    private int processTextFrame(byte[] buffer, int start, int end, ByteBuffer out) {
+        int lineEnd = OrderFrameDecoder.indexOfLineEnd(buffer, start, end);
+        if (lineEnd < 0) {
+            return -1;
+        }
+
+        if (isHello(buffer, start, lineEnd)) {
+            negotiate(buffer, start, lineEnd, out);
+            return lineEnd + 1;
+        }
+
+        OrderFrameDecoder.Result result = OrderFrameDecoder.decode(buffer, start, lineEnd - start, frame);
+        if (result != OrderFrameDecoder.Result.OK) {
+            logger.warn("Malformed order frame: {}", result.message());
+            ResponseEncoder.encode(out, frame, ResponseStatus.ERROR, result.messageBytes());
+        } else {
+            ResponseStatus status = handler.onOrder(frame);
+            ResponseEncoder.encode(out, frame, status, status.defaultMessageBytes());
+        }
+        return lineEnd + 1;
+    }
+
+    static boolean isHello(byte[] buffer, int lineStart, int lineEnd) {
+        return startsWith(buffer, lineStart, lineEnd, HELLO_PREFIX);
+    }
+
+    /** {@code true} if the handshake line {@code buffer[lineStart, lineEnd)} asks for exactly the supported binary version. */
+    static boolean isBinaryHello(byte[] buffer, int lineStart, int lineEnd) {
+        int versionStart = lineStart + HELLO_PREFIX.length;
+        int versionEnd = lineEnd > versionStart && buffer[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+        return startsWith(buffer, versionStart, versionEnd, BINARY_VERSION) && versionEnd - versionStart == BINARY_VERSION.length;
+    }
+
+    private void negotiate(byte[] buffer, int lineStart, int lineEnd, ByteBuffer out) {
+        if (isBinaryHello(buffer, lineStart, lineEnd)) {
+            out.put(BinaryOrderCodec.HELLO_ACCEPTED);
+            dictionary = new BinaryOrderCodec.Dictionary();
+            logger.debug("Order connection switched to {}", BinaryOrderCodec.PROTOCOL_VERSION);
+        } else {
+            out.put(BinaryOrderCodec.HELLO_DECLINED);
+        }
+    }
+
+    private int processBinaryFrame(byte[] buffer, int start, int end, ByteBuffer out) {
+        if (end - start < BinaryOrderCodec.LENGTH_PREFIX_BYTES) {
+            return -1;
+        }
+        int length = BinaryOrderCodec.frameLength(buffer, start);
+        if (length <= 0 || length > MAX_FRAME_BYTES - BinaryOrderCodec.LENGTH_PREFIX_BYTES) {
+            logger.warn("Invalid binary frame length {}, closing connection", length);
+            failed = true;
+            return -1;
+        }
+        if (!BinaryOrderCodec.hasCompleteFrame(buffer, start, end)) {
+            return -1;
+        }
+
+        int payload = start + BinaryOrderCodec.LENGTH_PREFIX_BYTES;
+        switch (buffer[payload]) {
+            case BinaryOrderCodec.TYPE_DEFINE:
+                if (!BinaryOrderCodec.define(buffer, payload, length, dictionary)) {
+                    logger.warn("Malformed binary DEFINE frame, closing connection");
+                    failed = true;
+                }
+                break;
+            case BinaryOrderCodec.TYPE_ORDER:
+                OrderFrameDecoder.Result result = BinaryOrderCodec.decodeOrder(buffer, payload, length, frame, dictionary);
+                if (result != OrderFrameDecoder.Result.OK) {
+                    logger.warn("Malformed binary order frame: {}", result.message());
+                    BinaryOrderCodec.encodeResponse(out, frame, ResponseStatus.ERROR, result.messageBytes());
+                } else {
+                    ResponseStatus status = handler.onOrder(frame);
+                    BinaryOrderCodec.encodeResponse(out, frame, status, status.defaultMessageBytes());
+                }
+                break;
+            default:
+                logger.warn("Unknown binary frame type {}, closing connection", buffer[payload]);
+                failed = true;
+                break;
+        }
+        return payload + length;
+    }
+
+    private static boolean startsWith(byte[] buffer, int from, int to, byte[] prefix) {
+        if (to - from < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer[from + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,33 +1,96 @@
 package com.example.orderreceiver.tcp;
 
 import com.example.orderreceiver.OrderManager;
+import com.example.orderreceiver.dedup.DuplicateOrderFilter;
+import com.example.orderreceiver.grpc.AcceptorStats;
+import com.example.orderreceiver.grpc.AcceptorStatsRequest;
+import com.example.orderreceiver.grpc.AcceptorStatsResponse;
+import com.example.orderreceiver.grpc.Order;
+import com.example.orderreceiver.grpc.OrderResponse;
+import com.example.orderreceiver.journal.MappedOrderJournal;
+import com.example.orderreceiver.logging.OrderFlowLog;
+import com.example.orderreceiver.matching.MatchingEngine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 public class OrderTcpServer {
     private static final Logger logger = LoggerFactory.getLogger(OrderTcpServer.class);
+    private static final Logger orderFlow = OrderFlowLog.LOG;
+
+    private static final int WRITE_BUFFER_SIZE = 8 * ResponseEncoder.MAX_RESPONSE_BYTES;
 
     private final int port;
-    private final ExecutorService executorService = Executors.newCachedThreadPool();
+    private final String serverMode;
+    private final int eventLoopThreads;
+    private final String connectionExecutor;
+    private final int acceptorThreads;
+    private final AdmissionController admissionController;
+    private final PipelineSettings pipelineSettings;
     private final OrderManager orderManager;
 
-    private volatile ServerSocket serverSocket;
+    private volatile ExecutorService executorService;
+    private volatile ServerSocket[] serverSockets;
+    private volatile AtomicLongArray acceptedConnections = new AtomicLongArray(0);
+    private volatile AtomicLongArray refusedConnections = new AtomicLongArray(0);
+    private volatile NioOrderServer nioServer;
+    private volatile Path unixSocketPath;            // null: no Unix domain socket listener
+    private volatile ServerSocketChannel unixServerChannel;
+    private final AtomicLong unixAcceptedConnections = new AtomicLong();
+    private final AtomicLong unixRefusedConnections = new AtomicLong();
     private volatile boolean running = false;
     private volatile boolean rejectMode = false; // Default to FILL mode
+    private volatile MatchingEngine matchingEngine; // null: fill everything
+    private volatile MappedOrderJournal journal;    // null: orders are not journaled
+    private volatile DuplicateOrderFilter duplicateFilter; // null: a resent order id is decided again
+    private volatile boolean commitPerOrder = true; // false when the pipeline commits per batch
 
     public OrderTcpServer(int port) {
+        this(port, "blocking", 1, "cached", 1, AdmissionController.unbounded(), null, new OrderManager());
+    }
+
+    /**
+     * @param serverMode         "blocking" for a thread per connection, "nio" for a
+     *                           fixed set of selector event loops
+     * @param connectionExecutor blocking mode only: "cached" platform threads or
+     *                           "virtual" threads per connection
+     * @param acceptorThreads    listening sockets bound to the port with SO_REUSEPORT,
+     *                           each with its own accept thread; 1 binds a single socket
+     * @param pipelineSettings   nio mode only: hand orders from each event loop to a
+     *                           staged pipeline, or {@code null} to handle them inline
+     * @param orderManager       where accepted orders and their responses are recorded
+     */
+    public OrderTcpServer(int port, String serverMode, int eventLoopThreads, String connectionExecutor,
+                          int acceptorThreads, AdmissionController admissionController,
+                          PipelineSettings pipelineSettings, OrderManager orderManager) {
         this.port = port;
-        this.orderManager = new OrderManager();
+        this.serverMode = serverMode;
+        this.eventLoopThreads = eventLoopThreads;
+        this.connectionExecutor = connectionExecutor;
+        this.acceptorThreads = acceptorThreads;
+        this.admissionController = admissionController;
+        this.pipelineSettings = pipelineSettings;
+        this.orderManager = orderManager;
     }
 
     public synchronized void start() throws IOException {
@@ -36,23 +99,183 @@ public class OrderTcpServer {
             return;
         }
 
-        serverSocket = new ServerSocket();
-        serverSocket.setReuseAddress(true);
-        serverSocket.bind(new InetSocketAddress(port));
+        if ("nio".equalsIgnoreCase(serverMode)) {
+            if (journal != null && pipelineSettings == null) {
+                // Waiting for each order's sync inline would park the event loop and all its connections
+                throw new IllegalStateException("The order journal in nio mode requires TCP_PIPELINE=true");
+            }
+            boolean batchCommit = journal != null && pipelineSettings != null;
+            commitPerOrder = !batchCommit;
+            // The pipeline takes admission permits on the event loop, so it gets the handler without them
+            OrderFrameHandler handler = pipelineSettings != null ? this::admitOrder : this::processOrder;
+            nioServer = new NioOrderServer(port, eventLoopThreads, acceptorThreads, handler,
+                    admissionController, pipelineSettings, batchCommit ? journal.batchCommitHook() : OrderJournal.NONE);
+            nioServer.start();
+            running = true;
+            logger.info("TCP server STARTED on port {} (nio, {} event loops)", port, eventLoopThreads);
+            startUnixListener();
+            return;
+        }
+
+        if (pipelineSettings != null) {
+            logger.warn("Processing pipeline requires nio mode; handling orders on connection threads");
+        }
+        commitPerOrder = true;
+        serverSockets = bindListeners();
+        acceptedConnections = new AtomicLongArray(serverSockets.length);
+        refusedConnections = new AtomicLongArray(serverSockets.length);
+        executorService = newConnectionExecutor();
         running = true;
 
-        logger.info("TCP server STARTED on port {}", port);
+        logger.info("TCP server STARTED on port {} ({} connection threads, {} acceptors)",
+                port, connectionExecutor, serverSockets.length);
+
+        for (int i = 0; i < serverSockets.length; i++) {
+            int acceptor = i;
+            String name = "tcp-listener-" + port + (serverSockets.length > 1 ? "-" + i : "");
+            new Thread(() -> acceptLoop(acceptor), name) {{
+                setDaemon(true);
+                start();
+            }};
+        }
+        startUnixListener();
+    }
+
+    /**
+     * Binds the optional Unix domain socket next to the TCP port. Clients on the
+     * same host speak the same protocol over it; connections are served like TCP
+     * ones in either server mode. A failure here leaves the TCP listener running.
+     */
+    private void startUnixListener() {
+        Path path = unixSocketPath;
+        if (path == null) {
+            return;
+        }
+        try {
+            if (Files.isRegularFile(path) || Files.isDirectory(path)) {
+                throw new IOException(path + " exists and is not a socket");
+            }
+            Files.deleteIfExists(path); // stale socket from a previous run
+            ServerSocketChannel channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            channel.bind(UnixDomainSocketAddress.of(path));
+            unixServerChannel = channel;
+        } catch (IOException e) {
+            logger.error("Failed to bind Unix domain socket {}, continuing with TCP only", path, e);
+            unixSocketPath = null;
+            return;
+        }
+        logger.info("Unix domain socket listener STARTED on {}", path);
 
-        new Thread(this::acceptLoop, "tcp-listener-" + port) {{
+        new Thread(this::unixAcceptLoop, "uds-listener-" + port) {{
             setDaemon(true);
             start();
         }};
     }
 
-    private void acceptLoop() {
+    private void unixAcceptLoop() {
+        ServerSocketChannel serverChannel = unixServerChannel;
+        while (running) {
+            try {
+                SocketChannel client = serverChannel.accept();
+                if (!admissionController.tryAcquireConnection()) {
+                    unixRefusedConnections.incrementAndGet();
+                    refuse(client);
+                    continue;
+                }
+                unixAcceptedConnections.incrementAndGet();
+                NioOrderServer nio = nioServer;
+                if (nio != null) {
+                    adopt(nio, client);
+                } else {
+                    executorService.submit(() -> handleUnixClient(client));
+                }
+            } catch (ClosedChannelException e) {
+                break;
+            } catch (IOException e) {
+                if (running) logger.error("Unix domain socket accept error", e);
+            }
+        }
+    }
+
+    private void adopt(NioOrderServer nio, SocketChannel client) {
+        try {
+            nio.adopt(client);
+        } catch (IOException e) {
+            logger.warn("Failed to hand Unix domain socket connection to event loop", e);
+            admissionController.releaseConnection();
+            try { client.close(); } catch (IOException ignored) {}
+        }
+    }
+
+    private void closeUnixListener() {
+        ServerSocketChannel channel = unixServerChannel;
+        if (channel == null) {
+            return;
+        }
+        unixServerChannel = null;
+        try {
+            channel.close();
+            Files.deleteIfExists(unixSocketPath);
+            logger.info("Unix domain socket CLOSED on {}", unixSocketPath);
+        } catch (IOException e) {
+            logger.warn("Error closing Unix domain socket {}", unixSocketPath, e);
+        }
+    }
+
+    /**
+     * Binds one listening socket, or {@code acceptorThreads} sockets sharing the
+     * port through SO_REUSEPORT so the kernel spreads new connections across them.
+     */
+    private ServerSocket[] bindListeners() throws IOException {
+        ServerSocket first = new ServerSocket();
+        boolean reusePort = acceptorThreads > 1 && first.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT);
+        if (acceptorThreads > 1 && !reusePort) {
+            logger.warn("SO_REUSEPORT is not supported on this platform; using a single acceptor");
+        }
+        ServerSocket[] sockets = new ServerSocket[reusePort ? acceptorThreads : 1];
+        try {
+            for (int i = 0; i < sockets.length; i++) {
+                ServerSocket socket = i == 0 ? first : new ServerSocket();
+                sockets[i] = socket;
+                socket.setReuseAddress(true);
+                if (reusePort) {
+                    socket.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+                }
+                socket.bind(new InetSocketAddress(port));
+            }
+        } catch (IOException e) {
+            closeListeners(sockets);
+            throw e;
+        }
+        return sockets;
+    }
+
+    private static void closeListeners(ServerSocket[] sockets) {
+        for (ServerSocket socket : sockets) {
+            try {
+                if (socket != null) socket.close();
+            } catch (IOException ignored) {}
+        }
+    }
+
+    private ExecutorService newConnectionExecutor() {
+        if ("virtual".equalsIgnoreCase(connectionExecutor)) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("tcp-client-" + port + "-", 0).factory());
+        }
+        return Executors.newCachedThreadPool();
+    }
+
+    private void acceptLoop(int acceptor) {
+        ServerSocket serverSocket = serverSockets[acceptor];
         while (running) {
             try {
                 Socket client = serverSocket.accept();
+                if (!admissionController.tryAcquireConnection()) {
+                    refusedConnections.incrementAndGet(acceptor);
+                    refuse(client);
+                    continue;
+                }
+                acceptedConnections.incrementAndGet(acceptor);
                 executorService.submit(() -> handleClient(client));
             } catch (IOException e) {
                 if (running) logger.error("Accept error", e);
@@ -60,45 +283,172 @@ public class OrderTcpServer {
         }
     }
 
+    private void refuse(Socket client) {
+        try (client) {
+            client.getOutputStream().write(AdmissionController.CONNECTION_REFUSED);
+        } catch (IOException e) {
+            logger.debug("Failed to notify refused client: {}", e.getMessage());
+        }
+    }
+
+    private void refuse(SocketChannel client) {
+        try (client) {
+            client.write(ByteBuffer.wrap(AdmissionController.CONNECTION_REFUSED));
+        } catch (IOException e) {
+            logger.debug("Failed to notify refused client: {}", e.getMessage());
+        }
+    }
+
     private void handleClient(Socket client) {
-        try (PrintWriter out = new PrintWriter(client.getOutputStream(), true);
-             BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream()))) {
-            
-            logger.info("Order client connected: {}", client.getInetAddress());
+        try (InputStream in = client.getInputStream();
+             OutputStream out = client.getOutputStream()) {
+            serveConnection(in, out, client.getInetAddress());
+        } catch (Exception ex) {
+            logger.error("TCP client handler error", ex);
+        } finally {
+            admissionController.releaseConnection();
+            try { client.close(); } catch (IOException ignored) {}
+        }
+    }
+
+    private void handleUnixClient(SocketChannel client) {
+        try (client;
+             InputStream in = Channels.newInputStream(client);
+             OutputStream out = Channels.newOutputStream(client)) {
+            serveConnection(in, out, unixSocketPath);
+        } catch (Exception ex) {
+            logger.error("Unix domain socket client handler error", ex);
+        } finally {
+            admissionController.releaseConnection();
+        }
+    }
+
+    /** Answers every order frame on one blocking connection until the client closes it. */
+    private void serveConnection(InputStream in, OutputStream out, Object peer) throws IOException {
+        orderFlow.info("Order client connected: {}", peer);
+        
+        // Buffers and protocol state are reused for every order on this connection
+        byte[] readBuffer = new byte[OrderSession.MAX_FRAME_BYTES];
+        ByteBuffer writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+        OrderSession session = new OrderSession(this::processOrder);
+        
+        // Connections are persistent: answer every order frame until the client closes
+        int filled = 0;
+        int read;
+        while ((read = in.read(readBuffer, filled, readBuffer.length - filled)) > 0) {
+            filled += read;
             
-            // Read order message
-            String orderMessage = in.readLine();
-            if (orderMessage == null) {
-                logger.warn("No order message received from client");
-                return;
+            int start = 0;
+            while (true) {
+                start = session.process(readBuffer, start, filled, writeBuffer);
+                if (writeBuffer.remaining() >= ResponseEncoder.MAX_RESPONSE_BYTES || session.isFailed()) {
+                    break;
+                }
+                flush(writeBuffer, out);
+            }
+            if (session.isFailed()) {
+                break;
             }
             
-            // Parse and process order
-            OrderMessage order = OrderMessage.fromTcpString(orderMessage);
-            logger.info("Received order: {} {} {} shares @ ${:.2f}", 
-                       order.getSide(), order.getSymbol(), order.getQuantity(), order.getPrice());
-            
-            // Store the order
-            orderManager.addOrder(order.toGrpcOrder());
-            
-            // Process order based on mode
-            String status = rejectMode ? "REJECTED" : "FILLED";
-            String message = rejectMode ? "Order rejected by receiver" : "Order filled successfully";
-            
-            OrderResponse response = new OrderResponse(order.getOrderId(), status, message);
-            String responseString = response.toTcpString();
-            
-            // Store the response
-            orderManager.addResponse(order.getOrderId(), response.toGrpcOrderResponse());
-            
-            // Send response
-            out.println(responseString);
-            logger.info("Sent response: {} - {}", order.getOrderId(), status);
+            filled -= start;
+            System.arraycopy(readBuffer, start, readBuffer, 0, filled);
+            if (filled == readBuffer.length) {
+                logger.warn("Order frame exceeds {} bytes, closing connection", OrderSession.MAX_FRAME_BYTES);
+                break;
+            }
             
-        } catch (Exception ex) {
-            logger.error("TCP client handler error", ex);
+            // Flush once the pipelined burst has been consumed rather than per order
+            if (in.available() == 0) {
+                flush(writeBuffer, out);
+            }
+        }
+        flush(writeBuffer, out);
+        orderFlow.debug("Order client {} disconnected", peer);
+    }
+
+    private static void flush(ByteBuffer writeBuffer, OutputStream out) throws IOException {
+        if (writeBuffer.position() > 0) {
+            out.write(writeBuffer.array(), 0, writeBuffer.position());
+            out.flush();
+            writeBuffer.clear();
+        }
+    }
+
+    /**
+     * Stores and decides a single decoded order. Shared by the blocking and NIO
+     * listeners and by both wire formats; the caller encodes the response.
+     * Orders beyond the in-flight limit are answered BUSY without being stored.
+     */
+    ResponseStatus processOrder(OrderFrame frame) {
+        if (!admissionController.tryAcquireOrder()) {
+            return ResponseStatus.BUSY;
+        }
+        try {
+            return admitOrder(frame);
         } finally {
-            try { client.close(); } catch (IOException ignored) {}
+            admissionController.releaseOrder();
+        }
+    }
+
+    private ResponseStatus admitOrder(OrderFrame frame) {
+        Order order = frame.toGrpcOrder();
+        orderFlow.info("Received order: {} {} {} shares @ ${}",
+                   order.getSide(), order.getSymbol(), order.getOrderQty(), order.getPrice());
+        
+        DuplicateOrderFilter filter = duplicateFilter;
+        if (filter == null) {
+            return decideOrder(order, frame);
+        }
+        
+        // A retried order id gets its original answer and is not decided again
+        ResponseStatus original = filter.claim(order.getSymbol(), order.getOrderId());
+        if (original != null) {
+            orderFlow.info("Duplicate order {} answered with original response {}", order.getOrderId(), original);
+            return original;
+        }
+        ResponseStatus status = null;
+        try {
+            status = decideOrder(order, frame);
+            return status;
+        } finally {
+            filter.complete(order.getOrderId(), status);
+        }
+    }
+
+    private ResponseStatus decideOrder(Order order, OrderFrame frame) {
+        // Process order based on mode; reject mode overrides matching
+        ResponseStatus status = rejectMode ? ResponseStatus.REJECTED : match(order, frame);
+        
+        OrderResponse response = OrderResponse.newBuilder()
+                .setOrderId(order.getOrderId())
+                .setStatus(status.name())
+                .setMessage(status.defaultMessage())
+                .build();
+        
+        // Journal, then store the order and response on the symbol's shard
+        MappedOrderJournal orderJournal = journal;
+        long position = orderJournal != null ? orderJournal.append(order, response) : -1;
+        orderManager.record(order, response);
+        
+        // Answer only once the journal's group commit covers this order
+        if (position >= 0 && commitPerOrder && !orderJournal.awaitDurable(position)) {
+            logger.warn("Order {} answered without being journaled", order.getOrderId());
+        }
+        
+        orderFlow.info("Sent response: {} - {}", order.getOrderId(), status);
+        return status;
+    }
+
+    private ResponseStatus match(Order order, OrderFrame frame) {
+        MatchingEngine engine = matchingEngine;
+        if (engine == null) {
+            return ResponseStatus.FILLED;
+        }
+        switch (engine.submit(order.getSymbol(), order.getOrderId(), frame.isBuy(), frame.price(), frame.quantity())) {
+            case FILLED: return ResponseStatus.FILLED;
+            case PARTIALLY_FILLED: return ResponseStatus.PARTIALLY_FILLED;
+            case RESTING: return ResponseStatus.RESTING;
+            default: return ResponseStatus.REJECTED;
         }
     }
 
@@ -109,13 +459,16 @@ public class OrderTcpServer {
         }
 
         running = false;
-        try {
-            if (serverSocket != null && !serverSocket.isClosed()) {
-                serverSocket.close();
-                logger.info("TCP server socket CLOSED on port {}", port);
-            }
-        } catch (IOException e) {
-            logger.warn("Error closing server socket", e);
+        closeUnixListener();
+        if (nioServer != null) {
+            nioServer.shutdown();
+            nioServer = null;
+            logger.info("TCP server STOPPED on port {}", port);
+            return;
+        }
+        if (serverSockets != null) {
+            closeListeners(serverSockets);
+            logger.info("TCP server socket CLOSED on port {}", port);
         }
         
         executorService.shutdown();
@@ -132,99 +485,73 @@ public class OrderTcpServer {
         logger.info("TCP server mode changed to: {}", mode);
     }
     
+    /** Matches orders against per-symbol books instead of filling them outright; {@code null} to disable. */
+    public void setMatchingEngine(MatchingEngine matchingEngine) {
+        this.matchingEngine = matchingEngine;
+        logger.info("TCP server matching engine {}", matchingEngine != null ? "ENABLED" : "DISABLED");
+    }
+    
+    /**
+     * Journals every stored order and holds its response until the journal has
+     * synced it; call before {@link #start()}. With the nio pipeline the journal
+     * stage waits once per batch instead of once per order.
+     */
+    public void setJournal(MappedOrderJournal journal) {
+        this.journal = journal;
+    }
+    
+    /** Answers resent order ids with their original response; {@code null} to disable. */
+    public void setDuplicateFilter(DuplicateOrderFilter duplicateFilter) {
+        this.duplicateFilter = duplicateFilter;
+    }
+    
+    public DuplicateOrderFilter getDuplicateFilter() {
+        return duplicateFilter;
+    }
+    
     public OrderManager getOrderManager() {
         return orderManager;
     }
     
-    public static class OrderMessage {
-        private final String orderId;
-        private final String symbol;
-        private final String side;
-        private final int quantity;
-        private final double price;
-        private final String account;
-        private final String exchange;
-        private final String timestamp;
-        
-        public OrderMessage(String orderId, String symbol, String side, int quantity, 
-                          double price, String account, String exchange, String timestamp) {
-            this.orderId = orderId;
-            this.symbol = symbol;
-            this.side = side;
-            this.quantity = quantity;
-            this.price = price;
-            this.account = account;
-            this.exchange = exchange;
-            this.timestamp = timestamp;
-        }
-        
-        public static OrderMessage fromTcpString(String tcpString) {
-            String[] parts = tcpString.split("\\|");
-            if (parts.length >= 8 && parts[0].equals("ORDER")) {
-                return new OrderMessage(
-                    parts[1], // orderId
-                    parts[2], // symbol
-                    parts[3], // side
-                    Integer.parseInt(parts[4]), // quantity
-                    Double.parseDouble(parts[5]), // price
-                    parts[6], // account
-                    parts[7], // exchange
-                    parts[8]  // timestamp
-                );
-            } else {
-                throw new IllegalArgumentException("Invalid order message format: " + tcpString);
-            }
-        }
-        
-        public com.example.orderreceiver.grpc.Order toGrpcOrder() {
-            return com.example.orderreceiver.grpc.Order.newBuilder()
-                    .setOrderId(orderId)
-                    .setSymbol(symbol)
-                    .setSide(side)
-                    .setOrderQty(quantity)
-                    .setPrice(price)
-                    .setAccount(account)
-                    .setExchange(exchange)
-                    .setTransactTime(timestamp)
-                    .build();
-        }
-        
-        // Getters
-        public String getOrderId() { return orderId; }
-        public String getSymbol() { return symbol; }
-        public String getSide() { return side; }
-        public int getQuantity() { return quantity; }
-        public double getPrice() { return price; }
-        public String getAccount() { return account; }
-        public String getExchange() { return exchange; }
-        public String getTimestamp() { return timestamp; }
+    public AdmissionController getAdmissionController() {
+        return admissionController;
     }
     
-    public static class OrderResponse {
-        private final String orderId;
-        private final String status;
-        private final String message;
-        
-        public OrderResponse(String orderId, String status, String message) {
-            this.orderId = orderId;
-            this.status = status;
-            this.message = message;
-        }
-        
-        public String toTcpString() {
-            return String.format("%s|%s|%s", orderId, status, message);
+    /** The order handling used by the listeners, for other transports that frame orders themselves. */
+    public OrderFrameHandler getFrameHandler() {
+        return this::processOrder;
+    }
+    
+    /** Serves orders on a Unix domain socket at {@code path} as well as the TCP port; call before {@link #start()}. */
+    public void setUnixSocketPath(Path path) {
+        this.unixSocketPath = path;
+    }
+    
+    /** The Unix domain socket being listened on, or {@code null} if there is none. */
+    public Path getUnixSocketPath() {
+        return unixServerChannel != null ? unixSocketPath : null;
+    }
+    
+    /** Connections accepted and refused by each listening socket since the last start. */
+    public AcceptorStatsResponse getAcceptorStats(AcceptorStatsRequest request) {
+        NioOrderServer nio = nioServer;
+        AtomicLongArray accepted = nio != null ? nio.getAcceptedConnections() : acceptedConnections;
+        AtomicLongArray refused = nio != null ? nio.getRefusedConnections() : refusedConnections;
+        AcceptorStatsResponse.Builder response = AcceptorStatsResponse.newBuilder()
+                .setReusePort(accepted.length() > 1);
+        for (int i = 0; i < accepted.length(); i++) {
+            response.addAcceptors(AcceptorStats.newBuilder()
+                    .setAcceptor(i)
+                    .setAcceptedConnections(accepted.get(i))
+                    .setRefusedConnections(refused.get(i))
+                    .build());
         }
-        
-        public com.example.orderreceiver.grpc.OrderResponse toGrpcOrderResponse() {
-            return com.example.orderreceiver.grpc.OrderResponse.newBuilder()
-                    .setOrderId(orderId)
-                    .setStatus(status)
-                    .setMessage(message)
-                    .build();
+        Path unixPath = getUnixSocketPath();
+        if (unixPath != null) {
+            response.setUdsPath(unixPath.toString())
+                    .setUdsAcceptedConnections(unixAcceptedConnections.get())
+                    .setUdsRefusedConnections(unixRefusedConnections.get());
         }
-        
-        public String getOrderId() { return orderId; }
-        public String getStatus() { return status; }
-        public String getMessage() { return message; }
+        return response.build();
     }
-} 
\ No newline at end of file
+}
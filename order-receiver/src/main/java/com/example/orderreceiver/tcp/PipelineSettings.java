@@ -0,0 +1,17 @@
+package com.example.orderreceiver.tcp;
+
+import com.example.orderreceiver.pipeline.WaitStrategy;
+
+/** Ring size and wait strategy for the staged NIO processing pipeline. */
+public final class PipelineSettings {
+    private final int ringSize;
+    private final WaitStrategy waitStrategy;
+
+    public PipelineSettings(int ringSize, WaitStrategy waitStrategy) {
+        this.ringSize = ringSize;
+        this.waitStrategy = waitStrategy;
+    }
+
+    public int ringSize() { return ringSize; }
+    public WaitStrategy waitStrategy() { return waitStrategy; }
+}
@@ -0,0 +1,113 @@
+package com.example.orderreceiver.tcp;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Connection state for the pipelined NIO path. Frames the inbound stream
+ * exactly like {@link OrderSession}, but instead of handling each frame inline
+ * copies it into the event loop's {@link OrderPipeline}. Only the handshake is
+ * interpreted here, because it changes how the following bytes are framed.
+ */
+final class PipelinedOrderSession {
+    private static final Logger logger = LoggerFactory.getLogger(PipelinedOrderSession.class);
+
+    private final OrderPipeline pipeline;
+    private final OrderPipeline.Outbox outbox;
+    private BinaryOrderCodec.Dictionary dictionary; // non-null once binary is negotiated
+    private boolean failed;
+
+    PipelinedOrderSession(OrderPipeline pipeline, OrderPipeline.Outbox outbox) {
+        this.pipeline = pipeline;
+        this.outbox = outbox;
+    }
+
+    /**
+     * Publishes every complete frame in {@code buffer[start, end)} and returns
+     * the index of the first byte not consumed. The caller makes the frames
+     * visible with {@link OrderPipeline#publishPending()}.
+     */
+    int process(byte[] buffer, int start, int end) {
+        while (!failed) {
+            int next = dictionary == null
+                    ? publishTextFrame(buffer, start, end)
+                    : publishBinaryFrame(buffer, start, end);
+            if (next < 0) {
+                break;
+            }
+            start = next;
+        }
+        return start;
+    }
+
+    /** {@code true} once no further input will be read; the pipeline closes the connection after its responses. */
+    boolean isFailed() {
+        return failed;
+    }
+
+    OrderPipeline.Outbox outbox() {
+        return outbox;
+    }
+
+    private int publishTextFrame(byte[] buffer, int start, int end) {
+        int lineEnd = OrderFrameDecoder.indexOfLineEnd(buffer, start, end);
+        if (lineEnd < 0) {
+            return -1;
+        }
+
+        if (OrderSession.isHello(buffer, start, lineEnd)) {
+            byte[] reply = BinaryOrderCodec.HELLO_DECLINED;
+            if (OrderSession.isBinaryHello(buffer, start, lineEnd)) {
+                reply = BinaryOrderCodec.HELLO_ACCEPTED;
+                dictionary = new BinaryOrderCodec.Dictionary();
+                logger.debug("Order connection switched to {}", BinaryOrderCodec.PROTOCOL_VERSION);
+            }
+            check(pipeline.publishControl(outbox, reply, false));
+        } else {
+            check(pipeline.publishOrder(outbox, OrderEvent.TEXT_ORDER, buffer, start, lineEnd - start, null));
+        }
+        return lineEnd + 1;
+    }
+
+    private int publishBinaryFrame(byte[] buffer, int start, int end) {
+        if (end - start < BinaryOrderCodec.LENGTH_PREFIX_BYTES) {
+            return -1;
+        }
+        int length = BinaryOrderCodec.frameLength(buffer, start);
+        if (length <= 0 || length > OrderSession.MAX_FRAME_BYTES - BinaryOrderCodec.LENGTH_PREFIX_BYTES) {
+            logger.warn("Invalid binary frame length {}, closing connection", length);
+            closeAfterResponses();
+            return -1;
+        }
+        if (!BinaryOrderCodec.hasCompleteFrame(buffer, start, end)) {
+            return -1;
+        }
+
+        int payload = start + BinaryOrderCodec.LENGTH_PREFIX_BYTES;
+        switch (buffer[payload]) {
+            case BinaryOrderCodec.TYPE_DEFINE:
+                check(pipeline.publishFrame(outbox, OrderEvent.BINARY_DEFINE, buffer, payload, length, dictionary));
+                break;
+            case BinaryOrderCodec.TYPE_ORDER:
+                check(pipeline.publishOrder(outbox, OrderEvent.BINARY_ORDER, buffer, payload, length, dictionary));
+                break;
+            default:
+                logger.warn("Unknown binary frame type {}, closing connection", buffer[payload]);
+                closeAfterResponses();
+                return -1;
+        }
+        return payload + length;
+    }
+
+    /** Stops reading and lets the pipeline close the connection once earlier responses are out. */
+    void closeAfterResponses() {
+        failed = true;
+        pipeline.publishControl(outbox, null, true);
+    }
+
+    private void check(boolean published) {
+        if (!published) {
+            failed = true; // pipeline halted
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.orderreceiver.tcp;
+
+import java.nio.ByteBuffer;
+
+/** Writes {@code orderId|status|message\n} response lines without building intermediate Strings. */
+public final class ResponseEncoder {
+    /** Upper bound on one encoded response, given frames are limited to the read buffer size. */
+    public static final int MAX_RESPONSE_BYTES = 2048;
+
+    private static final byte[] UNKNOWN_ORDER_ID = {'U', 'N', 'K', 'N', 'O', 'W', 'N'};
+
+    private ResponseEncoder() {
+    }
+
+    public static void encode(ByteBuffer out, OrderFrame frame, ResponseStatus status, byte[] message) {
+        if (frame.orderIdLength() > 0) {
+            out.put(frame.buffer(), frame.orderIdOffset(), frame.orderIdLength());
+        } else {
+            out.put(UNKNOWN_ORDER_ID);
+        }
+        out.put((byte) '|');
+        out.put(status.statusBytes());
+        out.put((byte) '|');
+        out.put(message);
+        out.put((byte) '\n');
+    }
+}
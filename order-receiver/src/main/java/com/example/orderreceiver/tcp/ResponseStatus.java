@@ -0,0 +1,31 @@
+package com.example.orderreceiver.tcp;
+
+import java.nio.charset.StandardCharsets;
+
+/** Response statuses written on the order wire, with their default messages pre-encoded. */
+public enum ResponseStatus {
+    FILLED(1, "Order filled successfully"),
+    REJECTED(2, "Order rejected by receiver"),
+    ERROR(3, "Invalid order message"),
+    BUSY(4, "Receiver busy, retry later"),
+    PARTIALLY_FILLED(5, "Order partially filled"),
+    RESTING(6, "Order resting on book");
+
+    private final byte wireCode;
+    private final byte[] statusBytes;
+    private final String defaultMessage;
+    private final byte[] defaultMessageBytes;
+
+    ResponseStatus(int wireCode, String defaultMessage) {
+        this.wireCode = (byte) wireCode;
+        this.statusBytes = name().getBytes(StandardCharsets.US_ASCII);
+        this.defaultMessage = defaultMessage;
+        this.defaultMessageBytes = defaultMessage.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /** Status code used by the binary protocol. */
+    public byte wireCode() { return wireCode; }
+    public byte[] statusBytes() { return statusBytes; }
+    public String defaultMessage() { return defaultMessage; }
+    public byte[] defaultMessageBytes() { return defaultMessageBytes; }
+}
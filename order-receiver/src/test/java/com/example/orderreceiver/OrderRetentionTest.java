@@ -0,0 +1,107 @@
+package com.example.orderreceiver;
+
+import com.example.orderreceiver.grpc.Order;
+import com.example.orderreceiver.grpc.OrderResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderRetentionTest {
+    private static final String[] SYMBOLS = {"AAPL", "MSFT", "GOOG", "AMZN", "TSLA", "NVDA", "META", "ORCL"};
+
+    private OrderManager orderManager;
+
+    @AfterEach
+    void tearDown() {
+        orderManager.shutdown();
+    }
+
+    @Test
+    void unlimitedRetentionKeepsEveryOrder() {
+        orderManager = new OrderManager(4);
+
+        recordOrders(5000, 0);
+
+        assertEquals(5000, orderManager.getOrderCount());
+        assertEquals(0, orderManager.getEvictedOrderCount());
+    }
+
+    @Test
+    void countLimitHoldsAcrossShardsWhenOneSymbolIsBusy() throws Exception {
+        orderManager = new OrderManager(4, new OrderRetention(1000, 0, 4));
+
+        // Nine in ten orders go to one symbol, so one shard does most of the evicting
+        recordOrders(20_000, 9);
+
+        int retained = orderManager.getOrderCount();
+        assertTrue(retained <= 1000, "retained " + retained);
+        assertTrue(retained >= 500, "retained " + retained);
+        assertEquals(20_000, retained + orderManager.getEvictedOrderCount());
+        assertEquals(retained, orderManager.getResponseCount());
+        assertEquals(retained, orderManager.getStatusCount("FILLED"));
+        assertNotNull(orderManager.findResponse("AAPL", "ORD-19998").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void resentOrderIdIsCountedOnce() {
+        orderManager = new OrderManager(1, new OrderRetention(1000, 0, 2));
+
+        orderManager.record(order("ORD-1", "AAPL"), response("ORD-1"));
+        orderManager.record(order("ORD-1", "AAPL"), response("ORD-1"));
+        orderManager.awaitProcessed();
+
+        assertEquals(1, orderManager.getOrderCount());
+        assertEquals(1, orderManager.getStatusCount("FILLED"));
+    }
+
+    @Test
+    void ageLimitEvictsOrdersOnceTheyAgeOut() throws Exception {
+        orderManager = new OrderManager(2, new OrderRetention(0, 200, 2));
+
+        recordOrders(100, 0);
+        assertEquals(100, orderManager.getOrderCount());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (orderManager.getOrderCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(0, orderManager.getOrderCount());
+        assertEquals(100, orderManager.getEvictedOrderCount());
+    }
+
+    /** Records {@code count} orders; {@code busyShare} in ten of them are for AAPL, the rest spread over all symbols. */
+    private void recordOrders(int count, int busyShare) {
+        for (int i = 0; i < count; i++) {
+            String symbol = i % 10 < busyShare ? "AAPL" : SYMBOLS[i % SYMBOLS.length];
+            orderManager.record(order("ORD-" + i, symbol), response("ORD-" + i));
+        }
+        orderManager.awaitProcessed();
+    }
+
+    private static Order order(String orderId, String symbol) {
+        return Order.newBuilder()
+                .setOrderId(orderId)
+                .setSymbol(symbol)
+                .setSide("BUY")
+                .setOrderQty(100)
+                .setPrice(150.25)
+                .setAccount("TRADER001")
+                .setExchange("NASDAQ")
+                .setTransactTime("20250101-09:30:00.000")
+                .build();
+    }
+
+    private static OrderResponse response(String orderId) {
+        return OrderResponse.newBuilder()
+                .setOrderId(orderId)
+                .setStatus("FILLED")
+                .setMessage("Order filled successfully")
+                .build();
+    }
+}
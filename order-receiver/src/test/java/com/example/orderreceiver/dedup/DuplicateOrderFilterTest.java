@@ -0,0 +1,126 @@
+package com.example.orderreceiver.dedup;
+
+import com.example.orderreceiver.OrderManager;
+import com.example.orderreceiver.grpc.Order;
+import com.example.orderreceiver.grpc.OrderResponse;
+import com.example.orderreceiver.tcp.ResponseStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DuplicateOrderFilterTest {
+    private static final long WINDOW_MILLIS = 60_000;
+
+    private final OrderManager orderManager = new OrderManager();
+
+    @AfterEach
+    void tearDown() {
+        orderManager.shutdown();
+    }
+
+    @Test
+    void retryOfADecidedOrderGetsTheOriginalStatus() {
+        DuplicateOrderFilter filter = filter(1000);
+
+        assertNull(filter.claim("AAPL", "ORD-1"));
+        filter.complete("ORD-1", ResponseStatus.REJECTED);
+
+        assertEquals(ResponseStatus.REJECTED, filter.claim("AAPL", "ORD-1"));
+        assertEquals(1, filter.getDuplicateCount());
+    }
+
+    @Test
+    void retryWhileTheOriginalIsUndecidedIsBusy() {
+        DuplicateOrderFilter filter = filter(1000);
+
+        assertNull(filter.claim("AAPL", "ORD-1"));
+
+        assertEquals(ResponseStatus.BUSY, filter.claim("AAPL", "ORD-1"));
+        filter.complete("ORD-1", ResponseStatus.FILLED);
+        assertEquals(ResponseStatus.FILLED, filter.claim("AAPL", "ORD-1"));
+    }
+
+    @Test
+    void abandonedClaimLetsTheRetryThrough() {
+        DuplicateOrderFilter filter = filter(1000);
+
+        assertNull(filter.claim("AAPL", "ORD-1"));
+        filter.complete("ORD-1", null);
+
+        assertNull(filter.claim("AAPL", "ORD-1"));
+    }
+
+    @Test
+    void seededOrderIsAnsweredWithItsStatus() {
+        DuplicateOrderFilter filter = filter(1000);
+
+        filter.seed("ORD-1", ResponseStatus.FILLED);
+
+        assertEquals(ResponseStatus.FILLED, filter.claim("AAPL", "ORD-1"));
+    }
+
+    @Test
+    void bloomMatchIsBusyUntilTheStoredResponseIsFound() {
+        DuplicateOrderFilter filter = filter(1);
+        assertNull(filter.claim("AAPL", "ORD-1"));
+        filter.complete("ORD-1", ResponseStatus.FILLED);
+        orderManager.record(order("ORD-1"), response("ORD-1", ResponseStatus.FILLED));
+        forgetExactIds(filter);
+
+        assertEquals(ResponseStatus.BUSY, filter.claim("AAPL", "ORD-1"));
+        orderManager.awaitProcessed();
+
+        assertEquals(ResponseStatus.FILLED, filter.claim("AAPL", "ORD-1"));
+        assertEquals(0, filter.getFalsePositiveCount());
+    }
+
+    @Test
+    void bloomMatchWithNoStoredResponseIsHandledAsNew() {
+        DuplicateOrderFilter filter = filter(1);
+        assertNull(filter.claim("AAPL", "ORD-1"));
+        filter.complete("ORD-1", ResponseStatus.FILLED);
+        forgetExactIds(filter);
+
+        assertEquals(ResponseStatus.BUSY, filter.claim("AAPL", "ORD-1"));
+        orderManager.awaitProcessed();
+
+        assertNull(filter.claim("AAPL", "ORD-1"));
+        assertEquals(1, filter.getFalsePositiveCount());
+        assertEquals(ResponseStatus.BUSY, filter.claim("AAPL", "ORD-1"));
+    }
+
+    /** With one id per exact generation, two more claims rotate earlier ids out to the Bloom filter alone. */
+    private static void forgetExactIds(DuplicateOrderFilter filter) {
+        for (String orderId : new String[]{"OTHER-1", "OTHER-2"}) {
+            filter.claim("MSFT", orderId);
+            filter.complete(orderId, ResponseStatus.FILLED);
+        }
+    }
+
+    private DuplicateOrderFilter filter(int maxRecentOrders) {
+        return new DuplicateOrderFilter(orderManager, WINDOW_MILLIS, maxRecentOrders, WINDOW_MILLIS, 1000);
+    }
+
+    private static Order order(String orderId) {
+        return Order.newBuilder()
+                .setOrderId(orderId)
+                .setSymbol("AAPL")
+                .setSide("BUY")
+                .setOrderQty(100)
+                .setPrice(150.25)
+                .setAccount("TRADER001")
+                .setExchange("NASDAQ")
+                .setTransactTime("20250101-09:30:00.000")
+                .build();
+    }
+
+    private static OrderResponse response(String orderId, ResponseStatus status) {
+        return OrderResponse.newBuilder()
+                .setOrderId(orderId)
+                .setStatus(status.name())
+                .setMessage(status.defaultMessage())
+                .build();
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.orderreceiver.journal;
+
+import com.example.orderreceiver.grpc.Order;
+import com.example.orderreceiver.grpc.OrderResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedOrderJournalTest {
+    private static final int SEGMENT_BYTES = 64 * 1024;
+    private static final int SEGMENT_HEADER_BYTES = 8;
+    private static final int RECORD_HEADER_BYTES = 8;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysEveryIntactRecordInOrder() throws IOException {
+        writeRecords(3);
+
+        List<String> replayed = replay();
+
+        assertEquals(List.of("ORD-1:STORED", "ORD-2:STORED", "ORD-3:STORED"), replayed);
+    }
+
+    @Test
+    void stopsAtARecordWhoseLengthRunsPastTheSegment() throws IOException {
+        writeRecords(3);
+
+        // A crash mid-append can leave a length whose payload never reached the file
+        try (FileChannel channel = FileChannel.open(firstSegment(), StandardOpenOption.WRITE)) {
+            channel.write(intBytes(SEGMENT_BYTES), offsetOfRecord(2));
+        }
+
+        assertEquals(List.of("ORD-1:STORED", "ORD-2:STORED"), replay());
+    }
+
+    @Test
+    void stopsAtARecordWithABadChecksum() throws IOException {
+        writeRecords(3);
+
+        try (FileChannel channel = FileChannel.open(firstSegment(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long payloadByte = offsetOfRecord(2) + RECORD_HEADER_BYTES + 6;
+            ByteBuffer oneByte = ByteBuffer.allocate(1);
+            channel.read(oneByte, payloadByte);
+            oneByte.put(0, (byte) (oneByte.get(0) ^ 0x5A)).rewind();
+            channel.write(oneByte, payloadByte);
+        }
+
+        assertEquals(List.of("ORD-1:STORED", "ORD-2:STORED"), replay());
+    }
+
+    @Test
+    void recordsAfterATornRecordInTheSameSegmentAreNotReplayed() throws IOException {
+        writeRecords(3);
+
+        try (FileChannel channel = FileChannel.open(firstSegment(), StandardOpenOption.WRITE)) {
+            channel.write(intBytes(1), offsetOfRecord(1));
+        }
+
+        assertEquals(List.of("ORD-1:STORED"), replay());
+    }
+
+    @Test
+    void recordLargerThanASegmentIsSkippedAndLaterOrdersStillAppend() throws IOException {
+        MappedOrderJournal journal = MappedOrderJournal.open(directory, SEGMENT_BYTES, 0, 100, 1);
+        try {
+            Order oversized = order(1).toBuilder().setAccount("X".repeat(SEGMENT_BYTES)).build();
+            assertEquals(-1, journal.append(oversized, response(1)));
+
+            long position = journal.append(order(2), response(2));
+            assertTrue(position > 0);
+            assertTrue(journal.awaitDurable(position));
+        } finally {
+            journal.close();
+        }
+
+        assertEquals(List.of("ORD-2:STORED"), replay());
+    }
+
+    private void writeRecords(int count) throws IOException {
+        MappedOrderJournal journal = MappedOrderJournal.open(directory, SEGMENT_BYTES, 0, 100, 1);
+        try {
+            long position = -1;
+            for (int i = 1; i <= count; i++) {
+                position = journal.append(order(i), response(i));
+            }
+            assertTrue(journal.awaitDurable(position));
+        } finally {
+            journal.close();
+        }
+    }
+
+    private List<String> replay() throws IOException {
+        List<String> replayed = new ArrayList<>();
+        MappedOrderJournal journal = MappedOrderJournal.open(directory, SEGMENT_BYTES, 0, 100, 1);
+        try {
+            long records = journal.replay((order, response) ->
+                    replayed.add(order.getOrderId() + ":" + response.getStatus()));
+            assertEquals(replayed.size(), records);
+        } finally {
+            journal.close();
+        }
+        return replayed;
+    }
+
+    private Path firstSegment() {
+        return directory.resolve(String.format("%016d%s", 1, MappedOrderJournal.SEGMENT_SUFFIX));
+    }
+
+    /** File offset of the zero-based {@code index}th record written by {@link #writeRecords}. */
+    private static long offsetOfRecord(int index) {
+        long offset = SEGMENT_HEADER_BYTES;
+        for (int i = 1; i <= index; i++) {
+            offset += RECORD_HEADER_BYTES + 4 + order(i).toByteArray().length + response(i).toByteArray().length;
+        }
+        return offset;
+    }
+
+    private static ByteBuffer intBytes(int value) {
+        return ByteBuffer.allocate(4).putInt(0, value);
+    }
+
+    private static Order order(int i) {
+        return Order.newBuilder()
+                .setOrderId("ORD-" + i)
+                .setSymbol("AAPL")
+                .setSide("BUY")
+                .setOrderQty(100 * i)
+                .setPrice(150.25)
+                .setAccount("TRADER001")
+                .setExchange("NASDAQ")
+                .setTransactTime("20250101-09:30:00.000")
+                .build();
+    }
+
+    private static OrderResponse response(int i) {
+        return OrderResponse.newBuilder()
+                .setOrderId("ORD-" + i)
+                .setStatus("STORED")
+                .setMessage("Order stored")
+                .build();
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.orderreceiver.matching;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderBookTest {
+    private final OrderBook book = new OrderBook("AAPL", 100);
+
+    @Test
+    void nonCrossingOrdersRest() {
+        assertEquals(MatchResult.RESTING, book.submit("B1", true, 99, 100));
+        assertEquals(MatchResult.RESTING, book.submit("S1", false, 101, 100));
+
+        assertEquals(99, book.bestBid());
+        assertEquals(101, book.bestAsk());
+        assertEquals(2, book.getRestingOrders());
+    }
+
+    @Test
+    void oldestOrderAtALevelTradesFirst() {
+        book.submit("S1", false, 100, 100);
+        book.submit("S2", false, 100, 30);
+
+        // FIFO takes 30 from S1 and leaves both resting; taking S2 first would empty it
+        assertEquals(MatchResult.FILLED, book.submit("B1", true, 100, 30));
+        assertEquals(2, book.getRestingOrders());
+
+        // The remaining 70 of S1 go next, leaving only S2
+        assertEquals(MatchResult.FILLED, book.submit("B2", true, 100, 70));
+        assertEquals(1, book.getRestingOrders());
+
+        assertEquals(MatchResult.PARTIALLY_FILLED, book.submit("B3", true, 100, 50));
+        assertEquals(100, book.bestBid());
+        assertEquals(Long.MAX_VALUE, book.bestAsk());
+    }
+
+    @Test
+    void partialFillWalksLevelsUpToTheLimitAndRestsTheRemainder() {
+        book.submit("S1", false, 10, 100);
+        book.submit("S2", false, 11, 100);
+        book.submit("S3", false, 12, 100);
+
+        assertEquals(MatchResult.PARTIALLY_FILLED, book.submit("B1", true, 11, 250));
+
+        assertEquals(11, book.bestBid());
+        assertEquals(12, book.bestAsk());
+        assertEquals(2, book.getRestingOrders());
+
+        // 50 rest at 11: a sell of 60 at 11 fills 50 and rests 10
+        assertEquals(MatchResult.PARTIALLY_FILLED, book.submit("S4", false, 11, 60));
+        assertEquals(Long.MIN_VALUE, book.bestBid());
+        assertEquals(11, book.bestAsk());
+    }
+
+    @Test
+    void bestLevelTradesFirstOnBothSides() {
+        book.submit("B1", true, 98, 10);
+        book.submit("B2", true, 100, 10);
+        book.submit("B3", true, 99, 10);
+
+        assertEquals(MatchResult.FILLED, book.submit("S1", false, 95, 10));
+        assertEquals(99, book.bestBid());
+        assertEquals(MatchResult.FILLED, book.submit("S2", false, 95, 10));
+        assertEquals(98, book.bestBid());
+    }
+
+    @Test
+    void fullBookRefusesNewRestingOrders() {
+        OrderBook small = new OrderBook("MSFT", 2);
+        assertEquals(MatchResult.RESTING, small.submit("B1", true, 10, 100));
+        assertEquals(MatchResult.RESTING, small.submit("B2", true, 9, 100));
+
+        assertEquals(MatchResult.BOOK_FULL, small.submit("B3", true, 8, 100));
+        assertEquals(2, small.getRestingOrders());
+
+        // Only B1 and B2 are there to trade; B3 was not added
+        assertEquals(MatchResult.FILLED, small.submit("S1", false, 8, 200));
+        assertEquals(Long.MIN_VALUE, small.bestBid());
+    }
+
+    @Test
+    void tradingFreesRoomInAFullBook() {
+        OrderBook small = new OrderBook("MSFT", 2);
+        small.submit("B1", true, 10, 100);
+        small.submit("B2", true, 9, 100);
+
+        // Both bids trade away, so the remainder can rest
+        assertEquals(MatchResult.PARTIALLY_FILLED, small.submit("S1", false, 9, 300));
+        assertEquals(1, small.getRestingOrders());
+        assertEquals(9, small.bestAsk());
+        assertEquals(Long.MIN_VALUE, small.bestBid());
+    }
+
+    @Test
+    void recycledLevelsAndOrdersStartEmpty() {
+        for (int round = 0; round < 1_000; round++) {
+            long price = 100 + round % 7;
+            assertEquals(MatchResult.RESTING, book.submit("S" + round, false, price, 100));
+            assertEquals(MatchResult.RESTING, book.submit("T" + round, false, price, 40));
+            // Empties the level and frees both nodes
+            assertEquals(MatchResult.FILLED, book.submit("B" + round, true, price, 140));
+            assertEquals(0, book.getRestingOrders());
+            assertEquals(Long.MAX_VALUE, book.bestAsk());
+        }
+
+        // A recycled level must not carry quantity or orders from an earlier use
+        assertEquals(MatchResult.RESTING, book.submit("S", false, 103, 30));
+        assertEquals(MatchResult.PARTIALLY_FILLED, book.submit("B", true, 103, 50));
+        assertEquals(1, book.getRestingOrders());
+        assertEquals(103, book.bestBid());
+        assertEquals(Long.MAX_VALUE, book.bestAsk());
+    }
+
+    @Test
+    void manyLevelsStaySorted() {
+        for (int i = 0; i < 200; i++) {
+            book.submit("S" + i, false, 1_000 + (i * 37) % 200, 1);
+            if (book.getRestingOrders() == 100) {
+                break;
+            }
+        }
+        long previous = Long.MIN_VALUE;
+        while (book.bestAsk() != Long.MAX_VALUE) {
+            long best = book.bestAsk();
+            assertTrue(best >= previous, "asks must come out in ascending price order");
+            previous = best;
+            book.submit("B", true, best, 1);
+        }
+        assertEquals(0, book.getRestingOrders());
+    }
+}
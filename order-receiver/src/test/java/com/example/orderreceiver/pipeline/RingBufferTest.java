@@ -0,0 +1,109 @@
+package com.example.orderreceiver.pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RingBufferTest {
+
+    /** One mutable slot, filled by the producer and then by each stage in turn. */
+    private static final class Slot {
+        long value;
+        long doubled;
+    }
+
+    @Test
+    void sizeMustBeAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<>(Slot::new, 6, new YieldingWaitStrategy()));
+    }
+
+    @Test
+    void slotsAreReusedAroundTheRing() {
+        RingBuffer<Slot> ring = new RingBuffer<>(Slot::new, 4, new YieldingWaitStrategy());
+
+        assertSame(ring.get(1), ring.get(5));
+    }
+
+    @Test
+    void tryNextStopsAtTheGatingSequenceAndPublishesWhatWasClaimed() {
+        RingBuffer<Slot> ring = new RingBuffer<>(Slot::new, 4, new YieldingWaitStrategy());
+        Sequence consumed = new Sequence(-1);
+        ring.setGatingSequence(consumed);
+
+        for (long expected = 0; expected < 4; expected++) {
+            assertEquals(expected, ring.tryNext());
+        }
+        assertEquals(-1, ring.tryNext());
+        assertEquals(3, ring.getCursor().get());
+
+        consumed.set(1);
+        assertEquals(4, ring.tryNext());
+        assertEquals(5, ring.tryNext());
+        assertEquals(-1, ring.tryNext());
+    }
+
+    @Test
+    void haltReleasesAProducerWaitingForSpace() throws Exception {
+        RingBuffer<Slot> ring = new RingBuffer<>(Slot::new, 2, new ParkingWaitStrategy());
+        ring.setGatingSequence(new Sequence(-1));
+        ring.next();
+        ring.next();
+
+        CompletableFuture<Long> blocked = CompletableFuture.supplyAsync(ring::next);
+        Thread.sleep(50);
+        ring.halt();
+
+        assertEquals(-1, (long) blocked.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void stagesSeeEveryEventInOrderAfterTheStageBeforeThem() throws Exception {
+        int events = 10_000;
+        WaitStrategy waitStrategy = new YieldingWaitStrategy();
+        RingBuffer<Slot> ring = new RingBuffer<>(Slot::new, 8, waitStrategy);
+        List<Long> seen = new ArrayList<>();
+        int[] batchEnds = new int[1];
+        BatchEventProcessor<Slot> doubler = new BatchEventProcessor<>("double", ring, ring.getCursor(),
+                (slot, sequence, endOfBatch) -> slot.doubled = slot.value * 2, waitStrategy);
+        BatchEventProcessor<Slot> collector = new BatchEventProcessor<>("collect", ring, doubler.getSequence(),
+                (slot, sequence, endOfBatch) -> {
+                    seen.add(slot.doubled);
+                    if (endOfBatch) {
+                        batchEnds[0]++;
+                    }
+                }, waitStrategy);
+        ring.setGatingSequence(collector.getSequence());
+        Thread doublerThread = new Thread(doubler);
+        Thread collectorThread = new Thread(collector);
+        doublerThread.start();
+        collectorThread.start();
+
+        for (int i = 0; i < events; i++) {
+            long sequence = ring.next();
+            ring.get(sequence).value = i;
+            ring.publish(sequence);
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (collector.getSequence().get() < events - 1 && System.nanoTime() < deadline) {
+            Thread.yield();
+        }
+        doubler.halt();
+        collector.halt();
+        doublerThread.join();
+        collectorThread.join();
+
+        assertEquals(events, seen.size());
+        for (int i = 0; i < events; i++) {
+            assertEquals(2L * i, (long) seen.get(i));
+        }
+        assertTrue(batchEnds[0] > 0 && batchEnds[0] <= events);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.orderreceiver.tcp;
+
+import com.example.orderreceiver.tcp.OrderFrameDecoder.Result;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderFrameDecoderTest {
+    private static final String ORDER = "ORDER|ORD-1|AAPL|BUY|100|150.25|TRADER001|NASDAQ|20250101-09:30:00.000";
+
+    private final OrderFrame frame = new OrderFrame();
+
+    @Test
+    void decodesEveryField() {
+        assertEquals(Result.OK, decode(ORDER));
+
+        assertEquals("ORD-1", orderId());
+        assertTrue(frame.isBuy());
+        assertEquals(100, frame.quantity());
+        assertEquals(1_502_500, frame.price());
+    }
+
+    @Test
+    void decodesAFrameInsideALargerBuffer() {
+        byte[] buffer = ("junk" + ORDER.replace("BUY", "SELL") + "\r\nnext").getBytes(StandardCharsets.US_ASCII);
+        int end = OrderFrameDecoder.indexOfLineEnd(buffer, 4, buffer.length);
+
+        assertEquals(Result.OK, OrderFrameDecoder.decode(buffer, 4, end - 4, frame));
+
+        assertEquals("ORD-1", orderId());
+        assertFalse(frame.isBuy());
+    }
+
+    @Test
+    void indexOfLineEndIsMinusOneWithoutANewline() {
+        byte[] buffer = ORDER.getBytes(StandardCharsets.US_ASCII);
+
+        assertEquals(-1, OrderFrameDecoder.indexOfLineEnd(buffer, 0, buffer.length));
+    }
+
+    @Test
+    void rejectsOtherMessages() {
+        assertEquals(Result.NOT_AN_ORDER, decode("CANCEL|ORD-1"));
+        assertEquals(Result.NOT_AN_ORDER, decode(""));
+    }
+
+    @Test
+    void rejectsMissingFields() {
+        assertEquals(Result.MISSING_FIELDS, decode("ORDER|ORD-1|AAPL|BUY|100|150.25|TRADER001|NASDAQ"));
+        assertEquals(Result.MISSING_FIELDS, decode("ORDER|ORD-1|AAPL|BUY|100|150.25|TRADER001|NASDAQ|"));
+        assertEquals(Result.MISSING_FIELDS, decode("ORDER|ORD-1"));
+    }
+
+    @Test
+    void rejectsABadSide() {
+        assertEquals(Result.INVALID_SIDE, decode(ORDER.replace("BUY", "buy")));
+    }
+
+    @Test
+    void rejectsABadQuantity() {
+        assertEquals(Result.INVALID_QUANTITY, decode(ORDER.replace("|100|", "|0|")));
+        assertEquals(Result.INVALID_QUANTITY, decode(ORDER.replace("|100|", "|-5|")));
+        assertEquals(Result.INVALID_QUANTITY, decode(ORDER.replace("|100|", "|1000000000|")));
+        assertEquals(Result.INVALID_QUANTITY, decode(ORDER.replace("|100|", "||")));
+    }
+
+    @Test
+    void rejectsABadPrice() {
+        assertEquals(Result.INVALID_PRICE, decode(ORDER.replace("150.25", "1.2.3")));
+        assertEquals(Result.INVALID_PRICE, decode(ORDER.replace("150.25", ".")));
+        assertEquals(Result.INVALID_PRICE, decode(ORDER.replace("150.25", "abc")));
+        assertEquals(Result.INVALID_PRICE, decode(ORDER.replace("150.25", "99999999999999999")));
+    }
+
+    @Test
+    void truncatesPriceDigitsPastTheFourthDecimal() {
+        assertEquals(Result.OK, decode(ORDER.replace("150.25", "150.123456")));
+        assertEquals(1_501_234, frame.price());
+
+        assertEquals(Result.OK, decode(ORDER.replace("150.25", "7")));
+        assertEquals(70_000, frame.price());
+    }
+
+    @Test
+    void failedFrameKeepsTheOrderIdForTheErrorResponse() {
+        assertEquals(Result.INVALID_PRICE, decode(ORDER.replace("150.25", "abc")));
+
+        assertEquals("ORD-1", orderId());
+    }
+
+    @Test
+    void reusedFrameDoesNotKeepFieldsOfThePreviousOrder() {
+        assertEquals(Result.OK, decode(ORDER));
+
+        assertEquals(Result.MISSING_FIELDS, decode("ORDER|ORD-2|AAPL"));
+
+        assertFalse(frame.isBuy());
+        assertEquals(0, frame.quantity());
+        assertEquals(0, frame.price());
+    }
+
+    private Result decode(String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.US_ASCII);
+        return OrderFrameDecoder.decode(bytes, 0, bytes.length, frame);
+    }
+
+    private String orderId() {
+        return new String(frame.buffer(), frame.orderIdOffset(), frame.orderIdLength(), StandardCharsets.US_ASCII);
+    }
+}
@@ -2,6 +2,7 @@ plugins {
     id("java")
     id("application")
     id("com.google.protobuf") version "0.9.4"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.example"
@@ -27,8 +28,12 @@ dependencies {
     // Logging
     implementation("ch.qos.logback:logback-classic:1.4.11")
     
+    // Latency histograms for load generation
+    implementation("org.hdrhistogram:HdrHistogram:2.1.12")
+    
     // Testing
     testImplementation("org.junit.jupiter:junit-jupiter:5.9.2")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 protobuf {
     protoc {
@@ -57,7 +62,16 @@ tasks.test {
     useJUnitPlatform()
 }
 
+// Benchmarks live in src/jmh/java; run with ./gradlew :order-sender:jmh
+jmh {
+    warmupIterations.set(2)
+    iterations.set(5)
+    fork.set(1)
+    profilers.set(listOf("gc"))
+}
+
 java {
-    sourceCompatibility = JavaVersion.VERSION_11
-    targetCompatibility = JavaVersion.VERSION_11
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    }
 } 
\ No newline at end of file
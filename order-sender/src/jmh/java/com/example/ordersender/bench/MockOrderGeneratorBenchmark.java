@@ -0,0 +1,65 @@
+package com.example.ordersender.bench;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.ordersender.sender.MockOrderGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building one mock order wire line with {@link MockOrderGenerator},
+ * against the {@code String.format} and {@code DateTimeFormatter} code it
+ * replaced. Runs with the gc profiler: {@code gc.alloc.rate.norm} for
+ * {@code generator} should be 0 B/op.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MockOrderGeneratorBenchmark {
+    private static final String[] SYMBOLS = {"AAPL", "MSFT", "GOOGL", "AMZN", "TSLA"};
+    private static final String[] ACCOUNTS = {"TRADER001", "TRADER002", "TRADER003", "TRADER004", "TRADER005"};
+    private static final String[] EXCHANGES = {"NASDAQ", "NYSE", "ARCA", "BATS", "EDGX"};
+
+    private final Random random = new Random();
+    private MockOrderGenerator generator;
+    private int counter;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        generator = new MockOrderGenerator();
+    }
+
+    @Benchmark
+    public int generator() {
+        return generator.next();
+    }
+
+    /** The previous per-order formatting, for comparison. */
+    @Benchmark
+    public String stringFormat() {
+        String orderId = "SENDER-" + String.format("%06d", ++counter);
+        LocalDateTime now = LocalDateTime.now();
+        return String.format("ORDER|%s|%s|%s|%d|%.2f|%s|%s|%s",
+                orderId,
+                SYMBOLS[random.nextInt(SYMBOLS.length)],
+                random.nextBoolean() ? "BUY" : "SELL",
+                random.nextInt(1000) + 100,
+                random.nextDouble() * 500 + 50,
+                ACCOUNTS[random.nextInt(ACCOUNTS.length)],
+                EXCHANGES[random.nextInt(EXCHANGES.length)],
+                now.format(DateTimeFormatter.ofPattern("yyyyMMdd-HH:mm:ss.SSS")));
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.ordersender.sender;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.ordersender.consul.ConsulServiceDiscovery.ReceiverInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One text order round trip over a {@link ReceiverConnection} to a loopback
+ * server that answers every line with a fixed FILLED response. {@code generatorLine}
+ * writes {@link MockOrderGenerator#line()} straight to the socket, as the send
+ * path does; {@code orderMessage} first copies it into an {@link OrderSender.OrderMessage},
+ * as {@code sendOrder} does. Runs with the gc profiler. Writing the order
+ * allocates nothing, so {@code gc.alloc.rate.norm} for {@code generatorLine} is
+ * the cost of reading the response line.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TextSendPathBenchmark {
+    private static final byte[] RESPONSE = "X|FILLED|Order filled successfully\n".getBytes(StandardCharsets.US_ASCII);
+
+    private ServerSocket server;
+    private ReceiverConnection connection;
+    private MockOrderGenerator generator;
+
+    @Setup
+    public void setUp() throws IOException {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        server = new ServerSocket(0);
+        Thread responder = new Thread(this::answerLines, "bench-receiver");
+        responder.setDaemon(true);
+        responder.start();
+        connection = ReceiverConnection.open(
+                new ReceiverInfo("bench", "order-receiver", "127.0.0.1", server.getLocalPort(), null), 5000);
+        generator = MockOrderGenerator.forSender("bench-sender");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        connection.close();
+        server.close();
+    }
+
+    @Benchmark
+    public String generatorLine() throws IOException {
+        generator.next();
+        return connection.exchangeText(generator.line(), generator.length());
+    }
+
+    @Benchmark
+    public String orderMessage() throws IOException {
+        generator.next();
+        byte[] line = generator.toOrderMessage().wireLine();
+        return connection.exchangeText(line, line.length);
+    }
+
+    private void answerLines() {
+        try (Socket socket = server.accept()) {
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            int b;
+            while ((b = in.read()) >= 0) {
+                if (b == '\n') {
+                    out.write(RESPONSE);
+                    if (in.available() == 0) {
+                        out.flush();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // connection closed at tear down
+        }
+    }
+}
@@ -140,7 +140,8 @@ public class OrderManager {
                     "GetOrderResponse",
                     "ListAllOrderResponses",
                     "ListFilledOrderResponses",
-                    "ListRejectedOrderResponses"
+                    "ListRejectedOrderResponses",
+                    "GetCircuitBreakerStats"
                 ))
                 .build();
     }
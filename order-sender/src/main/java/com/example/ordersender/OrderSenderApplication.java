@@ -3,13 +3,23 @@ package com.example.ordersender;
 import com.example.ordersender.admin.AdminServer;
 import com.example.ordersender.consul.ConsulRegistration;
 import com.example.ordersender.consul.ConsulServiceDiscovery;
+import com.example.ordersender.load.LoadGenerator;
+import com.example.ordersender.routing.ReceiverSelector;
 import com.example.ordersender.sender.OrderSender;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public class OrderSenderApplication {
     private static final Logger logger = LoggerFactory.getLogger(OrderSenderApplication.class);
@@ -20,6 +30,8 @@ public class OrderSenderApplication {
     private final AdminServer adminServer;
     private final OrderManager orderManager;
     private final ScheduledExecutorService scheduler;
+    private final ExecutorService sendExecutor;
+    private final ReceiverSelector receiverSelector;
     
     public OrderSenderApplication() {
         // Print configuration at startup
@@ -44,6 +56,9 @@ public class OrderSenderApplication {
         this.orderSender = new OrderSender(orderManager);
         this.adminServer = new AdminServer(SenderConfig.ADMIN_PORT, this);
         this.scheduler = Executors.newScheduledThreadPool(1);
+        this.sendExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("order-send-", 0).factory());
+        this.receiverSelector = "broadcast".equalsIgnoreCase(SenderConfig.ORDER_ROUTING)
+                ? null : ReceiverSelector.fromName(SenderConfig.ORDER_ROUTING, orderSender.getReceiverStats());
     }
     
     public void start() {
@@ -54,12 +69,18 @@ public class OrderSenderApplication {
             consulRegistration.register();
             logger.info("Registered with Consul");
             
+            // Watch receivers; connections to receivers that disappear are closed right away
+            serviceDiscovery.addListener(orderSender::retainReceivers);
+            serviceDiscovery.start();
+            
             // Start admin server
             adminServer.start();
             logger.info("Admin server started on port {}", SenderConfig.ADMIN_PORT);
             
-            // Start mock order sending if enabled
-            if (SenderConfig.MOCK_ORDER_ENABLED) {
+            // Start load generation or mock order sending if enabled
+            if (SenderConfig.LOAD_MODE_ENABLED) {
+                startLoadGeneration();
+            } else if (SenderConfig.MOCK_ORDER_ENABLED) {
                 startMockOrderSending();
             }
             
@@ -89,6 +110,7 @@ public class OrderSenderApplication {
     }
     
     private void startMockOrderSending() {
+        long deadlineMs = mockOrderDeadlineMs();
         scheduler.scheduleAtFixedRate(() -> {
             try {
                 // Discover available receivers
@@ -101,20 +123,35 @@ public class OrderSenderApplication {
                 
                 logger.info("Found {} receivers, sending mock order", receivers.size());
                 
-                // Send order to each receiver (excluding excluded ones)
+                List<ConsulServiceDiscovery.ReceiverInfo> eligible = new ArrayList<>();
                 for (var receiver : receivers) {
                     if (orderManager.isReceiverExcluded(receiver.getServiceId())) {
                         logger.info("Skipping excluded receiver: {}", receiver.getServiceId());
                         continue;
                     }
-                    
-                    try {
+                    if (receiverSelector != null && !orderSender.isAvailable(receiver)) {
+                        logger.info("Skipping receiver with open circuit breaker: {}", receiver.getServiceId());
+                        continue;
+                    }
+                    eligible.add(receiver);
+                }
+                if (eligible.isEmpty()) {
+                    return;
+                }
+                
+                // Send order to each receiver concurrently, or as many orders routed by the selector
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+                Map<String, Future<?>> sends = new LinkedHashMap<>();
+                for (int i = 0; i < eligible.size(); i++) {
+                    var broadcastTo = receiverSelector == null ? eligible.get(i) : null;
+                    String label = broadcastTo != null ? "Receiver " + broadcastTo.getServiceId() : "Routed order " + (i + 1);
+                    sends.put(label, sendExecutor.submit(() -> {
+                        var receiver = broadcastTo != null ? broadcastTo : receiverSelector.select(eligible);
                         var response = orderSender.sendOrder(receiver);
                         logger.info("Order sent to {}: {}", receiver.getServiceId(), response);
-                    } catch (Exception e) {
-                        logger.error("Failed to send order to {}: {}", receiver.getServiceId(), e.getMessage());
-                    }
+                    }));
                 }
+                awaitSends(sends, deadline, deadlineMs);
                 
             } catch (Exception e) {
                 logger.error("Error in mock order sending cycle", e);
@@ -122,11 +159,77 @@ public class OrderSenderApplication {
         }, SenderConfig.MOCK_ORDER_INITIAL_DELAY, SenderConfig.MOCK_ORDER_INTERVAL, TimeUnit.SECONDS);
     }
     
+    /** Runs {@code LOAD_RUNS} open-loop load runs against the receivers discovered before each run. */
+    private void startLoadGeneration() {
+        LoadGenerator loadGenerator = new LoadGenerator(orderSender, SenderConfig.LOAD_RATE,
+                SenderConfig.LOAD_WARMUP_SECONDS, SenderConfig.LOAD_DURATION_SECONDS, SenderConfig.TCP_TIMEOUT_MS);
+        scheduler.schedule(() -> {
+            try {
+                for (int run = 1; run <= SenderConfig.LOAD_RUNS; run++) {
+                    var receivers = new ArrayList<>(serviceDiscovery.discoverReceivers());
+                    receivers.removeIf(receiver -> orderManager.isReceiverExcluded(receiver.getServiceId()));
+                    if (receivers.isEmpty()) {
+                        logger.warn("No receivers found in Consul - skipping load run {}", run);
+                        continue;
+                    }
+                    logger.info("Starting load run {} of {}", run, SenderConfig.LOAD_RUNS);
+                    loadGenerator.run(receivers);
+                }
+                logger.info("Load generation finished");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.error("Error in load generation", e);
+            }
+        }, SenderConfig.MOCK_ORDER_INITIAL_DELAY, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * How long each send of a mock order cycle may take: {@code MOCK_ORDER_DEADLINE_MS},
+     * or by default as long as {@code sendOrder} can take with its timeouts and
+     * retries. A shorter deadline would interrupt sends that were still within
+     * them, so it is rejected.
+     */
+    private static long mockOrderDeadlineMs() {
+        long sendTimeoutMs = SenderConfig.sendOrderTimeoutMs();
+        if (SenderConfig.MOCK_ORDER_DEADLINE_MS <= 0) {
+            return sendTimeoutMs;
+        }
+        if (SenderConfig.MOCK_ORDER_DEADLINE_MS < sendTimeoutMs) {
+            throw new IllegalArgumentException("MOCK_ORDER_DEADLINE_MS " + SenderConfig.MOCK_ORDER_DEADLINE_MS
+                    + " is shorter than the " + sendTimeoutMs + "ms a send may take with TCP_TIMEOUT_MS "
+                    + SenderConfig.TCP_TIMEOUT_MS + " and TCP_RETRY_ATTEMPTS " + SenderConfig.TCP_RETRY_ATTEMPTS);
+        }
+        return SenderConfig.MOCK_ORDER_DEADLINE_MS;
+    }
+    
+    /**
+     * Waits for each send until its deadline. A receiver that misses it has
+     * its send interrupted, which closes the connection, so it cannot hold a
+     * thread into the next cycle.
+     */
+    private void awaitSends(Map<String, Future<?>> sends, long deadline, long deadlineMs) throws InterruptedException {
+        for (var entry : sends.entrySet()) {
+            String label = entry.getKey();
+            try {
+                entry.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                entry.getValue().cancel(true);
+                logger.warn("{} missed the {}ms send deadline", label, deadlineMs);
+            } catch (ExecutionException e) {
+                logger.error("{} failed: {}", label, e.getCause().getMessage());
+            }
+        }
+    }
+    
     public void shutdown() {
         logger.info("Shutting down Order Sender...");
         
         try {
             scheduler.shutdown();
+            sendExecutor.shutdownNow();
+            serviceDiscovery.stop();
+            orderSender.shutdown();
             adminServer.shutdown();
             consulRegistration.deregister();
             consulRegistration.close();
@@ -141,6 +244,10 @@ public class OrderSenderApplication {
         return orderManager;
     }
     
+    public OrderSender getOrderSender() {
+        return orderSender;
+    }
+    
     public static void main(String[] args) {
         OrderSenderApplication app = new OrderSenderApplication();
         app.run();
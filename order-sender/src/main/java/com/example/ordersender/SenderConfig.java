@@ -26,10 +26,50 @@ public class SenderConfig {
     public static final int MOCK_ORDER_INITIAL_DELAY = getEnvAsInt("MOCK_ORDER_INITIAL_DELAY", 5);
     public static final int MOCK_ORDER_INTERVAL = getEnvAsInt("MOCK_ORDER_INTERVAL", 15);
     public static final boolean MOCK_ORDER_ENABLED = getEnvAsBoolean("MOCK_ORDER_ENABLED", true);
+    public static final int MOCK_ORDER_DEADLINE_MS = getEnvAsInt("MOCK_ORDER_DEADLINE_MS", 0); // 0 = sendOrderTimeoutMs()
+    public static final String ORDER_ROUTING = getEnv("ORDER_ROUTING", "broadcast"); // broadcast | round-robin | least-outstanding | ewma | power-of-two
+    
+    // Open-loop load generation (replaces mock orders when enabled)
+    public static final boolean LOAD_MODE_ENABLED = getEnvAsBoolean("LOAD_MODE_ENABLED", false);
+    public static final int LOAD_RATE = getEnvAsInt("LOAD_RATE", 1000);
+    public static final int LOAD_WARMUP_SECONDS = getEnvAsInt("LOAD_WARMUP_SECONDS", 5);
+    public static final int LOAD_DURATION_SECONDS = getEnvAsInt("LOAD_DURATION_SECONDS", 30);
+    public static final int LOAD_RUNS = getEnvAsInt("LOAD_RUNS", 1);
     
     // TCP Configuration
     public static final int TCP_TIMEOUT_MS = getEnvAsInt("TCP_TIMEOUT_MS", 5000);
     public static final int TCP_RETRY_ATTEMPTS = getEnvAsInt("TCP_RETRY_ATTEMPTS", 3);
+    public static final String WIRE_FORMAT = getEnv("WIRE_FORMAT", "text"); // text | binary
+    public static final int TCP_POOL_MAX_IDLE = getEnvAsInt("TCP_POOL_MAX_IDLE", 4);
+    public static final int TCP_POOL_IDLE_TIMEOUT_MS = getEnvAsInt("TCP_POOL_IDLE_TIMEOUT_MS", 60000);
+    public static final int TCP_MAX_IN_FLIGHT = getEnvAsInt("TCP_MAX_IN_FLIGHT", 64);
+    public static final int RETRY_BACKOFF_MS = getEnvAsInt("RETRY_BACKOFF_MS", 100);
+    public static final int RETRY_BUDGET_PERCENT = getEnvAsInt("RETRY_BUDGET_PERCENT", 20);
+    
+    // Per-receiver circuit breaker
+    public static final boolean CIRCUIT_BREAKER_ENABLED = getEnvAsBoolean("CIRCUIT_BREAKER_ENABLED", true);
+    public static final int CIRCUIT_BREAKER_FAILURE_RATE = getEnvAsInt("CIRCUIT_BREAKER_FAILURE_RATE", 50);
+    public static final int CIRCUIT_BREAKER_SLOW_CALL_RATE = getEnvAsInt("CIRCUIT_BREAKER_SLOW_CALL_RATE", 80);
+    public static final int CIRCUIT_BREAKER_SLOW_CALL_MS = getEnvAsInt("CIRCUIT_BREAKER_SLOW_CALL_MS", 1000);
+    public static final int CIRCUIT_BREAKER_WINDOW = getEnvAsInt("CIRCUIT_BREAKER_WINDOW", 10);
+    public static final int CIRCUIT_BREAKER_MIN_CALLS = getEnvAsInt("CIRCUIT_BREAKER_MIN_CALLS", 5);
+    public static final int CIRCUIT_BREAKER_OPEN_MS = getEnvAsInt("CIRCUIT_BREAKER_OPEN_MS", 30000);
+    public static final int CIRCUIT_BREAKER_HALF_OPEN_CALLS = getEnvAsInt("CIRCUIT_BREAKER_HALF_OPEN_CALLS", 3);
+    
+    // Shared-memory IPC with receivers on the same host
+    public static final boolean IPC_ENABLED = getEnvAsBoolean("IPC_ENABLED", true);
+    
+    /**
+     * The longest {@code sendOrder} can take on its own: every attempt waiting
+     * out a connect and a response timeout, plus the backoff between attempts.
+     */
+    public static long sendOrderTimeoutMs() {
+        long backoff = 0;
+        for (int attempt = 0; attempt < TCP_RETRY_ATTEMPTS; attempt++) {
+            backoff += (long) RETRY_BACKOFF_MS << Math.min(attempt, 10);
+        }
+        return (TCP_RETRY_ATTEMPTS + 1L) * 2 * TCP_TIMEOUT_MS + backoff;
+    }
     
     private static String getEnv(String key, String defaultValue) {
         String value = System.getenv(key);
@@ -79,8 +119,28 @@ public class SenderConfig {
         logger.info("Mock Order Enabled: {}", MOCK_ORDER_ENABLED);
         logger.info("Mock Order Initial Delay: {}", MOCK_ORDER_INITIAL_DELAY);
         logger.info("Mock Order Interval: {}", MOCK_ORDER_INTERVAL);
+        logger.info("Mock Order Deadline: {}ms", MOCK_ORDER_DEADLINE_MS > 0 ? MOCK_ORDER_DEADLINE_MS : sendOrderTimeoutMs());
+        logger.info("Order Routing: {}", ORDER_ROUTING);
+        logger.info("Load Mode Enabled: {}", LOAD_MODE_ENABLED);
+        logger.info("Load Rate: {} orders/s per receiver", LOAD_RATE);
+        logger.info("Load Warmup: {}s", LOAD_WARMUP_SECONDS);
+        logger.info("Load Duration: {}s", LOAD_DURATION_SECONDS);
+        logger.info("Load Runs: {}", LOAD_RUNS);
         logger.info("TCP Timeout: {}ms", TCP_TIMEOUT_MS);
         logger.info("TCP Retry Attempts: {}", TCP_RETRY_ATTEMPTS);
+        logger.info("Wire Format: {}", WIRE_FORMAT);
+        logger.info("TCP Pool Max Idle: {}", TCP_POOL_MAX_IDLE);
+        logger.info("TCP Pool Idle Timeout: {}ms", TCP_POOL_IDLE_TIMEOUT_MS);
+        logger.info("TCP Max In Flight: {}", TCP_MAX_IN_FLIGHT);
+        logger.info("Retry Backoff: {}ms", RETRY_BACKOFF_MS);
+        logger.info("Retry Budget: {}% of orders", RETRY_BUDGET_PERCENT);
+        logger.info("Circuit Breaker Enabled: {}", CIRCUIT_BREAKER_ENABLED);
+        logger.info("Circuit Breaker Failure Rate: {}%", CIRCUIT_BREAKER_FAILURE_RATE);
+        logger.info("Circuit Breaker Slow Call Rate: {}% over {}ms", CIRCUIT_BREAKER_SLOW_CALL_RATE, CIRCUIT_BREAKER_SLOW_CALL_MS);
+        logger.info("Circuit Breaker Window: {} calls, minimum {}", CIRCUIT_BREAKER_WINDOW, CIRCUIT_BREAKER_MIN_CALLS);
+        logger.info("Circuit Breaker Open Duration: {}ms", CIRCUIT_BREAKER_OPEN_MS);
+        logger.info("Circuit Breaker Half-Open Calls: {}", CIRCUIT_BREAKER_HALF_OPEN_CALLS);
+        logger.info("IPC Enabled: {}", IPC_ENABLED);
         logger.info("================================");
     }
 } 
\ No newline at end of file
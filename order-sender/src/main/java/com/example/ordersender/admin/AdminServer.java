@@ -176,5 +176,17 @@ public class AdminServer {
                 responseObserver.onError(e);
             }
         }
+        
+        @Override
+        public void getCircuitBreakerStats(CircuitBreakerStatsRequest request, StreamObserver<CircuitBreakerStatsResponse> responseObserver) {
+            try {
+                CircuitBreakerStatsResponse response = application.getOrderSender().getCircuitBreakerStats(request);
+                responseObserver.onNext(response);
+                responseObserver.onCompleted();
+            } catch (Exception e) {
+                logger.error("Error getting circuit breaker stats", e);
+                responseObserver.onError(e);
+            }
+        }
     }
 } 
\ No newline at end of file
@@ -1,18 +1,44 @@
 package com.example.ordersender.consul;
 
 import com.orbitz.consul.Consul;
+import com.orbitz.consul.cache.ServiceHealthCache;
+import com.orbitz.consul.cache.ServiceHealthKey;
 import com.orbitz.consul.model.health.Service;
+import com.orbitz.consul.model.health.ServiceHealth;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+/**
+ * Healthy receivers from Consul. After {@link #start()} a
+ * {@link ServiceHealthCache} watches the receiver service with blocking
+ * queries, so changes arrive as soon as Consul sees them and
+ * {@link #discoverReceivers()} just returns the latest immutable snapshot.
+ * If Consul becomes unreachable the watch retries in the background and the
+ * last good snapshot keeps being served. Listeners are told about every new
+ * snapshot, on the watch thread.
+ */
 public class ConsulServiceDiscovery {
     private static final Logger logger = LoggerFactory.getLogger(ConsulServiceDiscovery.class);
     
+    private static final long INITIAL_SNAPSHOT_TIMEOUT_SECONDS = 5;
+    
     private final Consul consul;
     private final String receiverServiceName;
+    private final List<Consumer<List<ReceiverInfo>>> listeners = new CopyOnWriteArrayList<>();
+    private volatile List<ReceiverInfo> snapshot = List.of();
+    private ServiceHealthCache healthCache;
     
     public ConsulServiceDiscovery(String consulHost, int consulPort, String receiverServiceName) {
         this.consul = Consul.builder()
@@ -21,7 +47,63 @@ public class ConsulServiceDiscovery {
         this.receiverServiceName = receiverServiceName;
     }
     
+    /** Starts watching and waits briefly for the first snapshot. */
+    public synchronized void start() {
+        if (healthCache != null) {
+            return;
+        }
+        healthCache = ServiceHealthCache.newCache(consul.healthClient(), receiverServiceName);
+        healthCache.addListener(this::onHealthChange);
+        healthCache.start();
+        try {
+            if (!healthCache.awaitInitialized(INITIAL_SNAPSHOT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("No receiver snapshot from Consul after {}s, will keep watching", INITIAL_SNAPSHOT_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    public synchronized void stop() {
+        if (healthCache != null) {
+            healthCache.stop();
+            healthCache = null;
+        }
+    }
+    
+    /** Calls {@code listener} with each new snapshot of healthy receivers. */
+    public void addListener(Consumer<List<ReceiverInfo>> listener) {
+        listeners.add(listener);
+    }
+    
+    /**
+     * The current healthy receivers, as an immutable list. Before
+     * {@link #start()} this queries Consul directly.
+     */
     public List<ReceiverInfo> discoverReceivers() {
+        if (healthCache == null) {
+            return queryReceivers();
+        }
+        return snapshot;
+    }
+    
+    private void onHealthChange(Map<ServiceHealthKey, ServiceHealth> healthyServices) {
+        List<ReceiverInfo> receivers = new ArrayList<>();
+        for (ServiceHealth serviceHealth : healthyServices.values()) {
+            receivers.add(toReceiverInfo(serviceHealth.getService()));
+        }
+        snapshot = List.copyOf(receivers);
+        logger.info("Receiver snapshot updated: {} healthy instances", receivers.size());
+        for (Consumer<List<ReceiverInfo>> listener : listeners) {
+            try {
+                listener.accept(snapshot);
+            } catch (RuntimeException e) {
+                logger.error("Receiver listener failed", e);
+            }
+        }
+    }
+    
+    private List<ReceiverInfo> queryReceivers() {
         List<ReceiverInfo> receivers = new ArrayList<>();
         
         try {
@@ -31,35 +113,57 @@ public class ConsulServiceDiscovery {
             logger.info("Found {} healthy receiver instances", healthyServices.getResponse().size());
             
             for (var serviceEntry : healthyServices.getResponse()) {
-                Service service = serviceEntry.getService();
-                
-                // Extract port from metadata or use default
-                int port = service.getPort();
-                if (service.getMeta() != null && service.getMeta().containsKey("tcp-port")) {
-                    try {
-                        port = Integer.parseInt(service.getMeta().get("tcp-port"));
-                    } catch (NumberFormatException e) {
-                        logger.warn("Invalid tcp-port in metadata for {}: {}", service.getId(), service.getMeta().get("tcp-port"));
-                    }
-                }
-                
-                ReceiverInfo receiver = new ReceiverInfo(
-                    service.getId(),
-                    service.getService(),
-                    service.getAddress(),
-                    port,
-                    service.getMeta()
-                );
-                
-                receivers.add(receiver);
-                logger.debug("Discovered receiver: {} at {}:{}", receiver.getServiceId(), receiver.getAddress(), receiver.getPort());
+                receivers.add(toReceiverInfo(serviceEntry.getService()));
             }
             
         } catch (Exception e) {
             logger.error("Error discovering receivers from Consul", e);
         }
         
-        return receivers;
+        return List.copyOf(receivers);
+    }
+    
+    private static ReceiverInfo toReceiverInfo(Service service) {
+        // Extract port from metadata or use default
+        int port = service.getPort();
+        if (service.getMeta() != null && service.getMeta().containsKey("tcp-port")) {
+            try {
+                port = Integer.parseInt(service.getMeta().get("tcp-port"));
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid tcp-port in metadata for {}: {}", service.getId(), service.getMeta().get("tcp-port"));
+            }
+        }
+        
+        // Same-host receivers may also listen on a Unix domain socket; prefer it when it exists here
+        boolean local = isLocalAddress(service.getAddress());
+        String udsPath = service.getMeta() != null ? service.getMeta().get("uds-path") : null;
+        if (udsPath != null && !(local && Files.exists(Paths.get(udsPath)))) {
+            udsPath = null;
+        }
+        
+        ReceiverInfo receiver = new ReceiverInfo(
+            service.getId(),
+            service.getService(),
+            service.getAddress(),
+            port,
+            service.getMeta(),
+            local,
+            udsPath
+        );
+        logger.debug("Discovered receiver: {} at {}:{}{}", receiver.getServiceId(), receiver.getAddress(), receiver.getPort(),
+                udsPath != null ? " (unix " + udsPath + ")" : "");
+        return receiver;
+    }
+    
+    /** {@code true} if {@code host} names this machine. */
+    static boolean isLocalAddress(String host) {
+        try {
+            InetAddress address = InetAddress.getByName(host);
+            return address.isLoopbackAddress() || address.isAnyLocalAddress()
+                    || NetworkInterface.getByInetAddress(address) != null;
+        } catch (IOException e) {
+            return false;
+        }
     }
     
     public static class ReceiverInfo {
@@ -68,13 +172,26 @@ public class ConsulServiceDiscovery {
         private final String address;
         private final int port;
         private final java.util.Map<String, String> metadata;
+        private final boolean local;
+        private final String udsPath;
         
         public ReceiverInfo(String serviceId, String serviceName, String address, int port, java.util.Map<String, String> metadata) {
+            this(serviceId, serviceName, address, port, metadata, false, null);
+        }
+        
+        /**
+         * @param local   the receiver runs on this host
+         * @param udsPath Unix domain socket to use instead of TCP, or {@code null}
+         */
+        public ReceiverInfo(String serviceId, String serviceName, String address, int port, java.util.Map<String, String> metadata,
+                            boolean local, String udsPath) {
             this.serviceId = serviceId;
             this.serviceName = serviceName;
             this.address = address;
             this.port = port;
             this.metadata = metadata != null ? metadata : new java.util.HashMap<>();
+            this.local = local;
+            this.udsPath = udsPath;
         }
         
         public String getServiceId() { return serviceId; }
@@ -82,6 +199,8 @@ public class ConsulServiceDiscovery {
         public String getAddress() { return address; }
         public int getPort() { return port; }
         public java.util.Map<String, String> getMetadata() { return metadata; }
+        public boolean isLocal() { return local; }
+        public String getUdsPath() { return udsPath; }
         
         @Override
         public String toString() {
@@ -0,0 +1,183 @@
+package com.example.ordersender.load;
+
+import com.example.ordersender.consul.ConsulServiceDiscovery.ReceiverInfo;
+import com.example.ordersender.sender.OrderSender;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load: each receiver gets orders at a fixed rate on its own
+ * schedule, whether or not earlier orders have been answered. Latency is
+ * measured from the time an order was <em>due</em> to be sent, not from when
+ * it was actually written, so a stalled receiver or a full window shows up as
+ * latency of every order that was held back instead of silently lowering the
+ * rate (coordinated omission).
+ *
+ * <p>A run sends for the warmup period without recording, then measures for
+ * the run duration and logs per-receiver and combined percentiles and
+ * throughput. Throughput counts answered orders of any status.
+ */
+public class LoadGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private static final long SPIN_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final OrderSender orderSender;
+    private final double ratePerReceiver;
+    private final long warmupNanos;
+    private final long durationNanos;
+    private final long drainMillis;
+
+    /**
+     * @param ratePerReceiver  orders per second sent to each receiver
+     * @param drainMillis      how long to wait for outstanding answers after sending stops
+     */
+    public LoadGenerator(OrderSender orderSender, double ratePerReceiver, int warmupSeconds, int durationSeconds,
+                         long drainMillis) {
+        if (ratePerReceiver <= 0) {
+            throw new IllegalArgumentException("Load rate must be positive: " + ratePerReceiver);
+        }
+        this.orderSender = orderSender;
+        this.ratePerReceiver = ratePerReceiver;
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(Math.max(0, warmupSeconds));
+        this.durationNanos = TimeUnit.SECONDS.toNanos(Math.max(1, durationSeconds));
+        this.drainMillis = drainMillis;
+    }
+
+    /** Runs one warmup and measurement period against {@code receivers} and logs the results. */
+    public void run(List<ReceiverInfo> receivers) throws InterruptedException {
+        logger.info("Load run: {} orders/s to each of {} receivers, {}s warmup, {}s measured",
+                ratePerReceiver, receivers.size(), TimeUnit.NANOSECONDS.toSeconds(warmupNanos),
+                TimeUnit.NANOSECONDS.toSeconds(durationNanos));
+
+        long start = System.nanoTime();
+        long measureStart = start + warmupNanos;
+        long end = measureStart + durationNanos;
+        List<ReceiverLoad> loads = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (ReceiverInfo receiver : receivers) {
+            ReceiverLoad load = new ReceiverLoad(receiver, start, measureStart, end);
+            loads.add(load);
+            threads.add(new Thread(load, "load-" + receiver.getServiceId()) {{
+                setDaemon(true);
+                start();
+            }});
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long drainDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(drainMillis);
+        for (ReceiverLoad load : loads) {
+            load.awaitAnswers(drainDeadline);
+        }
+        report(loads);
+    }
+
+    private void report(List<ReceiverLoad> loads) {
+        double seconds = durationNanos / 1e9;
+        Histogram combined = new Histogram(SIGNIFICANT_DIGITS);
+        long combinedAnswered = 0;
+        for (ReceiverLoad load : loads) {
+            Histogram histogram = load.recorder.getIntervalHistogram();
+            combined.add(histogram);
+            combinedAnswered += histogram.getTotalCount();
+            logger.info("{}: sent={} answered={} lost={} throughput={}/s p50={}us p99={}us p99.9={}us max={}us statuses={}",
+                    load.receiver.getServiceId(), load.measuredSent.get(), histogram.getTotalCount(), load.outstanding(),
+                    String.format("%.1f", histogram.getTotalCount() / seconds),
+                    micros(histogram.getValueAtPercentile(50)), micros(histogram.getValueAtPercentile(99)),
+                    micros(histogram.getValueAtPercentile(99.9)), micros(histogram.getMaxValue()), load.statusCounts());
+        }
+        logger.info("All receivers: answered={} throughput={}/s p50={}us p99={}us p99.9={}us max={}us",
+                combinedAnswered, String.format("%.1f", combinedAnswered / seconds),
+                micros(combined.getValueAtPercentile(50)), micros(combined.getValueAtPercentile(99)),
+                micros(combined.getValueAtPercentile(99.9)), micros(combined.getMaxValue()));
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.1f", nanos / 1000.0);
+    }
+
+    /** Sends to one receiver on a fixed schedule and records how late each answer was. */
+    private final class ReceiverLoad implements Runnable {
+        final ReceiverInfo receiver;
+        final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+        final AtomicLong measuredSent = new AtomicLong();
+        final AtomicLong measuredAnswered = new AtomicLong();
+        final Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+        private final long start;
+        private final long measureStart;
+        private final long end;
+        private final double intervalNanos = 1e9 / ratePerReceiver;
+
+        ReceiverLoad(ReceiverInfo receiver, long start, long measureStart, long end) {
+            this.receiver = receiver;
+            this.start = start;
+            this.measureStart = measureStart;
+            this.end = end;
+        }
+
+        @Override
+        public void run() {
+            for (long sequence = 0; ; sequence++) {
+                long intended = start + (long) (sequence * intervalNanos);
+                if (intended - end >= 0) {
+                    return;
+                }
+                awaitUntil(intended);
+                boolean measured = intended - measureStart >= 0;
+                if (measured) {
+                    measuredSent.incrementAndGet();
+                }
+                // Behind schedule, this sends immediately; the lateness is counted in the latency
+                orderSender.submitLoadOrder(receiver).thenAccept(response -> {
+                    if (measured) {
+                        recorder.recordValue(System.nanoTime() - intended);
+                        measuredAnswered.incrementAndGet();
+                        statuses.computeIfAbsent(response.getStatus(), status -> new LongAdder()).increment();
+                    }
+                });
+            }
+        }
+
+        void awaitAnswers(long deadline) {
+            while (outstanding() > 0 && System.nanoTime() - deadline < 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+
+        long outstanding() {
+            return measuredSent.get() - measuredAnswered.get();
+        }
+
+        Map<String, Long> statusCounts() {
+            Map<String, Long> counts = new TreeMap<>();
+            statuses.forEach((status, count) -> counts.put(status, count.sum()));
+            return counts;
+        }
+
+        private void awaitUntil(long intended) {
+            long remaining;
+            while ((remaining = intended - System.nanoTime()) > 0) {
+                if (remaining > SPIN_THRESHOLD_NANOS) {
+                    LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+                } else {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+    }
+}
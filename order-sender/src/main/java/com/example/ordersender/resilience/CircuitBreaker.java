@@ -0,0 +1,178 @@
+package com.example.ordersender.resilience;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stops sending to a receiver that keeps failing or answering slowly.
+ *
+ * <ul>
+ *   <li><b>CLOSED</b>: calls pass; outcomes go into a window of the last
+ *       {@code windowSize} calls. Once it holds {@code minimumCalls}, a failure
+ *       or slow-call rate at or above its threshold opens the breaker.</li>
+ *   <li><b>OPEN</b>: calls are rejected without touching the network for
+ *       {@code openMillis}.</li>
+ *   <li><b>HALF_OPEN</b>: up to {@code halfOpenCalls} probes pass. When all
+ *       have finished, the breaker closes if their rates are below the
+ *       thresholds and opens again otherwise.</li>
+ * </ul>
+ *
+ * Every permitted call must be finished with {@link #onSuccess} or
+ * {@link #onFailure}.
+ */
+public final class CircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private static final byte SUCCESS = 0;
+    private static final byte FAILURE = 1;
+    private static final byte SLOW = 2;
+    private static final byte SLOW_FAILURE = FAILURE | SLOW;
+
+    private final String name;
+    private final CircuitBreakerSettings settings;
+    private final long slowCallNanos;
+    private final byte[] outcomes;
+
+    private State state = State.CLOSED;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+    private long openUntilNanos;
+    private int halfOpenPermits;
+    private long rejected;
+    private long timesOpened;
+
+    public CircuitBreaker(String name, CircuitBreakerSettings settings) {
+        this.name = name;
+        this.settings = settings;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(settings.slowCallMillis());
+        this.outcomes = new byte[settings.windowSize()];
+    }
+
+    /** {@code true} if a call may go ahead; it must then be finished with {@link #onSuccess} or {@link #onFailure}. */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && System.nanoTime() - openUntilNanos >= 0) {
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && halfOpenPermits > 0) {
+            halfOpenPermits--;
+            return true;
+        }
+        rejected++;
+        return false;
+    }
+
+    /**
+     * {@code false} while calls would be refused, without using up a
+     * half-open probe; for skipping a receiver before an order is built.
+     */
+    public synchronized boolean isCallPermitted() {
+        switch (state) {
+            case OPEN:
+                return System.nanoTime() - openUntilNanos >= 0;
+            case HALF_OPEN:
+                return halfOpenPermits > 0;
+            default:
+                return true;
+        }
+    }
+
+    public void onSuccess(long durationNanos) {
+        record(durationNanos >= slowCallNanos ? SLOW : SUCCESS);
+    }
+
+    public void onFailure(long durationNanos) {
+        record(durationNanos >= slowCallNanos ? SLOW_FAILURE : FAILURE);
+    }
+
+    private synchronized void record(byte outcome) {
+        if (state == State.OPEN) {
+            return; // a call that started before the breaker opened
+        }
+        if (recorded == outcomes.length) {
+            forget(outcomes[next]);
+        } else {
+            recorded++;
+        }
+        outcomes[next] = outcome;
+        next = (next + 1) % outcomes.length;
+        if ((outcome & FAILURE) != 0) {
+            failures++;
+        }
+        if ((outcome & SLOW) != 0) {
+            slowCalls++;
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (recorded >= settings.halfOpenCalls()) {
+                transition(aboveThreshold() ? State.OPEN : State.CLOSED);
+            }
+        } else if (recorded >= settings.minimumCalls() && aboveThreshold()) {
+            transition(State.OPEN);
+        }
+    }
+
+    private void forget(byte outcome) {
+        if ((outcome & FAILURE) != 0) {
+            failures--;
+        }
+        if ((outcome & SLOW) != 0) {
+            slowCalls--;
+        }
+    }
+
+    private boolean aboveThreshold() {
+        return failures * 100 >= settings.failureRatePercent() * recorded
+                || slowCalls * 100 >= settings.slowCallRatePercent() * recorded;
+    }
+
+    private void transition(State target) {
+        logger.info("Circuit breaker for {} {} -> {} (failures {}/{}, slow {}/{})",
+                name, state, target, failures, recorded, slowCalls, recorded);
+        state = target;
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+        if (target == State.OPEN) {
+            timesOpened++;
+            openUntilNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.openMillis());
+        } else if (target == State.HALF_OPEN) {
+            halfOpenPermits = settings.halfOpenCalls();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /** Failure rate over the calls currently in the window, in percent. */
+    public synchronized float getFailureRate() {
+        return recorded == 0 ? 0 : failures * 100f / recorded;
+    }
+
+    public synchronized float getSlowCallRate() {
+        return recorded == 0 ? 0 : slowCalls * 100f / recorded;
+    }
+
+    public synchronized int getBufferedCalls() {
+        return recorded;
+    }
+
+    /** Calls refused while open or half-open. */
+    public synchronized long getRejectedCount() {
+        return rejected;
+    }
+
+    public synchronized long getTimesOpened() {
+        return timesOpened;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.ordersender.resilience;
+
+/** Thresholds shared by every receiver's {@link CircuitBreaker}. */
+public final class CircuitBreakerSettings {
+    private final int failureRatePercent;
+    private final int slowCallRatePercent;
+    private final long slowCallMillis;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final long openMillis;
+    private final int halfOpenCalls;
+
+    /**
+     * @param failureRatePercent   failed calls in the window, in percent, that open the breaker
+     * @param slowCallRatePercent  calls slower than {@code slowCallMillis}, in percent, that open the breaker
+     * @param windowSize           most recent calls the rates are computed over
+     * @param minimumCalls         calls needed in the window before the rates are trusted
+     * @param openMillis           how long an open breaker rejects calls before probing
+     * @param halfOpenCalls        probe calls let through, and judged together, when half-open
+     */
+    public CircuitBreakerSettings(int failureRatePercent, int slowCallRatePercent, long slowCallMillis,
+                                  int windowSize, int minimumCalls, long openMillis, int halfOpenCalls) {
+        this.failureRatePercent = failureRatePercent;
+        this.slowCallRatePercent = slowCallRatePercent;
+        this.slowCallMillis = slowCallMillis;
+        this.windowSize = Math.max(1, windowSize);
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, this.windowSize));
+        this.openMillis = openMillis;
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+    }
+
+    public int failureRatePercent() { return failureRatePercent; }
+    public int slowCallRatePercent() { return slowCallRatePercent; }
+    public long slowCallMillis() { return slowCallMillis; }
+    public int windowSize() { return windowSize; }
+    public int minimumCalls() { return minimumCalls; }
+    public long openMillis() { return openMillis; }
+    public int halfOpenCalls() { return halfOpenCalls; }
+}
@@ -0,0 +1,50 @@
+package com.example.ordersender.resilience;
+
+/**
+ * Caps retries at a share of the traffic, so retrying cannot multiply the
+ * load on receivers that are already struggling. Every request deposits
+ * {@code percent / 100} of a token and every retry withdraws a whole one.
+ * The balance starts at, and is capped at, {@code reserve} tokens. This lets
+ * a quiet sender still retry a few times in a row.
+ */
+public final class RetryBudget {
+    private final double depositPerRequest;
+    private final double reserve;
+    private double balance;
+    private long retries;
+    private long denied;
+
+    public RetryBudget(int percent, int reserve) {
+        this.depositPerRequest = Math.max(0, percent) / 100.0;
+        this.reserve = Math.max(1, reserve);
+        this.balance = this.reserve;
+    }
+
+    public synchronized void onRequest() {
+        balance = Math.min(reserve, balance + depositPerRequest);
+    }
+
+    /** {@code true} if a retry may be made now, which spends from the budget. */
+    public synchronized boolean tryRetry() {
+        if (balance >= 1) {
+            balance -= 1;
+            retries++;
+            return true;
+        }
+        denied++;
+        return false;
+    }
+
+    /** Whole retries that could be made right now. */
+    public synchronized int getAvailable() {
+        return (int) balance;
+    }
+
+    public synchronized long getRetryCount() {
+        return retries;
+    }
+
+    public synchronized long getDeniedCount() {
+        return denied;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.ordersender.routing;
+
+import com.example.ordersender.consul.ConsulServiceDiscovery.ReceiverInfo;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks at random, weighted by the inverse of each receiver's expected wait:
+ * its average latency times one more than its orders in flight. A receiver
+ * twice as slow gets about half the traffic, and none is starved, so it keeps
+ * being measured. Receivers without a latency yet are given the fastest
+ * known one, so they are tried right away.
+ */
+public final class EwmaLatencySelector implements ReceiverSelector {
+    private final ReceiverStats stats;
+
+    public EwmaLatencySelector(ReceiverStats stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public ReceiverInfo select(List<ReceiverInfo> receivers) {
+        int size = receivers.size();
+        double fastest = Double.MAX_VALUE;
+        double[] latencies = new double[size];
+        for (int i = 0; i < size; i++) {
+            latencies[i] = stats.getLatencyNanos(receivers.get(i).getServiceId());
+            if (latencies[i] >= 0) {
+                fastest = Math.min(fastest, latencies[i]);
+            }
+        }
+        if (fastest == Double.MAX_VALUE) {
+            fastest = 1;
+        }
+
+        double[] weights = new double[size];
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            double latency = Math.max(1, latencies[i] >= 0 ? latencies[i] : fastest);
+            total += weights[i] = 1 / (latency * (stats.getInFlight(receivers.get(i).getServiceId()) + 1));
+        }
+        double pick = ThreadLocalRandom.current().nextDouble(total);
+        for (int i = 0; i < size - 1; i++) {
+            pick -= weights[i];
+            if (pick < 0) {
+                return receivers.get(i);
+            }
+        }
+        return receivers.get(size - 1);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.ordersender.routing;
+
+import com.example.ordersender.consul.ConsulServiceDiscovery.ReceiverInfo;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The receiver with the fewest orders in flight. Ties are broken at random,
+ * so idle receivers share traffic evenly.
+ */
+public final class LeastOutstandingSelector implements ReceiverSelector {
+    private final ReceiverStats stats;
+
+    public LeastOutstandingSelector(ReceiverStats stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public ReceiverInfo select(List<ReceiverInfo> receivers) {
+        ReceiverInfo best = null;
+        int bestInFlight = Integer.MAX_VALUE;
+        int ties = 0;
+        for (ReceiverInfo receiver : receivers) {
+            int inFlight = stats.getInFlight(receiver.getServiceId());
+            if (inFlight < bestInFlight) {
+                best = receiver;
+                bestInFlight = inFlight;
+                ties = 1;
+            } else if (inFlight == bestInFlight && ThreadLocalRandom.current().nextInt(++ties) == 0) {
+                best = receiver; // each of the tied receivers ends up equally likely
+            }
+        }
+        return best;
+    }
+}
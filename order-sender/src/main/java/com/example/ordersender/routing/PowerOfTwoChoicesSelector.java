@@ -0,0 +1,42 @@
+package com.example.ordersender.routing;
+
+import com.example.ordersender.consul.ConsulServiceDiscovery.ReceiverInfo;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Samples two different receivers at random and takes the one with fewer
+ * orders in flight, or the lower average latency on a tie. Nearly as
+ * balanced as checking every receiver, at constant cost, and concurrent
+ * senders do not all pile onto the same least-loaded receiver.
+ */
+public final class PowerOfTwoChoicesSelector implements ReceiverSelector {
+    private final ReceiverStats stats;
+
+    public PowerOfTwoChoicesSelector(ReceiverStats stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public ReceiverInfo select(List<ReceiverInfo> receivers) {
+        int size = receivers.size();
+        if (size == 1) {
+            return receivers.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        ReceiverInfo a = receivers.get(first);
+        ReceiverInfo b = receivers.get(second);
+        int inFlightA = stats.getInFlight(a.getServiceId());
+        int inFlightB = stats.getInFlight(b.getServiceId());
+        if (inFlightA != inFlightB) {
+            return inFlightA < inFlightB ? a : b;
+        }
+        return stats.getLatencyNanos(a.getServiceId()) <= stats.getLatencyNanos(b.getServiceId()) ? a : b;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.ordersender.routing;
+
+import com.example.ordersender.consul.ConsulServiceDiscovery.ReceiverInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Picks the receiver for the next order. Load-aware strategies read the live
+ * in-flight counts and latencies in {@link ReceiverStats}, so a receiver that
+ * slows down gets less traffic without any configuration.
+ */
+public interface ReceiverSelector {
+    /** One of {@code receivers}, which is never empty. */
+    ReceiverInfo select(List<ReceiverInfo> receivers);
+
+    /**
+     * Resolves "round-robin", "least-outstanding", "ewma" or "power-of-two";
+     * anything else falls back to round-robin.
+     */
+    static ReceiverSelector fromName(String name, ReceiverStats stats) {
+        switch (name.trim().toLowerCase()) {
+            case "round-robin": return new RoundRobinSelector();
+            case "least-outstanding": return new LeastOutstandingSelector(stats);
+            case "ewma": return new EwmaLatencySelector(stats);
+            case "power-of-two": return new PowerOfTwoChoicesSelector(stats);
+            default:
+                Logger logger = LoggerFactory.getLogger(ReceiverSelector.class);
+                logger.warn("Unknown receiver selector '{}', using round-robin", name);
+                return new RoundRobinSelector();
+        }
+    }
+}
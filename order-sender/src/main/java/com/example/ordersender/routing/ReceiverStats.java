@@ -0,0 +1,71 @@
+package com.example.ordersender.routing;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live load of each receiver as seen by this sender: orders currently in
+ * flight and an exponentially weighted moving average of response latency.
+ * The average decays with time rather than per sample, so a receiver that is
+ * sent little still forgets an old slow answer after a few
+ * {@code decayMillis}.
+ */
+public class ReceiverStats {
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final double decayNanos;
+
+    public ReceiverStats(long decayMillis) {
+        this.decayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, decayMillis));
+    }
+
+    /** Call when an order to {@code receiverId} is sent; pair with {@link #onComplete}. */
+    public void onStart(String receiverId) {
+        entry(receiverId).inFlight.incrementAndGet();
+    }
+
+    /** Call when the answer arrives, or the order fails, with its latency. */
+    public void onComplete(String receiverId, long latencyNanos) {
+        Entry entry = entry(receiverId);
+        entry.inFlight.decrementAndGet();
+        entry.record(latencyNanos, System.nanoTime(), decayNanos);
+    }
+
+    public int getInFlight(String receiverId) {
+        Entry entry = entries.get(receiverId);
+        return entry != null ? Math.max(0, entry.inFlight.get()) : 0;
+    }
+
+    /** Average latency in nanoseconds, or {@code -1} before the first answer. */
+    public double getLatencyNanos(String receiverId) {
+        Entry entry = entries.get(receiverId);
+        return entry != null ? entry.ewmaNanos : -1;
+    }
+
+    /** Forgets receivers that are no longer discovered. */
+    public void retainOnly(Collection<String> receiverIds) {
+        entries.keySet().retainAll(receiverIds);
+    }
+
+    private Entry entry(String receiverId) {
+        return entries.computeIfAbsent(receiverId, id -> new Entry());
+    }
+
+    private static final class Entry {
+        final AtomicInteger inFlight = new AtomicInteger();
+        volatile double ewmaNanos = -1;
+        private long lastSampleNanos;
+
+        synchronized void record(long latencyNanos, long now, double decayNanos) {
+            if (ewmaNanos < 0) {
+                ewmaNanos = latencyNanos;
+            } else {
+                double weight = Math.exp(-(now - lastSampleNanos) / decayNanos);
+                ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+            }
+            lastSampleNanos = now;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.ordersender.routing;
+
+import com.example.ordersender.consul.ConsulServiceDiscovery.ReceiverInfo;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Each receiver in turn, ignoring load. */
+public final class RoundRobinSelector implements ReceiverSelector {
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Override
+    public ReceiverInfo select(List<ReceiverInfo> receivers) {
+        return receivers.get(Math.floorMod(next.getAndIncrement(), receivers.size()));
+    }
+}
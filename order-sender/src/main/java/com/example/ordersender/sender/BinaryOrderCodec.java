@@ -0,0 +1,127 @@
+package com.example.ordersender.sender;
+
+import com.example.ordersender.sender.OrderSender.OrderMessage;
+import com.example.ordersender.sender.OrderSender.OrderResponse;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sender side of the receiver's length-prefixed binary order protocol
+ * ({@code HELLO|BINARY/1}). One instance per connection: symbols, accounts and
+ * exchanges are sent once as DEFINE frames and then referenced by 16-bit IDs.
+ * See {@code com.example.orderreceiver.tcp.BinaryOrderCodec} for the layout.
+ */
+public class BinaryOrderCodec {
+    static final String HELLO = "HELLO|BINARY/1";
+    static final String HELLO_ACCEPTED = "HELLO|BINARY/1|OK";
+
+    private static final byte TYPE_DEFINE = 1;
+    private static final byte TYPE_ORDER = 2;
+    private static final byte TYPE_RESPONSE = 3;
+    private static final byte FIELD_SYMBOL = 1;
+    private static final byte FIELD_ACCOUNT = 2;
+    private static final byte FIELD_EXCHANGE = 3;
+    private static final byte SIDE_BUY = 0;
+    private static final byte SIDE_SELL = 1;
+    private static final int MAX_FRAME_BYTES = 1020;
+    private static final String[] STATUS_BY_CODE = {
+            "UNKNOWN", "FILLED", "REJECTED", "ERROR", "BUSY", "PARTIALLY_FILLED", "RESTING"};
+
+    private final Map<String, Integer> symbolIds = new HashMap<>();
+    private final Map<String, Integer> accountIds = new HashMap<>();
+    private final Map<String, Integer> exchangeIds = new HashMap<>();
+
+    /**
+     * Asks the receiver to switch this connection to binary.
+     *
+     * @return the receiver's reply line: {@link #HELLO_ACCEPTED} on success, a
+     *         text {@code BUSY} response if the receiver refused the connection,
+     *         anything else if it declined or does not understand the handshake
+     */
+    public String negotiate(InputStream in, DataOutputStream out) throws IOException {
+        out.write((HELLO + "\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        return readLine(in);
+    }
+
+    /** True for the text response a receiver writes before closing a connection over its limit. */
+    static boolean isBusy(String reply) {
+        return reply != null && reply.contains("|BUSY|");
+    }
+
+    public void writeOrder(OrderMessage order, DataOutputStream out) throws IOException {
+        int symbolId = define(symbolIds, FIELD_SYMBOL, order.getSymbol(), out);
+        int accountId = define(accountIds, FIELD_ACCOUNT, order.getAccount(), out);
+        int exchangeId = define(exchangeIds, FIELD_EXCHANGE, order.getExchange(), out);
+
+        byte[] orderId = order.getOrderId().getBytes(StandardCharsets.US_ASCII);
+        out.writeInt(1 + 1 + 2 + 2 + 2 + 4 + 8 + 8 + 1 + orderId.length);
+        out.writeByte(TYPE_ORDER);
+        out.writeByte("BUY".equals(order.getSide()) ? SIDE_BUY : SIDE_SELL);
+        out.writeShort(symbolId);
+        out.writeShort(accountId);
+        out.writeShort(exchangeId);
+        out.writeInt(order.getQuantity());
+        out.writeLong(Math.round(order.getPrice() * 10_000));
+        out.writeLong(order.getTransactTimeMillis());
+        out.writeByte(orderId.length);
+        out.write(orderId);
+        out.flush();
+    }
+
+    public OrderResponse readResponse(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length <= 0 || length > MAX_FRAME_BYTES) {
+            throw new IOException("Invalid binary response length: " + length);
+        }
+        byte[] frame = new byte[length];
+        in.readFully(frame);
+        if (frame[0] != TYPE_RESPONSE) {
+            throw new IOException("Unexpected binary frame type: " + frame[0]);
+        }
+
+        int statusCode = frame[1] & 0xFF;
+        int orderIdLength = frame[2] & 0xFF;
+        String orderId = new String(frame, 3, orderIdLength, StandardCharsets.US_ASCII);
+        int messageOffset = 3 + orderIdLength;
+        int messageLength = ((frame[messageOffset] & 0xFF) << 8) | (frame[messageOffset + 1] & 0xFF);
+        String message = new String(frame, messageOffset + 2, messageLength, StandardCharsets.US_ASCII);
+        String status = statusCode < STATUS_BY_CODE.length ? STATUS_BY_CODE[statusCode] : "UNKNOWN";
+        return new OrderResponse(orderId, status, message);
+    }
+
+    private static int define(Map<String, Integer> ids, byte field, String value, DataOutputStream out) throws IOException {
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        id = ids.size();
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        out.writeInt(1 + 1 + 2 + 1 + bytes.length);
+        out.writeByte(TYPE_DEFINE);
+        out.writeByte(field);
+        out.writeShort(id);
+        out.writeByte(bytes.length);
+        out.write(bytes);
+        ids.put(value, id);
+        return id;
+    }
+
+    /** Reads one '\n'-terminated line byte by byte so no binary data is over-read. */
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) >= 0 && b != '\n') {
+            if (b != '\r') {
+                line.append((char) b);
+            }
+        }
+        return b < 0 && line.length() == 0 ? null : line.toString();
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.ordersender.sender;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sender end of a shared-memory session with a receiver on the same host.
+ * Creates a session file in the receiver's IPC directory, holds a lock on it
+ * while open, and exchanges the same newline-delimited text protocol as TCP
+ * through a request and a response {@link SharedMemoryRing}. One request is
+ * in flight at a time; any failure leaves the stream undefined, so callers
+ * close the channel and fall back to TCP.
+ */
+final class IpcOrderChannel implements Closeable {
+    static final String LOCK_FILE = "receiver.lock";
+    static final String SESSION_SUFFIX = ".ring";
+
+    private static final int RING_CAPACITY = 64 * 1024;
+    private static final int MAX_RESPONSE_BYTES = 2048;
+    private static final long ATTACH_TIMEOUT_MS = 1000;
+    private static final int SPIN_TRIES = 1000;
+    private static final int YIELD_TRIES = 100;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(20);
+    private static final AtomicInteger sessionCounter = new AtomicInteger();
+    private static final byte[] LINE_END = {'\n'};
+
+    private final Path path;
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final MappedByteBuffer file;
+    private final SharedMemoryRing requests;
+    private final SharedMemoryRing responses;
+    private final byte[] readBuffer = new byte[MAX_RESPONSE_BYTES];
+    private int filled;
+
+    private IpcOrderChannel(Path path, FileChannel channel, FileLock lock, MappedByteBuffer file) {
+        this.path = path;
+        this.channel = channel;
+        this.lock = lock;
+        this.file = file;
+        this.requests = SharedMemoryRing.requests(file, RING_CAPACITY);
+        this.responses = SharedMemoryRing.responses(file, RING_CAPACITY);
+    }
+
+    /** {@code true} if a receiver currently holds the lock on {@code directory}. */
+    static boolean isServed(Path directory) {
+        Path lockFile = directory.resolve(LOCK_FILE);
+        if (!Files.exists(lockFile)) {
+            return false;
+        }
+        try (FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.WRITE)) {
+            FileLock probe = lockChannel.tryLock();
+            if (probe == null) {
+                return true;
+            }
+            probe.release();
+            return false;
+        } catch (OverlappingFileLockException e) {
+            return true; // receiver lives in this JVM
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates and publishes a session file, then waits for the receiver to
+     * attach. The file is renamed into place only once fully initialized, so the
+     * receiver never maps a half-written header.
+     */
+    static IpcOrderChannel open(Path directory, String senderId) throws IOException {
+        String name = senderId + "-" + ProcessHandle.current().pid() + "-" + sessionCounter.incrementAndGet();
+        Path staging = directory.resolve(name + ".tmp");
+        Path path = directory.resolve(name + SESSION_SUFFIX);
+
+        FileChannel channel = FileChannel.open(staging,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        IpcOrderChannel ipc = null;
+        try {
+            FileLock lock = channel.lock();
+            MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_WRITE, 0, SharedMemoryRing.fileSize(RING_CAPACITY));
+            SharedMemoryRing.initialize(file, RING_CAPACITY);
+            Files.move(staging, path, StandardCopyOption.ATOMIC_MOVE);
+            ipc = new IpcOrderChannel(path, channel, lock, file);
+
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ATTACH_TIMEOUT_MS);
+            while (!SharedMemoryRing.isAttached(file)) {
+                if (System.nanoTime() - deadline >= 0) {
+                    throw new IOException("Receiver did not attach IPC session within " + ATTACH_TIMEOUT_MS + "ms");
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+            return ipc;
+        } catch (IOException | RuntimeException e) {
+            if (ipc != null) {
+                ipc.close();
+            } else {
+                channel.close();
+                Files.deleteIfExists(staging);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Sends one request line, the first {@code length} bytes of {@code line}
+     * without a terminator, and waits for the receiver's response line. The
+     * bytes are copied straight into the ring. Fails with
+     * {@link OrderNotSentException} if none of them could be written.
+     */
+    synchronized String request(byte[] line, int length, int timeoutMs) throws IOException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        write(line, length, deadline, true);
+        write(LINE_END, LINE_END.length, deadline, false);
+
+        int idle = 0;
+        int scanned = 0;
+        while (true) {
+            for (; scanned < filled; scanned++) {
+                if (readBuffer[scanned] == '\n') {
+                    int end = scanned > 0 && readBuffer[scanned - 1] == '\r' ? scanned - 1 : scanned;
+                    String response = new String(readBuffer, 0, end, StandardCharsets.US_ASCII);
+                    filled -= scanned + 1;
+                    System.arraycopy(readBuffer, scanned + 1, readBuffer, 0, filled);
+                    return response;
+                }
+            }
+            if (filled == readBuffer.length) {
+                throw new IOException("IPC response exceeds " + MAX_RESPONSE_BYTES + " bytes");
+            }
+            int count = responses.read(readBuffer, filled, readBuffer.length - filled);
+            filled += count;
+            idle = count > 0 ? 0 : await(idle, deadline);
+        }
+    }
+
+    private void write(byte[] bytes, int length, long deadline, boolean startsRequest) throws IOException {
+        int written = 0;
+        int idle = 0;
+        while (written < length) {
+            int count = requests.write(bytes, written, length - written);
+            written += count;
+            try {
+                idle = count > 0 ? 0 : await(idle, deadline);
+            } catch (InterruptedIOException e) {
+                throw e;
+            } catch (IOException e) {
+                throw startsRequest && written == 0 ? new OrderNotSentException(e) : e;
+            }
+        }
+    }
+
+    /** Spins, then yields, then parks briefly; the receiver cannot wake another process. */
+    private int await(int idle, long deadline) throws IOException {
+        if (SharedMemoryRing.isClosed(file)) {
+            throw new IOException("Receiver closed the IPC session");
+        }
+        if (System.nanoTime() - deadline >= 0) {
+            throw new IOException("Timed out waiting for IPC response");
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Interrupted while waiting for IPC response");
+        }
+        if (idle < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (idle < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+            return idle;
+        }
+        return idle + 1;
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (lock.isValid()) {
+                lock.release();
+            }
+            channel.close();
+        } catch (IOException ignored) {
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+        }
+    }
+
+    @Override
+    public String toString() {
+        return path.toString();
+    }
+}
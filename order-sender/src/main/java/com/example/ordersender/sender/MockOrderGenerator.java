@@ -0,0 +1,277 @@
+package com.example.ordersender.sender;
+
+import com.example.ordersender.sender.OrderSender.OrderMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Builds mock orders directly as text wire lines in one reusable buffer:
+ * <pre>ORDER|order-sender-1-m5x2k9qa-000042|AAPL|BUY|500|123.45|TRADER001|NYSE|20250101-09:30:00.123</pre>
+ *
+ * <p>Order IDs are a fixed prefix and a running number. {@link #forSender}
+ * puts the sender ID and the start time in the prefix, so IDs stay unique
+ * across senders and restarts, and a receiver that remembers IDs to drop
+ * duplicates never mistakes a new order for an old one.
+ *
+ * <p>Symbols, sides, accounts and exchanges are kept as precomputed bytes.
+ * Order IDs, quantities and prices (held as whole cents) are formatted
+ * digit by digit. The timestamp is cached. When the clock has not moved on
+ * since the last order, it is reused as is. Otherwise only the time of day is
+ * rewritten from the milliseconds elapsed since the cached start of the day.
+ * The date part is recomputed, with time zone rules, only at midnight or at
+ * a UTC offset change. In the steady state {@link #next()} therefore
+ * allocates nothing. {@link #toOrderMessage()} copies the last order into an
+ * {@link OrderMessage} for callers that need one.
+ *
+ * <p>Not thread-safe: one thread at a time may call {@link #next()} and read
+ * the result.
+ */
+public final class MockOrderGenerator {
+    private static final String[] SYMBOLS = {
+        "AAPL", "MSFT", "GOOGL", "AMZN", "TSLA", "META", "NVDA", "NFLX", "ADBE", "CRM",
+        "ORCL", "INTC", "AMD", "QCOM", "AVGO", "TXN", "MU", "ADI", "KLAC", "LRCX"
+    };
+    private static final String[] ACCOUNTS = {"TRADER001", "TRADER002", "TRADER003", "TRADER004", "TRADER005"};
+    private static final String[] EXCHANGES = {"NASDAQ", "NYSE", "ARCA", "BATS", "EDGX"};
+    private static final String[] SIDES = {"BUY", "SELL"};
+
+    private static final byte[][] SYMBOL_BYTES = ascii(SYMBOLS);
+    private static final byte[][] ACCOUNT_BYTES = ascii(ACCOUNTS);
+    private static final byte[][] EXCHANGE_BYTES = ascii(EXCHANGES);
+    private static final byte[][] SIDE_BYTES = ascii(SIDES);
+    private static final byte[] PREFIX = ascii("ORDER|");
+    private static final int ID_DIGITS = 6;
+    private static final int TIMESTAMP_LENGTH = "yyyyMMdd-HH:mm:ss.SSS".length();
+    private static final long MILLIS_PER_DAY = TimeUnit.DAYS.toMillis(1);
+    private static final int MAX_LINE_LENGTH_WITHOUT_ID_PREFIX = 128;
+
+    private final byte[] idPrefix;
+    private final byte[] line;
+    private final LongSupplier clock;
+    private final ZoneRules zoneRules;
+    private final SplittableRandom random;
+    private long nextOrderNumber;
+
+    // Fields of the last order
+    private int length;
+    private int orderIdOffset;
+    private int orderIdLength;
+    private int symbol;
+    private int side;
+    private int quantity;
+    private long priceCents;
+    private int account;
+    private int exchange;
+    private long transactTimeMillis;
+
+    // Timestamp cache: the formatted text for cachedMillis, and the span of
+    // time in which local time is (millis - segmentStartMillis) into the day
+    private final byte[] timestamp = new byte[TIMESTAMP_LENGTH];
+    private long cachedMillis = Long.MIN_VALUE;
+    private long segmentStartMillis;
+    private long segmentValidFromMillis;
+    private long segmentEndMillis = Long.MIN_VALUE;
+
+    public MockOrderGenerator() {
+        this("SENDER-");
+    }
+
+    public MockOrderGenerator(String idPrefix) {
+        this(System::currentTimeMillis, ZoneId.systemDefault(), new SplittableRandom(), idPrefix, 1);
+    }
+
+    /**
+     * @param clock            epoch milliseconds for transact times and timestamps
+     * @param zone             zone the timestamps are written in
+     * @param idPrefix         text before the running number in each order ID
+     * @param firstOrderNumber number in the first order ID
+     */
+    public MockOrderGenerator(LongSupplier clock, ZoneId zone, SplittableRandom random,
+                              String idPrefix, long firstOrderNumber) {
+        if (idPrefix.indexOf('|') >= 0) {
+            throw new IllegalArgumentException("Order ID prefix must not contain '|': " + idPrefix);
+        }
+        this.idPrefix = ascii(idPrefix);
+        this.line = new byte[MAX_LINE_LENGTH_WITHOUT_ID_PREFIX + this.idPrefix.length];
+        this.clock = clock;
+        this.zoneRules = zone.getRules();
+        this.random = random;
+        this.nextOrderNumber = firstOrderNumber;
+    }
+
+    /**
+     * A generator whose order IDs start with {@code senderId} and the current
+     * time in base 36, e.g. {@code order-sender-1-m5x2k9qa-000001}.
+     */
+    public static MockOrderGenerator forSender(String senderId) {
+        return new MockOrderGenerator(senderId + "-" + Long.toString(System.currentTimeMillis(), 36) + "-");
+    }
+
+    /**
+     * Generates the next order into the buffer.
+     *
+     * @return the length of the wire line in {@link #line()}, without a line terminator
+     */
+    public int next() {
+        symbol = random.nextInt(SYMBOLS.length);
+        side = random.nextInt(SIDES.length);
+        quantity = random.nextInt(1000) + 100;       // 100-1099 shares
+        priceCents = random.nextInt(50_000) + 5_000; // $50.00-$549.99
+        account = random.nextInt(ACCOUNTS.length);
+        exchange = random.nextInt(EXCHANGES.length);
+        transactTimeMillis = clock.getAsLong();
+
+        int pos = put(PREFIX, 0);
+        orderIdOffset = pos;
+        pos = put(idPrefix, pos);
+        pos = putPadded(nextOrderNumber++, ID_DIGITS, pos);
+        orderIdLength = pos - orderIdOffset;
+        line[pos++] = '|';
+        pos = put(SYMBOL_BYTES[symbol], pos);
+        line[pos++] = '|';
+        pos = put(SIDE_BYTES[side], pos);
+        line[pos++] = '|';
+        pos = putPadded(quantity, 1, pos);
+        line[pos++] = '|';
+        pos = putPadded(priceCents / 100, 1, pos);
+        line[pos++] = '.';
+        pos = putPadded(priceCents % 100, 2, pos);
+        line[pos++] = '|';
+        pos = put(ACCOUNT_BYTES[account], pos);
+        line[pos++] = '|';
+        pos = put(EXCHANGE_BYTES[exchange], pos);
+        line[pos++] = '|';
+        pos = put(timestamp(transactTimeMillis), pos);
+        length = pos;
+        return length;
+    }
+
+    /** The buffer holding the last order's wire line; overwritten by the next call to {@link #next()}. */
+    public byte[] line() {
+        return line;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public long transactTimeMillis() {
+        return transactTimeMillis;
+    }
+
+    /**
+     * The last order as an {@link OrderMessage} that outlives the buffer. It
+     * costs the message, the order ID string and one exact-size copy of the
+     * wire line, which receivers are sent as is.
+     */
+    public OrderMessage toOrderMessage() {
+        return new OrderMessage(
+            new String(line, orderIdOffset, orderIdLength, StandardCharsets.US_ASCII),
+            SYMBOLS[symbol],
+            SIDES[side],
+            quantity,
+            priceCents / 100.0,
+            ACCOUNTS[account],
+            EXCHANGES[exchange],
+            transactTimeMillis,
+            Arrays.copyOf(line, length)
+        );
+    }
+
+    /** The {@code yyyyMMdd-HH:mm:ss.SSS} local time for {@code millis}. */
+    private byte[] timestamp(long millis) {
+        if (millis == cachedMillis) {
+            return timestamp;
+        }
+        if (millis < segmentValidFromMillis || millis >= segmentEndMillis) {
+            startSegment(millis);
+        }
+        long millisOfDay = millis - segmentStartMillis;
+        int seconds = (int) (millisOfDay / 1000);
+        putTwoDigits(timestamp, 9, seconds / 3600);
+        putTwoDigits(timestamp, 12, seconds / 60 % 60);
+        putTwoDigits(timestamp, 15, seconds % 60);
+        int subsecond = (int) (millisOfDay % 1000);
+        timestamp[18] = (byte) ('0' + subsecond / 100);
+        putTwoDigits(timestamp, 19, subsecond % 100);
+        cachedMillis = millis;
+        return timestamp;
+    }
+
+    /**
+     * Writes the date for {@code millis} and finds the span around it with the
+     * same date and UTC offset. Allocates, but runs about once a day.
+     */
+    private void startSegment(long millis) {
+        Instant instant = Instant.ofEpochMilli(millis);
+        ZonedDateTime local = instant.atZone(zoneRules.getOffset(instant));
+        long millisOfDay = local.toLocalTime().toNanoOfDay() / 1_000_000;
+        segmentStartMillis = millis - millisOfDay;
+        segmentEndMillis = segmentStartMillis + MILLIS_PER_DAY;
+        ZoneOffsetTransition transition = zoneRules.nextTransition(instant);
+        if (transition != null) {
+            segmentEndMillis = Math.min(segmentEndMillis, transition.toEpochSecond() * 1000);
+        }
+        segmentValidFromMillis = segmentStartMillis;
+        ZoneOffsetTransition previous = zoneRules.previousTransition(instant.plusMillis(1));
+        if (previous != null) {
+            segmentValidFromMillis = Math.max(segmentValidFromMillis, previous.toEpochSecond() * 1000);
+        }
+
+        int year = local.getYear();
+        timestamp[0] = (byte) ('0' + year / 1000 % 10);
+        timestamp[1] = (byte) ('0' + year / 100 % 10);
+        putTwoDigits(timestamp, 2, year % 100);
+        putTwoDigits(timestamp, 4, local.getMonthValue());
+        putTwoDigits(timestamp, 6, local.getDayOfMonth());
+        timestamp[8] = '-';
+        timestamp[11] = ':';
+        timestamp[14] = ':';
+        timestamp[17] = '.';
+    }
+
+    private int put(byte[] bytes, int pos) {
+        System.arraycopy(bytes, 0, line, pos, bytes.length);
+        return pos + bytes.length;
+    }
+
+    /** Writes {@code value} in decimal, zero-padded to at least {@code minDigits}. */
+    private int putPadded(long value, int minDigits, int pos) {
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        digits = Math.max(digits, minDigits);
+        for (int i = pos + digits - 1; i >= pos; i--) {
+            line[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + digits;
+    }
+
+    private static void putTwoDigits(byte[] buffer, int pos, int value) {
+        buffer[pos] = (byte) ('0' + value / 10);
+        buffer[pos + 1] = (byte) ('0' + value % 10);
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[][] ascii(String[] values) {
+        byte[][] bytes = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = ascii(values[i]);
+        }
+        return bytes;
+    }
+}
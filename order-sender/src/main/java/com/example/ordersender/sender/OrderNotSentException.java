@@ -0,0 +1,15 @@
+package com.example.ordersender.sender;
+
+import java.io.IOException;
+
+/**
+ * An attempt that failed before any byte of the order reached the receiver:
+ * the connection or IPC session could not be set up, or the write failed with
+ * nothing written. Such an order can be sent again without risk of it being
+ * decided twice; any other failure may have happened after the receiver saw it.
+ */
+final class OrderNotSentException extends IOException {
+    OrderNotSentException(IOException cause) {
+        super(cause.getMessage(), cause);
+    }
+}
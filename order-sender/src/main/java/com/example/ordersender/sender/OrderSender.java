@@ -3,97 +3,578 @@ package com.example.ordersender.sender;
 import com.example.ordersender.OrderManager;
 import com.example.ordersender.SenderConfig;
 import com.example.ordersender.consul.ConsulServiceDiscovery.ReceiverInfo;
+import com.example.ordersender.grpc.CircuitBreakerState;
+import com.example.ordersender.grpc.CircuitBreakerStatsRequest;
+import com.example.ordersender.grpc.CircuitBreakerStatsResponse;
+import com.example.ordersender.resilience.CircuitBreaker;
+import com.example.ordersender.resilience.CircuitBreakerSettings;
+import com.example.ordersender.resilience.RetryBudget;
+import com.example.ordersender.routing.ReceiverStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
-import java.net.Socket;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Random;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 public class OrderSender {
     private static final Logger logger = LoggerFactory.getLogger(OrderSender.class);
     
-    private final Random random = new Random();
-    private final AtomicInteger orderCounter = new AtomicInteger(1);
+    private final MockOrderGenerator mockOrderGenerator = MockOrderGenerator.forSender(SenderConfig.SENDER_ID);
     private final OrderManager orderManager;
+    private final boolean binaryWireFormat = "binary".equalsIgnoreCase(SenderConfig.WIRE_FORMAT);
+    private final Set<String> textOnlyReceivers = ConcurrentHashMap.newKeySet();
+    private final Map<String, IpcOrderChannel> ipcChannels = new ConcurrentHashMap<>();
+    private final Map<String, Long> ipcRetryAfter = new ConcurrentHashMap<>();
+    private final Map<String, Object> ipcOpenLocks = new ConcurrentHashMap<>();
+    private final Map<String, PipelinedOrderChannel> pipelinedChannels = new ConcurrentHashMap<>();
+    private final Map<String, Object> pipelinedOpenLocks = new ConcurrentHashMap<>();
+    private final ReceiverStats receiverStats = new ReceiverStats(RECEIVER_STATS_DECAY_MS);
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final CircuitBreakerSettings circuitBreakerSettings = new CircuitBreakerSettings(
+            SenderConfig.CIRCUIT_BREAKER_FAILURE_RATE, SenderConfig.CIRCUIT_BREAKER_SLOW_CALL_RATE,
+            SenderConfig.CIRCUIT_BREAKER_SLOW_CALL_MS, SenderConfig.CIRCUIT_BREAKER_WINDOW,
+            SenderConfig.CIRCUIT_BREAKER_MIN_CALLS, SenderConfig.CIRCUIT_BREAKER_OPEN_MS,
+            SenderConfig.CIRCUIT_BREAKER_HALF_OPEN_CALLS);
+    private final RetryBudget retryBudget = new RetryBudget(SenderConfig.RETRY_BUDGET_PERCENT, RETRY_BUDGET_RESERVE);
+    private final ReceiverConnectionPool connectionPool = new ReceiverConnectionPool(
+            SenderConfig.TCP_POOL_MAX_IDLE, SenderConfig.TCP_POOL_IDLE_TIMEOUT_MS, SenderConfig.TCP_TIMEOUT_MS);
     
-    // Stock data for mock orders
-    private static final String[] STOCK_SYMBOLS = {
-        "AAPL", "MSFT", "GOOGL", "AMZN", "TSLA", "META", "NVDA", "NFLX", "ADBE", "CRM",
-        "ORCL", "INTC", "AMD", "QCOM", "AVGO", "TXN", "MU", "ADI", "KLAC", "LRCX"
-    };
-    
-    private static final String[] ACCOUNTS = {"TRADER001", "TRADER002", "TRADER003", "TRADER004", "TRADER005"};
-    private static final String[] EXCHANGES = {"NASDAQ", "NYSE", "ARCA", "BATS", "EDGX"};
+    private static final long IPC_RETRY_DELAY_MS = 30_000;
+    private static final long RECEIVER_STATS_DECAY_MS = 10_000;
+    private static final int RETRY_BUDGET_RESERVE = 10;
     
     public OrderSender(OrderManager orderManager) {
         this.orderManager = orderManager;
     }
     
+    /**
+     * Sends a mock order and waits for the answer. A BUSY answer, or a failed
+     * attempt that never reached the receiver, is retried up to
+     * {@code TCP_RETRY_ATTEMPTS} times with growing backoff, as long as the
+     * shared retry budget and the receiver's circuit breaker allow it. Any
+     * other failure, such as a read timeout, may come after the receiver
+     * decided the order, so it is retried only if the receiver advertises
+     * {@code dedup} and answers a resent order ID with its original response.
+     * While the breaker is open the order is answered with ERROR without
+     * contacting the receiver.
+     */
     public OrderResponse sendOrder(ReceiverInfo receiver) {
-        String orderId = "SENDER-" + String.format("%06d", orderCounter.getAndIncrement());
-        
-        // Generate mock order data
-        String symbol = STOCK_SYMBOLS[random.nextInt(STOCK_SYMBOLS.length)];
-        String side = random.nextBoolean() ? "BUY" : "SELL";
-        int quantity = random.nextInt(1000) + 100; // 100-1100 shares
-        double price = (random.nextDouble() * 500) + 50; // $50-$550
-        String account = ACCOUNTS[random.nextInt(ACCOUNTS.length)];
-        String exchange = EXCHANGES[random.nextInt(EXCHANGES.length)];
-        
-        // Create order message
-        OrderMessage orderMessage = new OrderMessage(
-            orderId,
-            symbol,
-            side,
-            quantity,
-            price,
-            account,
-            exchange,
-            LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HH:mm:ss.SSS"))
-        );
-        
-        logger.info("Sending order to {}: {} {} {} shares @ ${:.2f}", 
-                   receiver.getServiceId(), side, symbol, quantity, price);
-        
-        // Send via TCP
-        try (Socket socket = new Socket(receiver.getAddress(), receiver.getPort())) {
-            socket.setSoTimeout(SenderConfig.TCP_TIMEOUT_MS);
-            
-            PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
-            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-            
-            // Send order
-            String orderString = orderMessage.toTcpString();
-            out.println(orderString);
-            
-            // Read response
-            String response = in.readLine();
-            if (response == null) {
-                throw new IOException("No response received from receiver");
+        OrderMessage orderMessage = newMockOrder();
+        CircuitBreaker breaker = circuitBreaker(receiver);
+        if (breaker != null && !breaker.tryAcquire()) {
+            return recordRejection(receiver, orderMessage);
+        }
+        logSending(receiver, orderMessage);
+        retryBudget.onRequest();
+        
+        long started = System.nanoTime();
+        receiverStats.onStart(receiver.getServiceId());
+        OrderResponse orderResponse = null;
+        try {
+            for (int attempt = 0; ; attempt++) {
+                long attemptStarted = System.nanoTime();
+                try {
+                    orderResponse = sendIpc(receiver, orderMessage);
+                    if (orderResponse == null) {
+                        orderResponse = sendPooled(receiver, orderMessage);
+                    }
+                } catch (IOException e) {
+                    onAttemptFailed(breaker, attemptStarted);
+                    if (!canResend(receiver, e) || !retry(receiver, breaker, attempt, e)) {
+                        throw e;
+                    }
+                    continue;
+                }
+                if (!"BUSY".equals(orderResponse.getStatus())) {
+                    if (breaker != null) {
+                        breaker.onSuccess(System.nanoTime() - attemptStarted);
+                    }
+                    return recordResponse(receiver, orderResponse);
+                }
+                onAttemptFailed(breaker, attemptStarted);
+                if (!retry(receiver, breaker, attempt, null)) {
+                    return recordResponse(receiver, orderResponse);
+                }
             }
             
-            // Parse response
-            OrderResponse orderResponse = OrderResponse.fromTcpString(response);
-            
-            // Store response in OrderManager with receiver ID
-            orderManager.addOrderResponse(orderId, orderResponse.toGrpcOrderResponse(receiver.getServiceId()));
-            
-            logger.info("Received response from {}: {}", receiver.getServiceId(), orderResponse);
-            
+        } catch (IOException e) {
+            orderResponse = recordFailure(receiver, orderMessage, e);
             return orderResponse;
-            
+        } finally {
+            trackCompletion(receiver, started, orderResponse);
+        }
+    }
+    
+    /**
+     * Sends a mock order without waiting for the answer. Orders to one receiver
+     * share a single connection with up to {@code TCP_MAX_IN_FLIGHT} of them
+     * outstanding; responses are matched to orders by order ID. The future
+     * always completes normally: failures and timeouts become ERROR responses,
+     * as with {@link #sendOrder}. Blocks while the receiver's window is full.
+     * Outcomes feed the receiver's circuit breaker, but failures are not
+     * retried, since a retry would hold a window slot for another timeout.
+     */
+    public CompletableFuture<OrderResponse> submitOrder(ReceiverInfo receiver) {
+        OrderMessage orderMessage = newMockOrder();
+        CircuitBreaker breaker = circuitBreaker(receiver);
+        if (breaker != null && !breaker.tryAcquire()) {
+            return CompletableFuture.completedFuture(recordRejection(receiver, orderMessage));
+        }
+        logSending(receiver, orderMessage);
+        
+        long started = System.nanoTime();
+        receiverStats.onStart(receiver.getServiceId());
+        PipelinedOrderChannel channel;
+        try {
+            channel = pipelinedChannel(receiver);
+        } catch (IOException e) {
+            return tracked(receiver, breaker, started, CompletableFuture.completedFuture(recordFailure(receiver, orderMessage, e)));
+        }
+        return tracked(receiver, breaker, started, channel.submit(orderMessage).handle((response, error) -> {
+            if (error == null) {
+                return recordResponse(receiver, response);
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            return recordFailure(receiver, orderMessage, cause);
+        }));
+    }
+    
+    /**
+     * Like {@link #submitOrder} but for load generation: nothing is logged or
+     * stored per order, so the sender's own bookkeeping does not limit the
+     * rate. Failures complete the future with an ERROR response. Circuit
+     * breakers are bypassed, so a run measures the receivers as they are.
+     */
+    public CompletableFuture<OrderResponse> submitLoadOrder(ReceiverInfo receiver) {
+        OrderMessage orderMessage = newMockOrder();
+        long started = System.nanoTime();
+        receiverStats.onStart(receiver.getServiceId());
+        PipelinedOrderChannel channel;
+        try {
+            channel = pipelinedChannel(receiver);
         } catch (IOException e) {
-            logger.error("Failed to send order to {}: {}", receiver.getServiceId(), e.getMessage());
-            OrderResponse errorResponse = new OrderResponse(orderId, "ERROR", "Failed to send order: " + e.getMessage());
-            orderManager.addOrderResponse(orderId, errorResponse.toGrpcOrderResponse(receiver.getServiceId()));
-            return errorResponse;
+            return tracked(receiver, null, started, CompletableFuture.completedFuture(errorResponse(orderMessage, e)));
+        }
+        return tracked(receiver, null, started, channel.submit(orderMessage).handle((response, error) -> {
+            if (error == null) {
+                return response;
+            }
+            return errorResponse(orderMessage, error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+        }));
+    }
+    
+    /**
+     * {@code false} while the receiver's circuit breaker is refusing orders,
+     * so routing can pick another receiver instead.
+     */
+    public boolean isAvailable(ReceiverInfo receiver) {
+        CircuitBreaker breaker = circuitBreaker(receiver);
+        return breaker == null || breaker.isCallPermitted();
+    }
+    
+    /** Circuit breaker state per receiver and retry budget usage, for the admin service. */
+    public CircuitBreakerStatsResponse getCircuitBreakerStats(CircuitBreakerStatsRequest request) {
+        CircuitBreakerStatsResponse.Builder response = CircuitBreakerStatsResponse.newBuilder()
+                .setEnabled(SenderConfig.CIRCUIT_BREAKER_ENABLED)
+                .setRetryBudgetAvailable(retryBudget.getAvailable())
+                .setRetryCount(retryBudget.getRetryCount())
+                .setRetryDeniedCount(retryBudget.getDeniedCount());
+        new TreeMap<>(circuitBreakers).forEach((receiverId, breaker) -> response.addReceivers(
+                CircuitBreakerState.newBuilder()
+                        .setReceiverId(receiverId)
+                        .setState(breaker.getState().name())
+                        .setFailureRate(breaker.getFailureRate())
+                        .setSlowCallRate(breaker.getSlowCallRate())
+                        .setBufferedCalls(breaker.getBufferedCalls())
+                        .setRejectedCalls(breaker.getRejectedCount())
+                        .setTimesOpened(breaker.getTimesOpened())
+                        .build()));
+        return response.build();
+    }
+    
+    private CircuitBreaker circuitBreaker(ReceiverInfo receiver) {
+        if (!SenderConfig.CIRCUIT_BREAKER_ENABLED) {
+            return null;
+        }
+        return circuitBreakers.computeIfAbsent(receiver.getServiceId(), id -> new CircuitBreaker(id, circuitBreakerSettings));
+    }
+    
+    private static void onAttemptFailed(CircuitBreaker breaker, long attemptStarted) {
+        if (breaker != null) {
+            breaker.onFailure(System.nanoTime() - attemptStarted);
+        }
+    }
+    
+    /**
+     * Whether an order whose attempt failed may be sent again: only if it
+     * never reached the receiver, or the receiver deduplicates order IDs.
+     */
+    private static boolean canResend(ReceiverInfo receiver, IOException failure) {
+        return failure instanceof OrderNotSentException || "true".equals(receiver.getMetadata().get("dedup"));
+    }
+    
+    /**
+     * Decides whether a failed attempt is retried and, if so, waits out the
+     * backoff first. Interrupted sends are never retried, since the caller has
+     * given up on them.
+     */
+    private boolean retry(ReceiverInfo receiver, CircuitBreaker breaker, int attempt, IOException failure) throws IOException {
+        if (attempt >= SenderConfig.TCP_RETRY_ATTEMPTS || failure instanceof InterruptedIOException
+                || Thread.currentThread().isInterrupted()) {
+            return false;
+        }
+        if (breaker != null && !breaker.isCallPermitted()) {
+            return false;
+        }
+        if (!retryBudget.tryRetry()) {
+            logger.debug("Retry budget exhausted, not retrying order to {}", receiver.getServiceId());
+            return false;
+        }
+        if (breaker != null && !breaker.tryAcquire()) {
+            return false;
+        }
+        long backoff = SenderConfig.RETRY_BACKOFF_MS << Math.min(attempt, 10);
+        logger.warn("Attempt {} to {} failed ({}), retrying in {}ms", attempt + 1, receiver.getServiceId(),
+                failure != null ? failure.getMessage() : "BUSY", backoff);
+        try {
+            Thread.sleep(backoff);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (breaker != null) {
+                breaker.onFailure(0);
+            }
+            throw new InterruptedIOException("Interrupted while waiting to retry");
+        }
+        return true;
+    }
+    
+    /** In-flight counts and latencies per receiver, for load-aware receiver selection. */
+    public ReceiverStats getReceiverStats() {
+        return receiverStats;
+    }
+    
+    private CompletableFuture<OrderResponse> tracked(ReceiverInfo receiver, CircuitBreaker breaker, long started,
+                                                     CompletableFuture<OrderResponse> response) {
+        return response.whenComplete((orderResponse, error) -> {
+            if (breaker != null) {
+                String status = orderResponse != null ? orderResponse.getStatus() : "ERROR";
+                if ("ERROR".equals(status) || "BUSY".equals(status)) {
+                    breaker.onFailure(System.nanoTime() - started);
+                } else {
+                    breaker.onSuccess(System.nanoTime() - started);
+                }
+            }
+            trackCompletion(receiver, started, orderResponse);
+        });
+    }
+    
+    /**
+     * Feeds the latency of a finished order to {@link ReceiverStats}. Errors
+     * and BUSY answers count as taking at least the full timeout, so a
+     * receiver that fails fast does not look fast.
+     */
+    private void trackCompletion(ReceiverInfo receiver, long started, OrderResponse orderResponse) {
+        long latency = System.nanoTime() - started;
+        if (orderResponse == null || "ERROR".equals(orderResponse.getStatus()) || "BUSY".equals(orderResponse.getStatus())) {
+            latency = Math.max(latency, TimeUnit.MILLISECONDS.toNanos(SenderConfig.TCP_TIMEOUT_MS));
+        }
+        receiverStats.onComplete(receiver.getServiceId(), latency);
+    }
+    
+    private OrderMessage newMockOrder() {
+        synchronized (mockOrderGenerator) {
+            mockOrderGenerator.next();
+            return mockOrderGenerator.toOrderMessage();
+        }
+    }
+    
+    private void logSending(ReceiverInfo receiver, OrderMessage orderMessage) {
+        logger.info("Sending order to {}: {} {} {} shares @ ${}", 
+                   receiver.getServiceId(), orderMessage.getSide(), orderMessage.getSymbol(),
+                   orderMessage.getQuantity(), orderMessage.getPrice());
+    }
+    
+    private OrderResponse recordResponse(ReceiverInfo receiver, OrderResponse orderResponse) {
+        // Store response in OrderManager with receiver ID
+        orderManager.addOrderResponse(orderResponse.getOrderId(), orderResponse.toGrpcOrderResponse(receiver.getServiceId()));
+        
+        logger.info("Received response from {}: {}", receiver.getServiceId(), orderResponse);
+        
+        return orderResponse;
+    }
+    
+    private OrderResponse recordFailure(ReceiverInfo receiver, OrderMessage orderMessage, Throwable e) {
+        logger.error("Failed to send order to {}: {}", receiver.getServiceId(), e.getMessage());
+        OrderResponse errorResponse = errorResponse(orderMessage, e);
+        orderManager.addOrderResponse(orderMessage.getOrderId(), errorResponse.toGrpcOrderResponse(receiver.getServiceId()));
+        return errorResponse;
+    }
+    
+    /** Answers an order the circuit breaker kept from being sent; stored like any failure, but not logged per order. */
+    private OrderResponse recordRejection(ReceiverInfo receiver, OrderMessage orderMessage) {
+        logger.debug("Circuit open for {}, not sending order {}", receiver.getServiceId(), orderMessage.getOrderId());
+        OrderResponse rejection = new OrderResponse(orderMessage.getOrderId(), "ERROR",
+                "Circuit breaker open for receiver " + receiver.getServiceId());
+        orderManager.addOrderResponse(orderMessage.getOrderId(), rejection.toGrpcOrderResponse(receiver.getServiceId()));
+        return rejection;
+    }
+    
+    private static OrderResponse errorResponse(OrderMessage orderMessage, Throwable e) {
+        return new OrderResponse(orderMessage.getOrderId(), "ERROR", "Failed to send order: " + e.getMessage());
+    }
+    
+    /**
+     * Sends over shared memory when the receiver advertises an {@code ipc-path}
+     * and runs on this host. Returns {@code null} to fall back to TCP if the
+     * channel cannot be opened or the request was never written. A failure
+     * after that, such as a response timeout, is thrown instead: the receiver
+     * may have decided the order, so sending it over TCP as well could fill
+     * it twice. A failed channel is dropped and IPC is not retried for that
+     * receiver for a while.
+     */
+    private OrderResponse sendIpc(ReceiverInfo receiver, OrderMessage orderMessage) throws IOException {
+        String ipcPath = receiver.getMetadata().get("ipc-path");
+        if (!SenderConfig.IPC_ENABLED || ipcPath == null) {
+            return null;
+        }
+        IpcOrderChannel channel = ipcChannel(receiver, ipcPath);
+        if (channel == null) {
+            return null;
+        }
+        try {
+            byte[] line = orderMessage.wireLine();
+            return OrderResponse.fromTcpString(channel.request(line, line.length, SenderConfig.TCP_TIMEOUT_MS));
+        } catch (IOException e) {
+            ipcChannels.remove(receiver.getServiceId(), channel);
+            channel.close();
+            ipcRetryAfter.put(receiver.getServiceId(), System.currentTimeMillis() + IPC_RETRY_DELAY_MS);
+            if (!(e instanceof OrderNotSentException)) {
+                throw e;
+            }
+            logger.warn("IPC with receiver {} failed, falling back to TCP: {}", receiver.getServiceId(), e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * The receiver's IPC session, opened on first use. Opening can wait for the
+     * receiver to attach, so it is serialized per receiver and never holds up
+     * orders to other receivers.
+     */
+    private IpcOrderChannel ipcChannel(ReceiverInfo receiver, String ipcPath) {
+        String receiverId = receiver.getServiceId();
+        IpcOrderChannel channel = ipcChannels.get(receiverId);
+        if (channel != null) {
+            return channel;
+        }
+        synchronized (ipcOpenLocks.computeIfAbsent(receiverId, id -> new Object())) {
+            return openIpcChannel(receiver, ipcPath);
+        }
+    }
+    
+    private IpcOrderChannel openIpcChannel(ReceiverInfo receiver, String ipcPath) {
+        String receiverId = receiver.getServiceId();
+        IpcOrderChannel channel = ipcChannels.get(receiverId);
+        if (channel != null) {
+            return channel;
+        }
+        Long retryAfter = ipcRetryAfter.get(receiverId);
+        if (retryAfter != null && System.currentTimeMillis() < retryAfter) {
+            return null;
+        }
+        
+        ipcRetryAfter.put(receiverId, System.currentTimeMillis() + IPC_RETRY_DELAY_MS);
+        if (!receiver.isLocal() || !IpcOrderChannel.isServed(Paths.get(ipcPath))) {
+            return null;
+        }
+        try {
+            channel = IpcOrderChannel.open(Paths.get(ipcPath), SenderConfig.SENDER_ID);
+        } catch (IOException e) {
+            logger.warn("Cannot open IPC session with receiver {} in {}: {}", receiverId, ipcPath, e.getMessage());
+            return null;
+        }
+        ipcRetryAfter.remove(receiverId);
+        ipcChannels.put(receiverId, channel);
+        logger.info("Using shared-memory IPC for receiver {} ({})", receiverId, channel);
+        return channel;
+    }
+    
+    /**
+     * The receiver's pipelined channel, replaced once it has failed or the
+     * receiver has moved. Connecting and negotiating are serialized per
+     * receiver, so a slow receiver does not hold up orders to the others.
+     */
+    private PipelinedOrderChannel pipelinedChannel(ReceiverInfo receiver) throws IOException {
+        PipelinedOrderChannel channel = pipelinedChannels.get(receiver.getServiceId());
+        if (isUsable(channel, receiver)) {
+            return channel;
+        }
+        synchronized (pipelinedOpenLocks.computeIfAbsent(receiver.getServiceId(), id -> new Object())) {
+            return openPipelinedChannel(receiver);
+        }
+    }
+    
+    private PipelinedOrderChannel openPipelinedChannel(ReceiverInfo receiver) throws IOException {
+        String receiverId = receiver.getServiceId();
+        PipelinedOrderChannel channel = pipelinedChannels.get(receiverId);
+        if (isUsable(channel, receiver)) {
+            return channel;
+        }
+        if (channel != null) {
+            channel.close();
+        }
+        boolean binary = binaryWireFormat && !textOnlyReceivers.contains(receiverId);
+        channel = PipelinedOrderChannel.open(receiver, binary, SenderConfig.TCP_MAX_IN_FLIGHT, SenderConfig.TCP_TIMEOUT_MS);
+        if (binary && !channel.isBinary()) {
+            textOnlyReceivers.add(receiverId);
+            logger.info("Receiver {} declined the binary protocol, falling back to text", receiverId);
+        }
+        pipelinedChannels.put(receiverId, channel);
+        return channel;
+    }
+    
+    private static boolean isUsable(PipelinedOrderChannel channel, ReceiverInfo receiver) {
+        return channel != null && channel.isOpen() && channel.getEndpoint().equals(ReceiverConnection.endpoint(receiver));
+    }
+    
+    /**
+     * Closes pooled and pipelined connections and IPC sessions of receivers that are no
+     * longer in {@code receivers}; call with each fresh discovery result.
+     */
+    public void retainReceivers(List<ReceiverInfo> receivers) {
+        Set<String> serviceIds = new HashSet<>();
+        for (ReceiverInfo receiver : receivers) {
+            serviceIds.add(receiver.getServiceId());
+        }
+        connectionPool.retainOnly(serviceIds);
+        receiverStats.retainOnly(serviceIds);
+        for (String receiverId : ipcChannels.keySet()) {
+            if (!serviceIds.contains(receiverId)) {
+                IpcOrderChannel channel = ipcChannels.remove(receiverId);
+                if (channel != null) {
+                    channel.close();
+                    logger.info("Receiver {} left discovery, closed IPC session {}", receiverId, channel);
+                }
+            }
+        }
+        for (String receiverId : pipelinedChannels.keySet()) {
+            if (!serviceIds.contains(receiverId)) {
+                PipelinedOrderChannel channel = pipelinedChannels.remove(receiverId);
+                if (channel != null) {
+                    channel.close();
+                }
+            }
+        }
+        ipcRetryAfter.keySet().retainAll(serviceIds);
+        ipcOpenLocks.keySet().retainAll(serviceIds);
+        pipelinedOpenLocks.keySet().retainAll(serviceIds);
+        circuitBreakers.keySet().retainAll(serviceIds);
+        textOnlyReceivers.retainAll(serviceIds);
+    }
+    
+    /** Releases shared-memory sessions and receiver connections so receivers can reclaim them immediately. */
+    public void shutdown() {
+        for (IpcOrderChannel channel : ipcChannels.values()) {
+            channel.close();
+        }
+        ipcChannels.clear();
+        for (PipelinedOrderChannel channel : pipelinedChannels.values()) {
+            channel.close();
+        }
+        pipelinedChannels.clear();
+        connectionPool.close();
+    }
+    
+    /**
+     * Sends over a pooled connection. A reused connection may have been closed
+     * by the receiver while idle, so if writing the order on one fails with
+     * nothing written, it is sent once more on a fresh connection. A failure
+     * after that, such as a read timeout, is resent only if the receiver
+     * deduplicates order IDs, since it may already have decided the order.
+     */
+    private OrderResponse sendPooled(ReceiverInfo receiver, OrderMessage orderMessage) throws IOException {
+        ReceiverConnection connection = connect(receiver, false);
+        boolean reused = !connection.isNew();
+        try {
+            return exchange(receiver, connection, orderMessage);
+        } catch (IOException e) {
+            if (!reused || e instanceof InterruptedIOException || !canResend(receiver, e)) {
+                throw e;
+            }
+            logger.debug("Pooled connection to {} failed, reconnecting: {}", receiver.getServiceId(), e.getMessage());
+        }
+        return exchange(receiver, connect(receiver, true), orderMessage);
+    }
+    
+    /** Borrows a pooled connection, or opens a fresh one; failing to connect sends nothing. */
+    private ReceiverConnection connect(ReceiverInfo receiver, boolean fresh) throws IOException {
+        try {
+            return fresh ? connectionPool.connect(receiver) : connectionPool.borrow(receiver);
+        } catch (InterruptedIOException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new OrderNotSentException(e);
+        }
+    }
+    
+    /**
+     * Sends one order and returns the connection to the pool, or closes it if
+     * the exchange failed or the receiver answered BUSY, since it closes the
+     * connection after that. A new connection first tries the binary handshake
+     * when {@code WIRE_FORMAT=binary}; a receiver that declines it is sent text
+     * from then on.
+     */
+    private OrderResponse exchange(ReceiverInfo receiver, ReceiverConnection connection, OrderMessage orderMessage) throws IOException {
+        OrderResponse response;
+        try {
+            if (connection.isNew() && binaryWireFormat && !textOnlyReceivers.contains(receiver.getServiceId())) {
+                String reply = negotiateBinary(connection);
+                if (BinaryOrderCodec.isBusy(reply)) {
+                    OrderResponse busy = OrderResponse.fromTcpString(reply);
+                    connectionPool.discard(connection);
+                    return new OrderResponse(orderMessage.getOrderId(), busy.getStatus(), busy.getMessage());
+                }
+                if (!connection.isBinary()) {
+                    textOnlyReceivers.add(receiver.getServiceId());
+                    logger.info("Receiver {} declined the binary protocol, falling back to text", receiver.getServiceId());
+                }
+            }
+            if (connection.isBinary()) {
+                response = connection.exchangeBinary(orderMessage);
+            } else {
+                byte[] line = orderMessage.wireLine();
+                response = OrderResponse.fromTcpString(connection.exchangeText(line, line.length));
+            }
+        } catch (IOException | RuntimeException e) {
+            connectionPool.discard(connection);
+            throw e;
+        }
+        if ("BUSY".equals(response.getStatus())) {
+            connectionPool.discard(connection);
+        } else {
+            connectionPool.release(receiver, connection);
+        }
+        return response;
+    }
+    
+    private static String negotiateBinary(ReceiverConnection connection) throws IOException {
+        try {
+            return connection.negotiateBinary();
+        } catch (InterruptedIOException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new OrderNotSentException(e); // the order itself goes out after the handshake
         }
     }
     
@@ -105,10 +586,28 @@ public class OrderSender {
         private final double price;
         private final String account;
         private final String exchange;
-        private final String timestamp;
+        private final long transactTimeMillis;
+        private final byte[] wireLine;   // null until first needed, unless given
+        private String timestamp;        // null until first needed, unless given
         
         public OrderMessage(String orderId, String symbol, String side, int quantity, 
-                          double price, String account, String exchange, String timestamp) {
+                          double price, String account, String exchange, String timestamp,
+                          long transactTimeMillis) {
+            this(orderId, symbol, side, quantity, price, account, exchange, timestamp, transactTimeMillis, null);
+        }
+        
+        /**
+         * For orders whose wire line was already written, e.g. by
+         * {@link MockOrderGenerator}: the ASCII line without a terminator,
+         * ending in the timestamp, which is only decoded if asked for.
+         */
+        OrderMessage(String orderId, String symbol, String side, int quantity, double price, String account,
+                     String exchange, long transactTimeMillis, byte[] wireLine) {
+            this(orderId, symbol, side, quantity, price, account, exchange, null, transactTimeMillis, wireLine);
+        }
+        
+        private OrderMessage(String orderId, String symbol, String side, int quantity, double price, String account,
+                             String exchange, String timestamp, long transactTimeMillis, byte[] wireLine) {
             this.orderId = orderId;
             this.symbol = symbol;
             this.side = side;
@@ -117,14 +616,24 @@ public class OrderSender {
             this.account = account;
             this.exchange = exchange;
             this.timestamp = timestamp;
+            this.transactTimeMillis = transactTimeMillis;
+            this.wireLine = wireLine;
         }
         
         public String toTcpString() {
+            if (wireLine != null) {
+                return new String(wireLine, StandardCharsets.US_ASCII);
+            }
             // Simple pipe-delimited format for TCP communication
             return String.format("ORDER|%s|%s|%s|%d|%.2f|%s|%s|%s", 
                 orderId, symbol, side, quantity, price, account, exchange, timestamp);
         }
         
+        /** The text wire line as ASCII bytes, without a terminator; written to receivers as is. */
+        byte[] wireLine() {
+            return wireLine != null ? wireLine : toTcpString().getBytes(StandardCharsets.US_ASCII);
+        }
+        
         // Getters
         public String getOrderId() { return orderId; }
         public String getSymbol() { return symbol; }
@@ -133,7 +642,17 @@ public class OrderSender {
         public double getPrice() { return price; }
         public String getAccount() { return account; }
         public String getExchange() { return exchange; }
-        public String getTimestamp() { return timestamp; }
+        public String getTimestamp() {
+            if (timestamp == null && wireLine != null) {
+                int start = wireLine.length;
+                while (wireLine[start - 1] != '|') {
+                    start--;
+                }
+                timestamp = new String(wireLine, start, wireLine.length - start, StandardCharsets.US_ASCII);
+            }
+            return timestamp;
+        }
+        public long getTransactTimeMillis() { return transactTimeMillis; }
     }
     
     public static class OrderResponse {
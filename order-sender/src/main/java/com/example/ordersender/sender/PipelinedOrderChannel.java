@@ -0,0 +1,180 @@
+package com.example.ordersender.sender;
+
+import com.example.ordersender.consul.ConsulServiceDiscovery.ReceiverInfo;
+import com.example.ordersender.sender.OrderSender.OrderMessage;
+import com.example.ordersender.sender.OrderSender.OrderResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A connection to one receiver that keeps up to {@code window} orders in
+ * flight. Callers write orders under a lock and get a future back; a reader
+ * thread matches each response to its future by order ID, since the receiver
+ * answers every order on a connection exactly once and tags the answer with
+ * the order ID. Throughput is then bounded by the connection's bandwidth
+ * rather than one round trip per order.
+ *
+ * <p>An order not answered within the timeout fails with a
+ * {@link TimeoutException} and frees its window slot; a late answer is
+ * dropped. When the connection fails, every outstanding order fails with the
+ * cause and the channel refuses new ones, so the owner opens a new channel.
+ */
+final class PipelinedOrderChannel implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(PipelinedOrderChannel.class);
+
+    private final String receiverId;
+    private final ReceiverConnection connection;
+    private final Semaphore window;
+    private final int timeoutMs;
+    private final Map<String, CompletableFuture<OrderResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private volatile IOException failure;
+
+    private PipelinedOrderChannel(String receiverId, ReceiverConnection connection, int window, int timeoutMs) {
+        this.receiverId = receiverId;
+        this.connection = connection;
+        this.window = new Semaphore(Math.max(1, window));
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Connects to {@code receiver}, negotiates binary first if {@code binary}
+     * is set, and starts the reader thread.
+     *
+     * @return the channel, whose {@link #isBinary()} says which format the receiver accepted
+     */
+    static PipelinedOrderChannel open(ReceiverInfo receiver, boolean binary, int window, int timeoutMs) throws IOException {
+        ReceiverConnection connection = ReceiverConnection.openBlocking(receiver, timeoutMs);
+        try {
+            if (binary) {
+                String reply = connection.negotiateBinary();
+                if (BinaryOrderCodec.isBusy(reply)) {
+                    throw new IOException("Receiver " + receiver.getServiceId() + " is busy: " + reply);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            connection.closeQuietly();
+            throw e;
+        }
+        PipelinedOrderChannel channel = new PipelinedOrderChannel(receiver.getServiceId(), connection, window, timeoutMs);
+        new Thread(channel::readResponses, "order-reader-" + receiver.getServiceId()) {{
+            setDaemon(true);
+            start();
+        }};
+        return channel;
+    }
+
+    String getEndpoint() {
+        return connection.getEndpoint();
+    }
+
+    boolean isBinary() {
+        return connection.isBinary();
+    }
+
+    /** {@code false} once the connection has failed or been closed. */
+    boolean isOpen() {
+        return failure == null;
+    }
+
+    int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Writes {@code order} and returns a future for its response. Blocks while
+     * the window is full, for at most the timeout, so callers cannot queue
+     * without bound.
+     */
+    CompletableFuture<OrderResponse> submit(OrderMessage order) {
+        CompletableFuture<OrderResponse> future = new CompletableFuture<>();
+        try {
+            if (!window.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                future.completeExceptionally(new TimeoutException(
+                        "No free slot in the " + receiverId + " order window after " + timeoutMs + "ms"));
+                return future;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+            return future;
+        }
+
+        String orderId = order.getOrderId();
+        if (inFlight.putIfAbsent(orderId, future) != null) {
+            window.release();
+            future.completeExceptionally(new IllegalStateException("Order " + orderId + " is already in flight"));
+            return future;
+        }
+        future.whenComplete((response, error) -> {
+            inFlight.remove(orderId, future);
+            window.release();
+        });
+
+        IOException failed = failure;
+        if (failed == null) {
+            try {
+                synchronized (writeLock) {
+                    connection.writeOrder(order);
+                }
+            } catch (IOException e) {
+                failed = e;
+                fail(e);
+            }
+        }
+        if (failed != null) {
+            future.completeExceptionally(failed);
+            return future;
+        }
+        return future.orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void readResponses() {
+        try {
+            while (failure == null) {
+                OrderResponse response = connection.readResponse();
+                CompletableFuture<OrderResponse> future = inFlight.get(response.getOrderId());
+                if (future != null) {
+                    future.complete(response);
+                } else if ("BUSY".equals(response.getStatus())) {
+                    // Refused at the connection level; the receiver closes the connection next
+                    for (Map.Entry<String, CompletableFuture<OrderResponse>> entry : inFlight.entrySet()) {
+                        entry.getValue().complete(new OrderResponse(entry.getKey(), response.getStatus(), response.getMessage()));
+                    }
+                } else {
+                    logger.debug("Dropping response from {} for order {} that is no longer in flight",
+                            receiverId, response.getOrderId());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            if (failure == null) {
+                logger.warn("Pipelined connection to {} failed: {}", receiverId, e.getMessage());
+                fail(e instanceof IOException ? (IOException) e : new IOException(e));
+            }
+        }
+    }
+
+    private void fail(IOException cause) {
+        if (failure == null) {
+            failure = cause;
+        }
+        connection.closeQuietly();
+        for (CompletableFuture<OrderResponse> future : inFlight.values()) {
+            future.completeExceptionally(cause);
+        }
+    }
+
+    @Override
+    public void close() {
+        fail(new IOException("Connection to " + receiverId + " closed"));
+    }
+}
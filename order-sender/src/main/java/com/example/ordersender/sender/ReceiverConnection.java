@@ -0,0 +1,359 @@
+package com.example.ordersender.sender;
+
+import com.example.ordersender.consul.ConsulServiceDiscovery.ReceiverInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One persistent connection to a receiver: its Unix domain socket when
+ * discovery found one on this host, otherwise TCP. Both carry the same
+ * protocol and both honour the read timeout; the Unix socket falls back to TCP
+ * if it cannot be connected. The connection keeps the text or binary session
+ * it negotiated, so it can be handed back to a {@link ReceiverConnectionPool}
+ * and reused for later orders.
+ */
+final class ReceiverConnection implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(ReceiverConnection.class);
+    private static final int TEXT_BUFFER_BYTES = 256;
+
+    private final String endpoint;
+    private final SocketChannel channel;
+    private final Selector selector;
+    private final InputStream in;
+    private final ChannelOutput out;
+    private final ByteBuffer probe = ByteBuffer.allocate(1);
+
+    private BufferedReader textIn;
+    private ByteBuffer textOut;
+    private DataInputStream binaryIn;
+    private DataOutputStream binaryOut;
+    private BinaryOrderCodec codec;
+    private boolean used;
+    private long lastUsedNanos = System.nanoTime();
+
+    private ReceiverConnection(String endpoint, SocketChannel channel, Selector selector, int timeoutMs) {
+        this.endpoint = endpoint;
+        this.channel = channel;
+        this.selector = selector;
+        SelectionKey key = selector != null ? channel.keyFor(selector) : null;
+        this.in = new ChannelInput(channel, key, timeoutMs);
+        this.out = new ChannelOutput(channel, key, timeoutMs);
+    }
+
+    static ReceiverConnection open(ReceiverInfo receiver, int timeoutMs) throws IOException {
+        return open(receiver, timeoutMs, false);
+    }
+
+    /**
+     * A connection left in blocking mode, so one thread can write orders while
+     * another reads responses. Reads and writes have no timeout; callers time
+     * out the orders instead.
+     */
+    static ReceiverConnection openBlocking(ReceiverInfo receiver, int connectTimeoutMs) throws IOException {
+        return open(receiver, connectTimeoutMs, true);
+    }
+
+    private static ReceiverConnection open(ReceiverInfo receiver, int timeoutMs, boolean blocking) throws IOException {
+        if (receiver.getUdsPath() != null) {
+            try {
+                SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+                return connect(channel, UnixDomainSocketAddress.of(receiver.getUdsPath()), timeoutMs, endpoint(receiver), blocking);
+            } catch (IOException e) {
+                logger.debug("Unix domain socket {} unavailable, using TCP: {}", receiver.getUdsPath(), e.getMessage());
+            }
+        }
+        SocketChannel channel = SocketChannel.open();
+        return connect(channel, new InetSocketAddress(receiver.getAddress(), receiver.getPort()), timeoutMs, endpoint(receiver), blocking);
+    }
+
+    /** Where a connection for {@code receiver} would go; a pool is flushed when this changes. */
+    static String endpoint(ReceiverInfo receiver) {
+        return receiver.getAddress() + ":" + receiver.getPort() + (receiver.getUdsPath() != null ? "|" + receiver.getUdsPath() : "");
+    }
+
+    /** Channels have no SO_TIMEOUT, so non-blocking reads and writes wait on a selector instead. */
+    private static ReceiverConnection connect(SocketChannel channel, SocketAddress address, int timeoutMs,
+                                              String endpoint, boolean blocking) throws IOException {
+        Selector selector = null;
+        try {
+            if (address instanceof InetSocketAddress) {
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                channel.socket().connect(address, timeoutMs);
+            } else {
+                channel.connect(address);
+            }
+            if (!blocking) {
+                channel.configureBlocking(false);
+                selector = Selector.open();
+                channel.register(selector, 0);
+            }
+            return new ReceiverConnection(endpoint, channel, selector, timeoutMs);
+        } catch (IOException e) {
+            channel.close();
+            if (selector != null) {
+                selector.close();
+            }
+            throw e;
+        }
+    }
+
+    String getEndpoint() {
+        return endpoint;
+    }
+
+    /** {@code true} until the first order has been exchanged, so the wire format can still be chosen. */
+    boolean isNew() {
+        return !used;
+    }
+
+    boolean isBinary() {
+        return codec != null;
+    }
+
+    /**
+     * Asks the receiver to switch this connection to binary; see
+     * {@link BinaryOrderCodec#negotiate}. The connection stays on text unless
+     * the reply is {@link BinaryOrderCodec#HELLO_ACCEPTED}.
+     */
+    String negotiateBinary() throws IOException {
+        BinaryOrderCodec candidate = new BinaryOrderCodec();
+        String reply = candidate.negotiate(in, binaryOut());
+        if (BinaryOrderCodec.HELLO_ACCEPTED.equals(reply)) {
+            codec = candidate;
+        }
+        return reply;
+    }
+
+    /**
+     * Sends one text order line, the first {@code length} bytes of
+     * {@code line} without a terminator, and reads its response line.
+     */
+    String exchangeText(byte[] line, int length) throws IOException {
+        writeText(line, length);
+        return readText();
+    }
+
+    /** Sends one binary order and reads its response; only valid once {@link #isBinary()}. */
+    OrderSender.OrderResponse exchangeBinary(OrderSender.OrderMessage order) throws IOException {
+        writeBinary(order);
+        return readBinary();
+    }
+
+    /**
+     * Writes one order in the negotiated format without waiting for its
+     * response. Writes and reads may come from different threads, but each
+     * only from one at a time.
+     */
+    void writeOrder(OrderSender.OrderMessage order) throws IOException {
+        if (isBinary()) {
+            writeBinary(order);
+        } else {
+            byte[] line = order.wireLine();
+            writeText(line, line.length);
+        }
+    }
+
+    /** Reads the next response in the negotiated format, whichever order it answers. */
+    OrderSender.OrderResponse readResponse() throws IOException {
+        return isBinary() ? readBinary() : OrderSender.OrderResponse.fromTcpString(readText());
+    }
+
+    /** Copies the line and its terminator into one reused buffer and writes it; nothing is encoded or allocated. */
+    private void writeText(byte[] line, int length) throws IOException {
+        used = true;
+        if (textOut == null || textOut.capacity() < length + 1) {
+            textOut = ByteBuffer.allocateDirect(Math.max(TEXT_BUFFER_BYTES, length + 1));
+        }
+        textOut.clear();
+        textOut.put(line, 0, length).put((byte) '\n').flip();
+        long writtenBefore = out.written;
+        try {
+            out.write(textOut);
+        } catch (IOException e) {
+            throw failedWrite(writtenBefore, e);
+        }
+    }
+
+    private String readText() throws IOException {
+        if (textIn == null) {
+            textIn = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII));
+        }
+        String response = textIn.readLine();
+        if (response == null) {
+            throw new IOException("No response received from receiver");
+        }
+        return response;
+    }
+
+    private void writeBinary(OrderSender.OrderMessage order) throws IOException {
+        used = true;
+        long writtenBefore = out.written;
+        try {
+            codec.writeOrder(order, binaryOut());
+        } catch (IOException e) {
+            throw failedWrite(writtenBefore, e);
+        }
+    }
+
+    /** A write that put no bytes on the wire cannot have delivered the order. */
+    private IOException failedWrite(long writtenBefore, IOException e) {
+        return out.written == writtenBefore && !(e instanceof InterruptedIOException) ? new OrderNotSentException(e) : e;
+    }
+
+    private OrderSender.OrderResponse readBinary() throws IOException {
+        if (binaryIn == null) {
+            binaryIn = new DataInputStream(new BufferedInputStream(in));
+        }
+        return codec.readResponse(binaryIn);
+    }
+
+    private DataOutputStream binaryOut() {
+        if (binaryOut == null) {
+            binaryOut = new DataOutputStream(new BufferedOutputStream(out));
+        }
+        return binaryOut;
+    }
+
+    void markIdle(long now) {
+        lastUsedNanos = now;
+    }
+
+    long idleNanos(long now) {
+        return now - lastUsedNanos;
+    }
+
+    /**
+     * Cheap liveness check for an idle connection: a non-blocking read must
+     * find nothing. End of stream means the receiver closed it; unread bytes
+     * mean the request/response stream is out of step.
+     */
+    boolean isHealthy() {
+        if (!channel.isOpen()) {
+            return false;
+        }
+        try {
+            probe.clear();
+            return channel.read(probe) == 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            if (selector != null) {
+                selector.close();
+            }
+        }
+    }
+
+    /** Closes without throwing; for connections that are being thrown away anyway. */
+    void closeQuietly() {
+        try {
+            close();
+        } catch (IOException e) {
+            logger.debug("Error closing connection to {}: {}", endpoint, e.getMessage());
+        }
+    }
+
+    private static void await(SelectionKey key, int ops, int timeoutMs) throws IOException {
+        key.interestOps(ops);
+        if (key.selector().select(timeoutMs) == 0) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Interrupted while waiting for receiver");
+            }
+            throw new SocketTimeoutException("Timed out after " + timeoutMs + "ms waiting for receiver");
+        }
+        key.selector().selectedKeys().clear();
+    }
+
+    private static final class ChannelInput extends InputStream {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final int timeoutMs;
+
+        ChannelInput(SocketChannel channel, SelectionKey key, int timeoutMs) {
+            this.channel = channel;
+            this.key = key;
+            this.timeoutMs = timeoutMs;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+            int read;
+            while ((read = channel.read(buffer)) == 0) {
+                await(key, SelectionKey.OP_READ, timeoutMs);
+            }
+            return read;
+        }
+    }
+
+    private static final class ChannelOutput extends OutputStream {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final int timeoutMs;
+        private long written; // bytes handed to the socket so far
+
+        ChannelOutput(SocketChannel channel, SelectionKey key, int timeoutMs) {
+            this.channel = channel;
+            this.key = key;
+            this.timeoutMs = timeoutMs;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            write(ByteBuffer.wrap(b, off, len));
+        }
+
+        void write(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                int count = channel.write(buffer);
+                written += count;
+                if (count == 0) {
+                    await(key, SelectionKey.OP_WRITE, timeoutMs);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.ordersender.sender;
+
+import com.example.ordersender.consul.ConsulServiceDiscovery.ReceiverInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Idle {@link ReceiverConnection}s kept per receiver, keyed by Consul service
+ * ID, so an order reuses an established connection instead of paying for a
+ * connect and handshake. Connections are borrowed by one caller at a time and
+ * returned afterwards; the most recently returned one is handed out first.
+ *
+ * <p>A borrowed connection is probed first and discarded if the receiver has
+ * closed it or it has sat idle longer than the idle timeout. A background
+ * sweep closes idle connections the same way. {@link #retainOnly} tears down
+ * the pools of receivers that discovery no longer returns, and a pool is
+ * flushed when its receiver re-registers at a different address.
+ */
+final class ReceiverConnectionPool implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(ReceiverConnectionPool.class);
+
+    private final int maxIdlePerReceiver;
+    private final long idleTimeoutNanos;
+    private final int timeoutMs;
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService evictor;
+    private final AtomicLong opened = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+
+    /**
+     * @param maxIdlePerReceiver  idle connections kept per receiver; further returns are closed
+     * @param idleTimeoutMillis   how long a connection may sit unused before it is closed
+     * @param timeoutMs           connect and read timeout for new connections
+     */
+    ReceiverConnectionPool(int maxIdlePerReceiver, long idleTimeoutMillis, int timeoutMs) {
+        this.maxIdlePerReceiver = Math.max(0, maxIdlePerReceiver);
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, idleTimeoutMillis));
+        this.timeoutMs = timeoutMs;
+        this.evictor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "connection-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepMillis = Math.max(100, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** An idle connection to {@code receiver} that passed its health check, or a new one. */
+    ReceiverConnection borrow(ReceiverInfo receiver) throws IOException {
+        Pool pool = pool(receiver);
+        long now = System.nanoTime();
+        ReceiverConnection connection;
+        while ((connection = pool.poll()) != null) {
+            if (connection.idleNanos(now) < idleTimeoutNanos && connection.isHealthy()) {
+                reused.incrementAndGet();
+                return connection;
+            }
+            evicted.incrementAndGet();
+            connection.closeQuietly();
+        }
+        return connect(receiver);
+    }
+
+    /** A new connection to {@code receiver}, bypassing any idle ones. */
+    ReceiverConnection connect(ReceiverInfo receiver) throws IOException {
+        ReceiverConnection connection = ReceiverConnection.open(receiver, timeoutMs);
+        opened.incrementAndGet();
+        return connection;
+    }
+
+    /** Returns a connection after a complete exchange, so the next order can use it. */
+    void release(ReceiverInfo receiver, ReceiverConnection connection) {
+        connection.markIdle(System.nanoTime());
+        Pool pool = pools.get(receiver.getServiceId());
+        if (pool == null || !connection.getEndpoint().equals(pool.endpoint) || !pool.offer(connection, maxIdlePerReceiver)) {
+            connection.closeQuietly();
+        }
+    }
+
+    /** Closes a connection whose stream can no longer be trusted. */
+    void discard(ReceiverConnection connection) {
+        connection.closeQuietly();
+    }
+
+    /** Closes the pools of every receiver whose service ID is not in {@code serviceIds}. */
+    void retainOnly(Collection<String> serviceIds) {
+        for (String serviceId : new ArrayList<>(pools.keySet())) {
+            if (!serviceIds.contains(serviceId)) {
+                Pool pool = pools.remove(serviceId);
+                if (pool != null) {
+                    int closed = pool.closeAll();
+                    logger.info("Receiver {} left discovery, closed {} pooled connections", serviceId, closed);
+                }
+            }
+        }
+    }
+
+    /** Closes connections that have been idle longer than the idle timeout. */
+    void evictIdle() {
+        long now = System.nanoTime();
+        for (Pool pool : pools.values()) {
+            for (ReceiverConnection connection : pool.removeIdle(now, idleTimeoutNanos)) {
+                evicted.incrementAndGet();
+                connection.closeQuietly();
+            }
+        }
+    }
+
+    int getIdleCount() {
+        int idle = 0;
+        for (Pool pool : pools.values()) {
+            idle += pool.size();
+        }
+        return idle;
+    }
+
+    long getOpenedCount() {
+        return opened.get();
+    }
+
+    long getReusedCount() {
+        return reused.get();
+    }
+
+    long getEvictedCount() {
+        return evicted.get();
+    }
+
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+        for (String serviceId : new ArrayList<>(pools.keySet())) {
+            Pool pool = pools.remove(serviceId);
+            if (pool != null) {
+                pool.closeAll();
+            }
+        }
+    }
+
+    /** The pool for {@code receiver}, replaced if the receiver now lives somewhere else. */
+    private Pool pool(ReceiverInfo receiver) {
+        String endpoint = ReceiverConnection.endpoint(receiver);
+        Pool pool = pools.computeIfAbsent(receiver.getServiceId(), id -> new Pool(endpoint));
+        if (!pool.endpoint.equals(endpoint)) {
+            Pool moved = new Pool(endpoint);
+            if (pools.replace(receiver.getServiceId(), pool, moved)) {
+                logger.info("Receiver {} moved to {}, closing {} pooled connections",
+                        receiver.getServiceId(), endpoint, pool.closeAll());
+                return moved;
+            }
+            return pool(receiver);
+        }
+        return pool;
+    }
+
+    /** Idle connections to one receiver, most recently used first. */
+    private static final class Pool {
+        final String endpoint;
+        private final Deque<ReceiverConnection> idle = new ArrayDeque<>();
+        private boolean closed;
+
+        Pool(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        synchronized ReceiverConnection poll() {
+            return idle.pollFirst();
+        }
+
+        synchronized boolean offer(ReceiverConnection connection, int maxIdle) {
+            if (closed || idle.size() >= maxIdle) {
+                return false;
+            }
+            idle.offerFirst(connection);
+            return true;
+        }
+
+        synchronized int size() {
+            return idle.size();
+        }
+
+        /** Removes connections idle for at least {@code timeoutNanos}; they sit at the tail. */
+        synchronized List<ReceiverConnection> removeIdle(long now, long timeoutNanos) {
+            List<ReceiverConnection> expired = new ArrayList<>();
+            while (!idle.isEmpty() && idle.peekLast().idleNanos(now) >= timeoutNanos) {
+                expired.add(idle.pollLast());
+            }
+            return expired;
+        }
+
+        /** Closes every idle connection and refuses later returns. */
+        int closeAll() {
+            List<ReceiverConnection> connections;
+            synchronized (this) {
+                closed = true;
+                connections = new ArrayList<>(idle);
+                idle.clear();
+            }
+            for (ReceiverConnection connection : connections) {
+                connection.closeQuietly();
+            }
+            return connections.size();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.ordersender.resilience;
+
+import com.example.ordersender.resilience.CircuitBreaker.State;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(2);
+
+    @Test
+    void staysClosedUntilTheWindowHasTheMinimumCalls() {
+        CircuitBreaker breaker = breaker(60_000);
+
+        for (int i = 0; i < 3; i++) {
+            call(breaker, false, FAST);
+        }
+
+        assertEquals(State.CLOSED, breaker.getState());
+        assertEquals(100f, breaker.getFailureRate());
+    }
+
+    @Test
+    void opensAtTheFailureRateAndRejectsCalls() {
+        CircuitBreaker breaker = breaker(60_000);
+
+        call(breaker, true, FAST);
+        call(breaker, true, FAST);
+        call(breaker, false, FAST);
+        call(breaker, false, FAST);
+
+        assertEquals(State.OPEN, breaker.getState());
+        assertFalse(breaker.isCallPermitted());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1, breaker.getRejectedCount());
+        assertEquals(1, breaker.getTimesOpened());
+    }
+
+    @Test
+    void opensAtTheSlowCallRate() {
+        CircuitBreaker breaker = breaker(60_000);
+
+        for (int i = 0; i < 4; i++) {
+            call(breaker, true, SLOW);
+        }
+
+        assertEquals(State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void oldOutcomesLeaveTheWindow() {
+        CircuitBreaker breaker = breaker(60_000);
+
+        call(breaker, false, FAST);
+        for (int i = 0; i < 10; i++) {
+            call(breaker, true, FAST);
+        }
+
+        assertEquals(State.CLOSED, breaker.getState());
+        assertEquals(0f, breaker.getFailureRate());
+        assertEquals(10, breaker.getBufferedCalls());
+    }
+
+    @Test
+    void halfOpenLetsALimitedNumberOfProbesThrough() {
+        CircuitBreaker breaker = openBreaker(0);
+
+        assertTrue(breaker.isCallPermitted());
+        assertEquals(State.OPEN, breaker.getState());
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void successfulProbesCloseTheBreaker() {
+        CircuitBreaker breaker = openBreaker(0);
+
+        breaker.tryAcquire();
+        breaker.tryAcquire();
+        breaker.onSuccess(FAST);
+        breaker.onSuccess(FAST);
+
+        assertEquals(State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void aFailedProbeOpensTheBreakerAgain() {
+        CircuitBreaker breaker = openBreaker(0);
+
+        breaker.tryAcquire();
+        breaker.tryAcquire();
+        breaker.onSuccess(FAST);
+        breaker.onFailure(FAST);
+
+        assertEquals(State.OPEN, breaker.getState());
+        assertEquals(2, breaker.getTimesOpened());
+    }
+
+    @Test
+    void outcomesOfCallsStartedBeforeOpeningAreIgnored() {
+        CircuitBreaker breaker = openBreaker(60_000);
+
+        breaker.onFailure(FAST);
+        breaker.onSuccess(FAST);
+
+        assertEquals(State.OPEN, breaker.getState());
+        assertEquals(0, breaker.getBufferedCalls());
+    }
+
+    /** 50% failures or 80% slow calls over the last 10, once 4 are in; 2 half-open probes. */
+    private static CircuitBreaker breaker(long openMillis) {
+        return new CircuitBreaker("receiver-1", new CircuitBreakerSettings(50, 80, 1000, 10, 4, openMillis, 2));
+    }
+
+    private static CircuitBreaker openBreaker(long openMillis) {
+        CircuitBreaker breaker = breaker(openMillis);
+        for (int i = 0; i < 4; i++) {
+            call(breaker, false, FAST);
+        }
+        assertEquals(State.OPEN, breaker.getState());
+        return breaker;
+    }
+
+    private static void call(CircuitBreaker breaker, boolean succeeds, long durationNanos) {
+        assertTrue(breaker.tryAcquire());
+        if (succeeds) {
+            breaker.onSuccess(durationNanos);
+        } else {
+            breaker.onFailure(durationNanos);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.ordersender.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryBudgetTest {
+
+    @Test
+    void startsWithTheReserve() {
+        RetryBudget budget = new RetryBudget(20, 3);
+
+        assertTrue(budget.tryRetry());
+        assertTrue(budget.tryRetry());
+        assertTrue(budget.tryRetry());
+        assertFalse(budget.tryRetry());
+
+        assertEquals(3, budget.getRetryCount());
+        assertEquals(1, budget.getDeniedCount());
+    }
+
+    @Test
+    void eachRequestDepositsItsShareOfARetry() {
+        RetryBudget budget = new RetryBudget(25, 1);
+        assertTrue(budget.tryRetry());
+
+        for (int i = 0; i < 3; i++) {
+            budget.onRequest();
+        }
+        assertFalse(budget.tryRetry());
+
+        budget.onRequest();
+        assertTrue(budget.tryRetry());
+    }
+
+    @Test
+    void balanceIsCappedAtTheReserve() {
+        RetryBudget budget = new RetryBudget(100, 2);
+
+        for (int i = 0; i < 50; i++) {
+            budget.onRequest();
+        }
+
+        assertEquals(2, budget.getAvailable());
+    }
+
+    @Test
+    void zeroPercentOnlySpendsTheReserve() {
+        RetryBudget budget = new RetryBudget(0, 1);
+        assertTrue(budget.tryRetry());
+
+        for (int i = 0; i < 1000; i++) {
+            budget.onRequest();
+        }
+
+        assertFalse(budget.tryRetry());
+    }
+}
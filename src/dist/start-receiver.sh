@@ -12,7 +12,7 @@ SERVICE_ID=${SERVICE_ID:-"order-receiver-1"}
 TCP_PORT=${TCP_PORT:-9000}
 CONSUL_HOST=${CONSUL_HOST:-"localhost"}
 CONSUL_PORT=${CONSUL_PORT:-8500}
-JAVA_HOME=${JAVA_HOME:-"/usr/lib/jvm/java-11-openjdk"}
+JAVA_HOME=${JAVA_HOME:-"/usr/lib/jvm/java-21-openjdk"}
 JAVA_OPTS=${JAVA_OPTS:-"-Xmx512m -Xms256m"}
 
 # Service directories
@@ -17,7 +17,7 @@ MOCK_ORDER_INITIAL_DELAY=${MOCK_ORDER_INITIAL_DELAY:-2}
 MOCK_ORDER_INTERVAL=${MOCK_ORDER_INTERVAL:-3}
 TCP_TIMEOUT_MS=${TCP_TIMEOUT_MS:-5000}
 TCP_RETRY_ATTEMPTS=${TCP_RETRY_ATTEMPTS:-3}
-JAVA_HOME=${JAVA_HOME:-"/usr/lib/jvm/java-11-openjdk"}
+JAVA_HOME=${JAVA_HOME:-"/usr/lib/jvm/java-21-openjdk"}
 JAVA_OPTS=${JAVA_OPTS:-"-Xmx512m -Xms256m"}
 
 # Service directories